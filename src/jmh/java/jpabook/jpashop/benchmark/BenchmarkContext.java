@@ -0,0 +1,96 @@
+package jpabook.jpashop.benchmark;
+
+import jpabook.jpashop.JpashopApplication;
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Item.Book;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.dto.OrderLineDto;
+import jpabook.jpashop.service.ItemService;
+import jpabook.jpashop.service.MemberService;
+import jpabook.jpashop.service.OrderService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 벤치마크용 스프링 컨텍스트 ( H2 메모리 DB ) 와 테스트 데이터
+ */
+public final class BenchmarkContext {
+
+    private static final int ORDERS_PER_MEMBER = 10;
+
+    private BenchmarkContext() {
+    }
+
+    public static ConfigurableApplicationContext start(String... properties) {
+        return start(WebApplicationType.NONE, properties);
+    }
+
+    // 내장 Tomcat 을 임의 포트 ( local.server.port ) 로 띄움
+    public static ConfigurableApplicationContext startWeb(String... properties) {
+        List<String> web = new ArrayList<>(List.of("server.port=0"));
+        web.addAll(List.of(properties));
+        return start(WebApplicationType.SERVLET, web.toArray(String[]::new));
+    }
+
+    private static ConfigurableApplicationContext start(WebApplicationType webApplicationType, String... properties) {
+        // devtools 재시작 클래스로더가 뜨면 벤치마크 JVM 에서 컨텍스트가 두 번 올라감
+        System.setProperty("spring.devtools.restart.enabled", "false");
+
+        List<String> defaults = new ArrayList<>(List.of(
+                "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                "spring.jpa.hibernate.ddl-auto=create",
+                "spring.jpa.open-in-view=false",
+                "spring.jpa.properties.hibernate.format_sql=false",
+                "decorator.datasource.p6spy.enable-logging=false",
+                "logging.level.root=warn",
+                "logging.level.org.hibernate.sql=warn",
+                "logging.level.org.hibernate.type=warn"));
+        defaults.addAll(List.of(properties));
+
+        return new SpringApplicationBuilder(JpashopApplication.class)
+                .web(webApplicationType)
+                .properties(defaults.toArray(String[]::new))
+                .run();
+    }
+
+    /**
+     * 주문 orders 건, 주문 당 상품 itemsPerOrder 개
+     * 회원은 ORDERS_PER_MEMBER 주문 당 한 명, 상품은 itemsPerOrder * 10 개를 돌려가면서 사용
+     */
+    public static void seed(ConfigurableApplicationContext context, int orders, int itemsPerOrder) {
+        MemberService memberService = context.getBean(MemberService.class);
+        ItemService itemService = context.getBean(ItemService.class);
+        OrderService orderService = context.getBean(OrderService.class);
+
+        List<Long> memberIds = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, orders / ORDERS_PER_MEMBER); i++) {
+            Member member = Member.builder()
+                    .name("member" + i)
+                    .address(new Address("city" + i, "street" + i, "zip" + i))
+                    .build();
+            memberIds.add(memberService.join(member));
+        }
+
+        List<Long> itemIds = new ArrayList<>();
+        for (int i = 0; i < itemsPerOrder * 10; i++) {
+            Book book = new Book();
+            book.setName("book" + i);
+            book.setPrice(1000 + i);
+            book.setStockQuantity(Integer.MAX_VALUE / 2);
+            itemService.save(book);
+            itemIds.add(book.getId());
+        }
+
+        for (int i = 0; i < orders; i++) {
+            List<OrderLineDto> orderLines = new ArrayList<>(itemsPerOrder);
+            for (int j = 0; j < itemsPerOrder; j++) {
+                orderLines.add(new OrderLineDto(itemIds.get((i + j) % itemIds.size()), 1));
+            }
+            orderService.order(memberIds.get(i % memberIds.size()), orderLines);
+        }
+    }
+}
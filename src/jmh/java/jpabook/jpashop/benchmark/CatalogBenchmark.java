@@ -0,0 +1,104 @@
+package jpabook.jpashop.benchmark;
+
+import jpabook.jpashop.dto.CursorResult;
+import jpabook.jpashop.dto.ItemSummaryDto;
+import jpabook.jpashop.repository.CatalogSearch;
+import jpabook.jpashop.repository.CatalogSort;
+import jpabook.jpashop.repository.ItemCursor;
+import jpabook.jpashop.service.CategoryService;
+import jpabook.jpashop.service.ItemService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 상품 목록 ( 카탈로그 ) Keyset 페이징 - 상품 수가 늘어도 페이지 응답 시간이 일정한지
+ * - firstPage / deepPage : 처음 / 마지막 근처 페이지 ( id 순 )
+ * - priceRange : 가격 범위 + 가격순
+ * - category : 루트 카테고리 ( 하위 카테고리 CATEGORIES 개 ) 상품
+ * 상품은 JDBC batch 로 넣고, i 번째 상품은 (i % CATEGORIES) 번째 하위 카테고리에 연결
+ *
+ * ./gradlew jmh -Pjmh.includes=CatalogBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CatalogBenchmark {
+
+    private static final int CATEGORIES = 10;
+    private static final int PAGE_SIZE = 100;
+    private static final int INSERT_CHUNK = 10_000;
+
+    @Param({"10000", "1000000"})
+    public int items;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private Long rootCategoryId;
+    private ItemCursor deepCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("spring.datasource.url=jdbc:h2:mem:catalog-" + items + ";DB_CLOSE_DELAY=-1");
+        CategoryService categoryService = context.getBean(CategoryService.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        rootCategoryId = categoryService.create("root", null);
+        List<Long> categoryIds = new ArrayList<>();
+        for (int i = 0; i < CATEGORIES; i++) {
+            categoryIds.add(categoryService.create("category" + i, rootCategoryId));
+        }
+
+        List<Object[]> itemRows = new ArrayList<>(INSERT_CHUNK);
+        List<Object[]> categoryRows = new ArrayList<>(INSERT_CHUNK);
+        for (long id = 1; id <= items; id++) {
+            itemRows.add(new Object[]{id, "item" + id, (int) (1000 + id % 100_000), 100});
+            categoryRows.add(new Object[]{categoryIds.get((int) (id % CATEGORIES)), id});
+            if (itemRows.size() == INSERT_CHUNK || id == items) {
+                jdbcTemplate.batchUpdate("insert into item (dtype, item_id, name, price, stock_quantity) values ('B', ?, ?, ?, ?)", itemRows);
+                jdbcTemplate.batchUpdate("insert into category_item (category_id, item_id) values (?, ?)", categoryRows);
+                itemRows.clear();
+                categoryRows.clear();
+            }
+        }
+        jdbcTemplate.execute("analyze");
+
+        itemService = context.getBean(ItemService.class);
+        deepCursor = new ItemCursor(0, (long) items - PAGE_SIZE * 2);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public CursorResult<ItemSummaryDto> firstPage() {
+        return itemService.findCatalog(new CatalogSearch(), null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public CursorResult<ItemSummaryDto> deepPage() {
+        return itemService.findCatalog(new CatalogSearch(), deepCursor, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public CursorResult<ItemSummaryDto> priceRange() {
+        CatalogSearch search = new CatalogSearch();
+        search.setMinPrice(50_000);
+        search.setMaxPrice(60_000);
+        search.setSort(CatalogSort.PRICE);
+        return itemService.findCatalog(search, null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public CursorResult<ItemSummaryDto> category() {
+        CatalogSearch search = new CatalogSearch();
+        search.setCategoryId(rootCategoryId);
+        return itemService.findCatalog(search, null, PAGE_SIZE);
+    }
+}
@@ -0,0 +1,72 @@
+package jpabook.jpashop.benchmark;
+
+import jakarta.persistence.EntityManagerFactory;
+import jpabook.jpashop.service.OrderService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 식별자 생성 방식별 주문 처리량 + 주문 당 SQL 실행 수
+ * - none : 옵티마이저 없음 -> Hibernate 가 increment 를 1 로 바꾸고 id 마다 시퀀스 호출 ( orders, order_item, delivery 주문 당 3 번 )
+ * - pooled : 시퀀스 값이 블록의 끝 ( 이전 기본값 )
+ * - pooled-lo : 시퀀스 값이 블록의 시작 ( 지금 설정, IdGeneration )
+ * SQL 실행 수는 statements / invocations 로 계산 ( 주문 당 실행된 statement 수 )
+ *
+ * ./gradlew jmh -Pjmh.includes=IdGenerationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class IdGenerationBenchmark {
+
+    @Param({"none", "pooled", "pooled-lo"})
+    public String optimizer;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private Statistics statistics;
+    private Long memberId;
+    private Long itemId;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class SqlCounter {
+        public long statements;
+        public long invocations;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(
+                "spring.datasource.url=jdbc:h2:mem:id-generation-" + optimizer + ";DB_CLOSE_DELAY=-1",
+                "spring.jpa.properties.hibernate.id.optimizer.pooled.preferred=" + optimizer);
+        BenchmarkContext.seed(context, 0, 1);
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        memberId = jdbcTemplate.queryForObject("select min(member_id) from member", Long.class);
+        itemId = jdbcTemplate.queryForObject("select min(item_id) from item", Long.class);
+
+        orderService = context.getBean(OrderService.class);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Long order(SqlCounter counter) {
+        long before = statistics.getPrepareStatementCount();
+        Long orderId = orderService.order(memberId, itemId, 1);
+        counter.statements += statistics.getPrepareStatementCount() - before;
+        counter.invocations++;
+        return orderId;
+    }
+}
@@ -0,0 +1,101 @@
+package jpabook.jpashop.benchmark;
+
+import jpabook.jpashop.domain.Money;
+import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.domain.OrderItem;
+import jpabook.jpashop.repository.LongColumn;
+import jpabook.jpashop.repository.OrderRepository;
+import jpabook.jpashop.repository.SalesAnalyticsRepository;
+import jpabook.jpashop.service.SalesAnalyticsService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 매출 합계 계산
+ * - entity* : 주문 엔티티마다 주문 상품을 돌면서 가격 * 수량을 더함 ( 기존 Order.getTotalPrice() 방식 )
+ * - columnar* : 주문 금액 ( orders.total_amount ) 을 long 배열로 읽어서 Money.sum 으로 더함
+ * inMemory 는 이미 읽어 둔 데이터로 계산만, endToEnd 는 DB 조회 포함
+ *
+ * ./gradlew jmh -Pjmh.includes=MoneyTotalsBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MoneyTotalsBenchmark {
+
+    @Param({"10000"})
+    public int orders;
+
+    @Param({"5"})
+    public int itemsPerOrder;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate readOnly;
+    private OrderRepository orderRepository;
+    private SalesAnalyticsService salesAnalyticsService;
+    private LocalDate from;
+    private LocalDate to;
+
+    private List<Order> loadedOrders;
+    private LongColumn loadedAmounts;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("spring.datasource.url=jdbc:h2:mem:money-totals-" + orders + "-" + itemsPerOrder + ";DB_CLOSE_DELAY=-1");
+        BenchmarkContext.seed(context, orders, itemsPerOrder);
+
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        orderRepository = context.getBean(OrderRepository.class);
+        salesAnalyticsService = context.getBean(SalesAnalyticsService.class);
+        SalesAnalyticsRepository salesAnalyticsRepository = context.getBean(SalesAnalyticsRepository.class);
+
+        to = LocalDate.now().plusDays(1);
+        from = to.minusYears(1);
+
+        // 주문 상품까지 초기화된 엔티티 / 금액 컬럼
+        loadedOrders = readOnly.execute(status -> orderRepository.findAllWithItem());
+        loadedAmounts = readOnly.execute(status -> salesAnalyticsRepository.findOrderAmounts(from.atStartOfDay(), to.atStartOfDay()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public long entityInMemory() {
+        return sumPerEntity(loadedOrders);
+    }
+
+    @Benchmark
+    public long columnarInMemory() {
+        return Money.sum(loadedAmounts.values(), loadedAmounts.size());
+    }
+
+    @Benchmark
+    public long entityEndToEnd() {
+        return readOnly.execute(status -> sumPerEntity(orderRepository.findAllWithItem()));
+    }
+
+    @Benchmark
+    public long columnarEndToEnd() {
+        return salesAnalyticsService.totalRevenue(from, to);
+    }
+
+    private static long sumPerEntity(List<Order> orders) {
+        long total = 0;
+        for (Order order : orders) {
+            for (OrderItem orderItem : order.getOrderItems()) {
+                total += orderItem.getTotalPrice();
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,158 @@
+package jpabook.jpashop.benchmark;
+
+import jakarta.persistence.EntityManagerFactory;
+import jpabook.jpashop.dto.OrderDto;
+import jpabook.jpashop.dto.OrderQueryDto;
+import jpabook.jpashop.dto.SimpleOrderDto;
+import jpabook.jpashop.repository.OrderRepository;
+import jpabook.jpashop.repository.OrderSearch;
+import jpabook.jpashop.repository.order.query.OrderFlatAssembler;
+import jpabook.jpashop.repository.order.query.OrderQueryRepository;
+import jpabook.jpashop.repository.order.simplequery.OrderSimpleQueryDto;
+import jpabook.jpashop.repository.order.simplequery.OrderSimpleQueryRepository;
+import jpabook.jpashop.service.OrderJsonService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * OrderApiController ( V2 ~ V6 ), OrderSimpleApiController ( V2 ~ V4 ) 의 조회 경로별 성능
+ * 처리량 + gc 프로파일러 ( 할당량 ) + SQL 실행 수
+ * SQL 실행 수는 statements / invocations 로 계산 ( 호출 당 실행된 statement 수 )
+ *
+ * ./gradlew jmh -Pjmh.includes=OrderQueryBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class OrderQueryBenchmark {
+
+    @Param({"100", "1000"})
+    public int orders;
+
+    @Param({"1", "5"})
+    public int itemsPerOrder;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate readOnly;
+    private Statistics statistics;
+
+    private OrderRepository orderRepository;
+    private OrderQueryRepository orderQueryRepository;
+    private OrderSimpleQueryRepository orderSimpleQueryRepository;
+    private OrderJsonService orderJsonService;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class SqlCounter {
+        public long statements;
+        public long invocations;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("spring.datasource.url=jdbc:h2:mem:order-query-" + orders + "-" + itemsPerOrder + ";DB_CLOSE_DELAY=-1");
+        BenchmarkContext.seed(context, orders, itemsPerOrder);
+
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        orderRepository = context.getBean(OrderRepository.class);
+        orderQueryRepository = context.getBean(OrderQueryRepository.class);
+        orderSimpleQueryRepository = context.getBean(OrderSimpleQueryRepository.class);
+        orderJsonService = context.getBean(OrderJsonService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // V2 - 엔티티 조회 후 DTO 변환 ( 지연 로딩 N + 1 )
+    @Benchmark
+    public List<OrderDto> ordersV2_findAllByString(SqlCounter counter) {
+        return measure(counter, () -> orderRepository.findAllByString(new OrderSearch()).stream()
+                .map(OrderDto::new)
+                .toList());
+    }
+
+    // V3 - 컬렉션 fetch join
+    @Benchmark
+    public List<OrderDto> ordersV3_findAllWithItem(SqlCounter counter) {
+        return measure(counter, () -> orderRepository.findAllWithItem().stream()
+                .map(OrderDto::new)
+                .toList());
+    }
+
+    // V3.1 - ToOne fetch join + 컬렉션 지연 로딩 ( batch fetch )
+    @Benchmark
+    public List<OrderDto> ordersV3_1_findAllWithMemberDelivery(SqlCounter counter) {
+        return measure(counter, () -> orderRepository.findAllWithMemberDelivery(0, orders).stream()
+                .map(OrderDto::new)
+                .toList());
+    }
+
+    // V4 - DTO 직접 조회, 컬렉션은 주문마다 조회 ( 1 + N )
+    @Benchmark
+    public List<OrderQueryDto> ordersV4_findOrderQueryDtos(SqlCounter counter) {
+        return measure(counter, () -> orderQueryRepository.findOrderQueryDtos());
+    }
+
+    // V5 - DTO 직접 조회, 컬렉션은 in 쿼리 한 번 ( 1 + 1 )
+    @Benchmark
+    public List<OrderQueryDto> ordersV5_findAllByDto_optimization(SqlCounter counter) {
+        return measure(counter, () -> orderQueryRepository.findAllByDto_optimization());
+    }
+
+    // V5.2 - 주문 id + 버전 조회 후 JSON 조각 캐시 이어 붙이기 ( 첫 호출 이후에는 모두 캐시 hit )
+    @Benchmark
+    public byte[] ordersV5_2_findAllAsJson(SqlCounter counter) {
+        return measure(counter, () -> orderJsonService.findAllAsJson());
+    }
+
+    // V6 - flat 조회 한 번 + 메모리에서 조립
+    @Benchmark
+    public List<OrderQueryDto> ordersV6_findAllByDto_flat(SqlCounter counter) {
+        return measure(counter, () -> OrderFlatAssembler.assemble(orderQueryRepository.findAllByDto_flat()));
+    }
+
+    // simple V2 - 엔티티 조회 후 DTO 변환 ( 지연 로딩 N + 1 )
+    @Benchmark
+    public List<SimpleOrderDto> simpleOrdersV2_findAllByString(SqlCounter counter) {
+        return measure(counter, () -> orderRepository.findAllByString(new OrderSearch()).stream()
+                .map(SimpleOrderDto::new)
+                .toList());
+    }
+
+    // simple V3 - ToOne fetch join
+    @Benchmark
+    public List<SimpleOrderDto> simpleOrdersV3_findAllWithMemberDelivery(SqlCounter counter) {
+        return measure(counter, () -> orderRepository.findAllWithMemberDelivery().stream()
+                .map(SimpleOrderDto::new)
+                .toList());
+    }
+
+    // simple V4 - DTO 직접 조회
+    @Benchmark
+    public List<OrderSimpleQueryDto> simpleOrdersV4_findOrderDtos(SqlCounter counter) {
+        return measure(counter, () -> orderSimpleQueryRepository.findOrderDtos());
+    }
+
+    // API 와 같이 조회 ~ DTO 변환까지 하나의 읽기 전용 트랜잭션 ( 영속성 컨텍스트 ) 안에서 실행
+    private <T> T measure(SqlCounter counter, Supplier<T> query) {
+        long before = statistics.getPrepareStatementCount();
+        T result = readOnly.execute(status -> query.get());
+        counter.statements += statistics.getPrepareStatementCount() - before;
+        counter.invocations++;
+        return result;
+    }
+}
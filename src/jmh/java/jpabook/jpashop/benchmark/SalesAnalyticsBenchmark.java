@@ -0,0 +1,89 @@
+package jpabook.jpashop.benchmark;
+
+import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.domain.OrderItem;
+import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.dto.SalesBucket;
+import jpabook.jpashop.dto.SalesReport;
+import jpabook.jpashop.repository.OrderRepository;
+import jpabook.jpashop.service.SalesAnalyticsService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 매출 집계 ( 상품별 매출 / 판매 수량 )
+ * - entityLoop : 주문 엔티티를 모두 읽어서 Order.getTotalPrice() 처럼 주문마다 루프, Map<Long, Long> 에 누적
+ * - groupByForkJoin : SalesAnalyticsService ( 월별 group by + long 배열 누적 + fork-join 병합 )
+ * 주문일은 최근 365 일에 고르게 퍼뜨림, months 는 집계 기간
+ *
+ * ./gradlew jmh -Pjmh.includes=SalesAnalyticsBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SalesAnalyticsBenchmark {
+
+    @Param({"10000"})
+    public int orders;
+
+    @Param({"1", "12"})
+    public int months;
+
+    private ConfigurableApplicationContext context;
+    private SalesAnalyticsService salesAnalyticsService;
+    private OrderRepository orderRepository;
+    private TransactionTemplate readOnly;
+    private LocalDate from;
+    private LocalDate to;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("spring.datasource.url=jdbc:h2:mem:sales-analytics-" + orders + ";DB_CLOSE_DELAY=-1");
+        BenchmarkContext.seed(context, orders, 3);
+        context.getBean(JdbcTemplate.class)
+                .update("update orders set order_date = dateadd('DAY', -mod(order_id, 365), order_date)");
+
+        salesAnalyticsService = context.getBean(SalesAnalyticsService.class);
+        orderRepository = context.getBean(OrderRepository.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+
+        to = LocalDate.now().plusDays(1);
+        from = to.minusMonths(months);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Map<Long, Long> entityLoop() {
+        return readOnly.execute(status -> {
+            Map<Long, Long> revenueByItem = new HashMap<>();
+            for (Order order : orderRepository.findAllWithMemberDelivery()) {
+                LocalDate orderDate = order.getOrderDate().toLocalDate();
+                if (order.getStatus() == OrderStatus.CANCEL || orderDate.isBefore(from) || !orderDate.isBefore(to)) {
+                    continue;
+                }
+                for (OrderItem orderItem : order.getOrderItems()) {
+                    revenueByItem.merge(orderItem.getItem().getId(), orderItem.getTotalPrice(), Long::sum);
+                }
+            }
+            return revenueByItem;
+        });
+    }
+
+    @Benchmark
+    public SalesReport groupByForkJoin() {
+        return salesAnalyticsService.report(from, to, SalesBucket.MONTH);
+    }
+}
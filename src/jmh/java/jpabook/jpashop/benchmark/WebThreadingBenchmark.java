@@ -0,0 +1,86 @@
+package jpabook.jpashop.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 웹 요청 처리 스레드 모드별 부하 테스트 ( platform : Tomcat 스레드 풀 200 개, virtual : 요청마다 가상 스레드 )
+ * 클라이언트 스레드 400 개가 동시에 API 를 호출 -> 처리량 ( thrpt ) 과 응답 시간 분포 ( sample : p50 / p99 ... )
+ * virtual 모드는 JDBC 동시 실행 수 제한 ( jpashop.datasource.concurrency-limit ) 도 함께 켬
+ * 두 모드 모두 커넥션 풀은 10 개
+ *
+ * virtual 은 JDK 21 이상에서 실행해야 함
+ * ./gradlew jmh -Pjmh.includes=WebThreadingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(400)
+public class WebThreadingBenchmark {
+
+    @Param({"platform", "virtual"})
+    public String threading;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private URI ordersV3_1;
+    private URI simpleOrdersV4;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        boolean virtual = "virtual".equals(threading);
+        if (virtual && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("virtual 모드는 JDK 21 이상에서 실행해야 합니다. 현재 JDK " + Runtime.version().feature());
+        }
+
+        context = BenchmarkContext.startWeb(
+                "spring.datasource.url=jdbc:h2:mem:web-threading-" + threading + ";DB_CLOSE_DELAY=-1",
+                "spring.datasource.hikari.maximum-pool-size=10",
+                "spring.threads.virtual.enabled=" + virtual,
+                "jpashop.datasource.concurrency-limit.enabled=" + virtual,
+                "server.tomcat.threads.max=200");
+        BenchmarkContext.seed(context, 100, 2);
+
+        String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        ordersV3_1 = URI.create(baseUrl + "/api/v3.1/orders?offset=0&limit=20");
+        simpleOrdersV4 = URI.create(baseUrl + "/api/v4/simple-orders");
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // ToOne fetch join + 컬렉션 batch fetch ( SQL 3 번 )
+    @Benchmark
+    public int ordersV3_1_page() throws IOException, InterruptedException {
+        return get(ordersV3_1);
+    }
+
+    // DTO 직접 조회 ( SQL 1 번 )
+    @Benchmark
+    public int simpleOrdersV4_findOrderDtos() throws IOException, InterruptedException {
+        return get(simpleOrdersV4);
+    }
+
+    private int get(URI uri) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(uri).GET().build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(uri + " -> " + response.statusCode());
+        }
+        return response.body().length;
+    }
+}
@@ -0,0 +1,28 @@
+package jpabook.jpashop.api;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * API 요청 값이 잘못된 경우 ( 잘못된 cursor, 범위를 벗어난 limit 등 ) 500 이 아니라 400 으로 응답
+ */
+@RestControllerAdvice(basePackages = "jpabook.jpashop.api")
+public class ApiExceptionHandler {
+
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ErrorResult illegalArgument(IllegalArgumentException e) {
+        return new ErrorResult("BAD_REQUEST", e.getMessage());
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class ErrorResult {
+        private String code;
+        private String message;
+    }
+}
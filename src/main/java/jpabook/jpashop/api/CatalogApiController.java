@@ -0,0 +1,44 @@
+package jpabook.jpashop.api;
+
+import jpabook.jpashop.dto.CursorResult;
+import jpabook.jpashop.dto.ItemSummaryDto;
+import jpabook.jpashop.monitoring.QueryBudget;
+import jpabook.jpashop.repository.CatalogSearch;
+import jpabook.jpashop.repository.CatalogSort;
+import jpabook.jpashop.repository.ItemCursor;
+import jpabook.jpashop.service.ItemService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+public class CatalogApiController {
+
+    private final ItemService itemService;
+
+    /**
+     * 상품 목록 ( 카탈로그 ) - Keyset 페이징
+     * 표시하는 컬럼만 DTO 로 조회 ( 상품 종류별 컬럼, categories 컬렉션은 읽지 않음 ), SQL 한 번
+     * categoryId 를 주면 하위 카테고리 상품까지, 가격은 [minPrice, maxPrice]
+     * 예: /api/catalog/items?categoryId=1&minPrice=10000&sort=PRICE&limit=50
+     */
+    @QueryBudget(1)
+    @GetMapping("/api/catalog/items")
+    public CursorResult<ItemSummaryDto> items(@RequestParam(value = "categoryId", required = false) Long categoryId,
+                                              @RequestParam(value = "minPrice", required = false) Integer minPrice,
+                                              @RequestParam(value = "maxPrice", required = false) Integer maxPrice,
+                                              @RequestParam(value = "sort", defaultValue = "ID") CatalogSort sort,
+                                              @RequestParam(value = "cursor", required = false) String cursor,
+                                              @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        CatalogSearch search = new CatalogSearch();
+        search.setCategoryId(categoryId);
+        search.setMinPrice(minPrice);
+        search.setMaxPrice(maxPrice);
+        search.setSort(sort);
+
+        return itemService.findCatalog(search, StringUtils.hasText(cursor) ? ItemCursor.decode(cursor) : null, limit);
+    }
+}
@@ -0,0 +1,97 @@
+package jpabook.jpashop.api;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jpabook.jpashop.dto.ItemSummaryDto;
+import jpabook.jpashop.service.CategoryService;
+import jpabook.jpashop.service.CategoryTreeSnapshot;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+public class CategoryApiController {
+
+    private final CategoryService categoryService;
+
+    @PostMapping("/api/categories")
+    public CreateCategoryResponse saveCategory(@RequestBody @Valid CreateCategoryRequest request) {
+        return new CreateCategoryResponse(categoryService.create(request.getName(), request.getParentId()));
+    }
+
+    // parentId 가 없으면 루트로 옮김
+    @PostMapping("/api/categories/{id}/parent")
+    public MoveCategoryResponse moveCategory(@PathVariable(name = "id") Long id, @RequestBody MoveCategoryRequest request) {
+        categoryService.move(id, request.getParentId());
+        return new MoveCategoryResponse(id, request.getParentId());
+    }
+
+    /**
+     * 카테고리와 모든 하위 카테고리의 상품
+     * 트리 깊이와 상관없이 category_closure 로 쿼리 한 번
+     */
+    @GetMapping("/api/categories/{id}/items")
+    public Result<List<ItemSummaryDto>> itemsInSubtree(@PathVariable(name = "id") Long id) {
+        List<ItemSummaryDto> items = categoryService.findItemsInSubtree(id).stream()
+                .map(ItemSummaryDto::new)
+                .toList();
+        return new Result<>(items.size(), items);
+    }
+
+    // 트리 스냅샷에서 읽음 ( DB 조회 없음 )
+    @GetMapping("/api/categories/{id}/path")
+    public CategoryPathResponse categoryPath(@PathVariable(name = "id") Long id) {
+        CategoryTreeSnapshot tree = categoryService.snapshot();
+        return new CategoryPathResponse(id, tree.name(id), tree.depth(id), tree.ancestorIds(id), tree.childIds(id));
+    }
+
+    @Data
+    @NoArgsConstructor
+    static class CreateCategoryRequest {
+
+        @NotEmpty
+        private String name;
+        private Long parentId;
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class CreateCategoryResponse {
+        private Long id;
+    }
+
+    @Data
+    @NoArgsConstructor
+    static class MoveCategoryRequest {
+        private Long parentId;
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class MoveCategoryResponse {
+        private Long id;
+        private Long parentId;
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class CategoryPathResponse {
+        private Long id;
+        private String name;
+        private int depth;
+        private List<Long> ancestorIds; // 부모부터 루트까지
+        private List<Long> childIds;
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class Result<T> {
+        private int count;
+        private T data;
+    }
+}
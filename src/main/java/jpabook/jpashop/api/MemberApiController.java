@@ -3,10 +3,15 @@ package jpabook.jpashop.api;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotEmpty;
 import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.dto.ListingSnapshot;
 import jpabook.jpashop.dto.MemberDto;
+import jpabook.jpashop.dto.MemberSummaryDto;
+import jpabook.jpashop.monitoring.QueryBudget;
+import jpabook.jpashop.service.ListingCacheService;
 import jpabook.jpashop.service.MemberService;
 import lombok.*;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -16,6 +21,7 @@ import java.util.stream.Collectors;
 public class MemberApiController {
 
     private final MemberService memberService;
+    private final ListingCacheService listingCacheService;
 
     /**
      * 회원가입 V1
@@ -56,13 +62,18 @@ public class MemberApiController {
 
     /**
      * 조회 V2
+     * 목록은 캐시 ( ListingCacheService ) 에서 꺼내고, If-None-Match 가 ETag 와 같으면 304
      */
+    @QueryBudget(1)
     @GetMapping("/api/v2/members")
-    public Result membersV2() {
-        List<Member> findMembers = memberService.findMembers();
+    public Result membersV2(WebRequest webRequest) {
+        ListingSnapshot<MemberSummaryDto> members = listingCacheService.members();
+        if (webRequest.checkNotModified(members.getEtag())) {
+            return null;
+        }
 
-        // Entity -> Dto
-        List<MemberDto> collect = findMembers.stream()
+        // Dto -> 응답 Dto
+        List<MemberDto> collect = members.getData().stream()
                 .map(m -> new MemberDto(m.getName()))
                 .toList();
 
@@ -1,23 +1,39 @@
 package jpabook.jpashop.api;
 
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
 import jpabook.jpashop.domain.Order;
 import jpabook.jpashop.domain.OrderItem;
+import jpabook.jpashop.dto.CursorResult;
 import jpabook.jpashop.dto.OrderDto;
 import jpabook.jpashop.dto.OrderFlatDto;
-import jpabook.jpashop.dto.OrderItemQueryDto;
+import jpabook.jpashop.dto.OrderLineDto;
 import jpabook.jpashop.dto.OrderQueryDto;
+import jpabook.jpashop.monitoring.QueryBudget;
+import jpabook.jpashop.repository.OrderCursor;
 import jpabook.jpashop.repository.OrderRepository;
 import jpabook.jpashop.repository.OrderSearch;
+import jpabook.jpashop.repository.order.query.OrderFlatAssembler;
 import jpabook.jpashop.repository.order.query.OrderQueryRepository;
+import jpabook.jpashop.service.OrderExportService;
+import jpabook.jpashop.service.OrderJsonService;
 import jpabook.jpashop.service.OrderService;
+import lombok.AllArgsConstructor;
+import lombok.Data;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
 import java.util.List;
-
-import static java.util.stream.Collectors.*;
+import java.util.function.Function;
 
 /**
  * 일대다 관계에서 최적화
@@ -26,9 +42,13 @@ import static java.util.stream.Collectors.*;
 @RequiredArgsConstructor
 public class OrderApiController {
 
+    static final int MAX_PAGE_SIZE = 1000;
+
     private final OrderService orderService;
     private final OrderRepository orderRepository;
     private final OrderQueryRepository orderQueryRepository;
+    private final OrderExportService orderExportService;
+    private final OrderJsonService orderJsonService;
 
     /**
      * 주문 조회 V1 - Entity 로 직접 조회
@@ -52,6 +72,7 @@ public class OrderApiController {
      * DTO 안에 Entity 존재하면 안 됨. 따라서 OrderItemDto 도 생성해줘야됨
      * order 1번, member N 번, address N 번, orderItem N번 ( order 조회 수 만큼)
      * item N번 ( orderItem 조회 수 만큼 )
+     * -> batch fetch ( default_batch_fetch_size, @BatchSize ) 적용 후에는 order 1번 + member, delivery, orderItem, item 각 1번 ( in 절 크기 단위 )
      */
     @GetMapping("/api/v2/orders")
     public List<OrderDto> ordersV2() {
@@ -71,6 +92,7 @@ public class OrderApiController {
      * 컬렉션 페치 조인은 1개만 사용할 수 있다.
      * 컬렉션 둘 이상에 페치 조인을 사용하면 안된다. 데이터가 부정합하게 조회될 수 있다.(1 - N , 1 - N), (1 - N - M)
      */
+    @QueryBudget(1)
     @GetMapping("/api/v3/orders")
     public List<OrderDto> ordersV3() {
         List<Order> orders = orderRepository.findAllWithItem();
@@ -87,10 +109,12 @@ public class OrderApiController {
      * 컬렉션 관계는 hibernate.default_batch_fetch_size, @BatchSize로 최적화
      * in 절에 batchsize가 들어가게 됨 -> 쿼리가 추가적으로 2번 ( orderItem, item ) 으로 최적화됨
      */
+    @QueryBudget(3)
     @GetMapping("/api/v3.1/orders")
     public List<OrderDto> ordersV3_page(@RequestParam(value = "offset", defaultValue = "0") int offset,
                                         @RequestParam(value = "limit", defaultValue = "100") int limit) {
 
+        checkPage(offset, limit);
         List<Order> orders = orderRepository.findAllWithMemberDelivery(offset, limit); // toOne 관계만 fetch join
 
         return orders.stream()
@@ -98,6 +122,26 @@ public class OrderApiController {
                 .toList();
     }
 
+    /**
+     * 주문 조회 V3.2 - Entity -> DTO 변환 Keyset 페이징
+     * offset 페이징은 앞의 offset 만큼의 row 를 읽고 버리기 때문에 페이지가 깊어질수록 느려짐
+     * ( orderDate, order_id ) 를 커서로 사용해서 마지막으로 읽은 위치 다음부터 조회 -> 페이지 깊이와 상관없이 일정한 비용
+     * 응답의 nextCursor 를 다음 요청의 cursor 로 넘기면 됨
+     */
+    @QueryBudget(3)
+    @GetMapping("/api/v3.2/orders")
+    public CursorResult<OrderDto> ordersV3_cursor(@RequestParam(value = "cursor", required = false) String cursor,
+                                                  @RequestParam(value = "limit", defaultValue = "100") int limit) {
+
+        checkPage(0, limit);
+        List<Order> orders = orderRepository.findAllWithMemberDelivery(toCursor(cursor), limit + 1);
+
+        List<OrderDto> result = orders.stream()
+                .map(OrderDto::new)
+                .toList();
+        return cursorResult(result, limit, o -> new OrderCursor(o.getOrderDate(), o.getOrderId()));
+    }
+
     /**
      * 주문 조회 V4 - JPA 에서 DTO 직접 조회
      * ToOne(N:1, 1:1) 관계들을 먼저 조회, ToMany(1:N) 관계는 각각 별도 처리
@@ -116,27 +160,113 @@ public class OrderApiController {
      * ToOne 관계들을 먼저 조회하고, orderId 로  ToMany 관계인 orderItems 를 한 꺼번에 조회하면 1번, 1번 씩만 조회됨.
      * MAP 을 사용해서 성능 향상 - O(1)
      */
+    @QueryBudget(2)
     @GetMapping("/api/v5/orders")
     public List<OrderQueryDto> ordersV5() {
         return orderQueryRepository.findAllByDto_optimization();
     }
 
+    /**
+     * 주문 조회 V5.1 - V5 + Keyset 페이징
+     * 페이지 당 루트 1번, 컬렉션 1번
+     */
+    @QueryBudget(2)
+    @GetMapping("/api/v5.1/orders")
+    public CursorResult<OrderQueryDto> ordersV5_cursor(@RequestParam(value = "cursor", required = false) String cursor,
+                                                       @RequestParam(value = "limit", defaultValue = "100") int limit) {
+
+        checkPage(0, limit);
+        List<OrderQueryDto> result = orderQueryRepository.findAllByDto_optimization(toCursor(cursor), limit + 1);
+
+        return cursorResult(result, limit, o -> new OrderCursor(o.getOrderDate(), o.getOrderId()));
+    }
+
+    /**
+     * 주문 조회 V5.2 - V5 + 주문별 JSON 조각 캐시
+     * 주문 id + 버전만 조회하고, 캐시에 있는 주문은 직렬화해 둔 바이트를 그대로 이어 붙임
+     * 캐시에 없는 주문만 V5 처럼 조회 ( 루트 1번, 컬렉션 1번 ) 해서 직렬화 후 캐시에 넣음
+     */
+    @QueryBudget(3)
+    @GetMapping(value = "/api/v5.2/orders", produces = MediaType.APPLICATION_JSON_VALUE)
+    public byte[] ordersV5_fragment() {
+        return orderJsonService.findAllAsJson();
+    }
+
     /**
      * 주문 조회 V6 - JPA 에서 DTO 직접 조회 - 플랫 데이터 최적화 쿼리 한 번 나감
      * 근데 쿼리는 한 번 나가긴 하는데 중복 데이터가로 인해서 V5 보다 느릴 수도 있음
      * 대신 페이징 불가능
      */
+    @QueryBudget(1)
     @GetMapping("/api/v6/orders")
     public List<OrderQueryDto> ordersV6() {
-        List<OrderFlatDto> flats = orderQueryRepository.findAllByDto_flat(); // 중복 제거하지 않고 모두 조인해서 조회
+        List<OrderFlatDto> flats = orderQueryRepository.findAllByDto_flat(); // 중복 제거하지 않고 모두 조인해서 조회 ( order_id 순 정렬 )
 
         // 중복 제거하고 OrderFlatDto -> OrderQueryDto 로 변환
-        return flats.stream()
-                .collect(groupingBy(o -> new OrderQueryDto(o.getOrderId(), o.getName(), o.getOrderDate(), o.getOrderStatus(), o.getAddress()),
-                        mapping(o -> new OrderItemQueryDto(o.getOrderId(), o.getItemName(), o.getOrderPrice(), o.getCount()), toList())))
-                .entrySet().stream()
-                .map(e -> new OrderQueryDto(e.getKey().getOrderId(), e.getKey().getName(), e.getKey().getOrderDate(),
-                        e.getKey().getOrderStatus(), e.getKey().getAddress(), e.getValue()))
-                .toList();
+        // order_id 순으로 정렬되어 있으므로 groupingBy 없이 한 번만 훑으면서 조립 -> 결과 순서도 항상 같음
+        return OrderFlatAssembler.assemble(flats);
+    }
+
+    /**
+     * 주문 전체 내보내기 - NDJSON 스트리밍
+     * V1 ~ V6 은 모두 List 를 메모리에 다 만든 다음 응답하기 때문에 전체 내보내기를 하면 OOM 이 발생함
+     * V6 처럼 flat 으로 조회하되 fetchSize 단위로 읽어오면서 주문 한 건이 완성될 때마다 한 줄씩 바로 응답에 씀
+     */
+    @GetMapping("/api/v6/orders/export")
+    public void ordersV6_export(HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        orderExportService.exportNdjson(response.getOutputStream());
+    }
+
+    /**
+     * 주문하기 - 여러 상품을 한 번에 주문 ( 장바구니 )
+     * 상품 N 개를 주문하려고 N 번 요청 ( = N 번의 트랜잭션 ) 하지 않아도 됨
+     */
+    @PostMapping("/api/v1/orders")
+    public CreateOrderResponse saveOrderV1(@RequestBody @Valid CreateOrderRequest request) {
+        Long id = orderService.order(request.getMemberId(), request.getOrderItems());
+        return new CreateOrderResponse(id);
+    }
+
+    // 음수 limit 은 500, 너무 큰 limit 은 페이징 없는 전체 조회가 되므로 400 ( ApiExceptionHandler )
+    // 주문 목록 API ( OrderSimpleApiController ) 에서 같이 사용
+    static void checkPage(int offset, int limit) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("offset 은 0 이상이어야 합니다.");
+        }
+        if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit 은 1 ~ " + MAX_PAGE_SIZE + " 이어야 합니다.");
+        }
+    }
+
+    static OrderCursor toCursor(String cursor) {
+        return StringUtils.hasText(cursor) ? OrderCursor.decode(cursor) : null;
+    }
+
+    // limit + 1 개를 조회해서 넘치는 게 있을 때만 다음 페이지가 있다고 판단
+    // ( limit 개를 꽉 채웠는지로 판단하면 남은 주문이 딱 limit 개일 때 다음 요청이 빈 페이지를 받음 )
+    static <T> CursorResult<T> cursorResult(List<T> fetched, int limit, Function<T, OrderCursor> toCursor) {
+        if (fetched.size() <= limit) {
+            return new CursorResult<>(fetched, null);
+        }
+        List<T> page = fetched.subList(0, limit);
+        return new CursorResult<>(page, toCursor.apply(page.get(limit - 1)).encode());
+    }
+
+    @Data
+    static class CreateOrderRequest {
+
+        @NotNull
+        private Long memberId;
+
+        @NotEmpty @Valid
+        private List<OrderLineDto> orderItems;
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class CreateOrderResponse {
+        private Long id;
     }
 }
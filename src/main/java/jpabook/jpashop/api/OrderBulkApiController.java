@@ -0,0 +1,32 @@
+package jpabook.jpashop.api;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jpabook.jpashop.dto.BulkOrderResult;
+import jpabook.jpashop.service.BulkOrderFormat;
+import jpabook.jpashop.service.OrderBulkIngestService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+/**
+ * 대량 주문 등록
+ * 요청 body 를 메모리에 다 올리지 않고 스트림으로 읽으면서 처리
+ */
+@RestController
+@RequiredArgsConstructor
+public class OrderBulkApiController {
+
+    private final OrderBulkIngestService orderBulkIngestService;
+
+    @PostMapping(value = "/api/v1/orders/bulk", consumes = "text/csv")
+    public BulkOrderResult bulkOrdersCsv(HttpServletRequest request) throws IOException {
+        return orderBulkIngestService.ingest(request.getInputStream(), BulkOrderFormat.CSV);
+    }
+
+    @PostMapping(value = "/api/v1/orders/bulk", consumes = "application/x-ndjson")
+    public BulkOrderResult bulkOrdersNdjson(HttpServletRequest request) throws IOException {
+        return orderBulkIngestService.ingest(request.getInputStream(), BulkOrderFormat.NDJSON);
+    }
+}
@@ -1,13 +1,19 @@
 package jpabook.jpashop.api;
 
 import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.dto.CursorResult;
+import jpabook.jpashop.dto.OrderSummaryDto;
 import jpabook.jpashop.dto.SimpleOrderDto;
+import jpabook.jpashop.monitoring.QueryBudget;
 import jpabook.jpashop.repository.order.simplequery.OrderSimpleQueryDto;
+import jpabook.jpashop.repository.OrderCursor;
 import jpabook.jpashop.repository.OrderSearch;
+import jpabook.jpashop.repository.OrderSummaryRepository;
 import jpabook.jpashop.repository.order.simplequery.OrderSimpleQueryRepository;
 import jpabook.jpashop.service.OrderService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -18,6 +24,7 @@ public class OrderSimpleApiController {
 
     private final OrderService orderService;
     private final OrderSimpleQueryRepository orderSimpleQueryRepository;
+    private final OrderSummaryRepository orderSummaryRepository;
 
     /**
      * 주문 하기 V1 - 엔티티
@@ -42,6 +49,7 @@ public class OrderSimpleApiController {
      * 지연 로딩으로 인해 쿼리 N 번 호출함
      * order 1번, order -> member 지연로딩 N번, order -> delivery 지연로딩 N 번
      * 만약 order가 10개가 있으면 최악의 경우 1 + 10 + 10 번 실행됨.
+     * -> batch fetch 적용 후에는 order 1번 + member 1번 + delivery 1번
      */
     @GetMapping("/api/v2/simple-orders")
     public List<SimpleOrderDto> ordersV2() {
@@ -55,6 +63,7 @@ public class OrderSimpleApiController {
     /**
      * 주문하기 V3 ( fetch join 사용 o ) -> Entity -> DTO 변환
      */
+    @QueryBudget(1)
     @GetMapping("/api/v3/simple-orders")
     public List<SimpleOrderDto> ordersV3() {
         // fetch join -> lazy 다 무시, proxy도 아닌 진짜 객체 값을 다 채워서 가져온다
@@ -70,11 +79,29 @@ public class OrderSimpleApiController {
      * 원하는 데이터만 선택해서 조회
      * repository를 사용하는 것은 엔티티를 조회하는 목적으로만 사용하자
      */
+    @QueryBudget(1)
     @GetMapping("/api/v4/simple-orders")
     public List<OrderSimpleQueryDto> ordersV4() {
         return orderSimpleQueryRepository.findOrderDtos();
     }
 
+    /**
+     * 주문하기 V5 주문 요약 ( order_summary ) 조회 - Keyset 페이징
+     * 주문 / 취소 시점에 미리 펼쳐 둔 한 테이블만 읽음 ( 조인 x ), 상품 수 / 총 금액 포함
+     */
+    @QueryBudget(1)
+    @GetMapping("/api/v5/simple-orders")
+    public CursorResult<OrderSummaryDto> ordersV5(@RequestParam(value = "cursor", required = false) String cursor,
+                                                  @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        OrderApiController.checkPage(0, limit);
+
+        List<OrderSummaryDto> result = orderSummaryRepository.findAll(OrderApiController.toCursor(cursor), limit + 1).stream()
+                .map(OrderSummaryDto::new)
+                .toList();
+
+        return OrderApiController.cursorResult(result, limit, o -> new OrderCursor(o.getOrderDate(), o.getOrderId()));
+    }
+
 
     /**
      * 주문 취소
@@ -0,0 +1,40 @@
+package jpabook.jpashop.api;
+
+import jpabook.jpashop.dto.OrderQueryDto;
+import jpabook.jpashop.repository.order.simplequery.OrderSimpleQueryDto;
+import jpabook.jpashop.service.OrderStreamService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+/**
+ * 주문 조회 스트림 ( 모바일 백엔드용 )
+ * Accept: application/x-ndjson 이면 주문 하나당 한 줄씩 흘려 보내고,
+ * application/json 이면 모아서 기존 API ( simple V4 / V5 ) 와 같은 JSON 배열로 응답
+ * 요청 스레드는 바로 반납 ( 비동기 요청 ), 조회는 OrderStreamService 가 페이지 단위로 진행
+ */
+@RestController
+@RequiredArgsConstructor
+public class OrderStreamApiController {
+
+    private final OrderStreamService orderStreamService;
+
+    /**
+     * simple V4 스트림 - DTO 직접 조회, 페이지 당 쿼리 1번
+     */
+    @GetMapping(value = "/api/stream/simple-orders", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<OrderSimpleQueryDto> simpleOrders(@RequestParam(value = "pageSize", defaultValue = "100") int pageSize) {
+        return orderStreamService.streamOrderDtos(pageSize);
+    }
+
+    /**
+     * V5 스트림 - DTO 직접 조회, 페이지 당 루트 1번, 컬렉션 1번
+     */
+    @GetMapping(value = "/api/stream/orders", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<OrderQueryDto> orders(@RequestParam(value = "pageSize", defaultValue = "100") int pageSize) {
+        return orderStreamService.streamOrders(pageSize);
+    }
+}
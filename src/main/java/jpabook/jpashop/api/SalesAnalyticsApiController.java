@@ -0,0 +1,47 @@
+package jpabook.jpashop.api;
+
+import jpabook.jpashop.dto.DailySalesDto;
+import jpabook.jpashop.dto.SalesBucket;
+import jpabook.jpashop.dto.SalesReport;
+import jpabook.jpashop.repository.DailySalesRollupRepository;
+import jpabook.jpashop.service.SalesAnalyticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+public class SalesAnalyticsApiController {
+
+    private final SalesAnalyticsService salesAnalyticsService;
+    private final DailySalesRollupRepository dailySalesRollupRepository;
+
+    /**
+     * 매출 리포트 - 기간 [from, to) 의 상품별 / 카테고리별 / 시간 버킷별 매출, 판매 수량, 취소율
+     * 예: /api/analytics/sales?from=2024-01-01&to=2024-04-01&bucket=WEEK
+     */
+    @GetMapping("/api/analytics/sales")
+    public SalesReport sales(@RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                             @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                             @RequestParam(value = "bucket", defaultValue = "MONTH") SalesBucket bucket) {
+        return salesAnalyticsService.report(from, to, bucket);
+    }
+
+    /**
+     * 일별 매출 ( 대시보드 ) - 롤업 테이블에서 읽음 ( 주문 수가 아니라 일 수 만큼의 row )
+     * itemId 를 주면 그 상품만
+     */
+    @GetMapping("/api/analytics/daily-sales")
+    public List<DailySalesDto> dailySales(@RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                         @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                         @RequestParam(value = "itemId", required = false) Long itemId) {
+        return itemId == null
+                ? dailySalesRollupRepository.findDailySales(from, to)
+                : dailySalesRollupRepository.findDailySales(from, to, itemId);
+    }
+}
@@ -0,0 +1,13 @@
+package jpabook.jpashop.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 애플리케이션 캐시 ( Spring Cache + JCache, app-cache.xml )
+ * Hibernate 2차 캐시 ( ehcache.xml ) 와는 CacheManager 를 따로 씀
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+}
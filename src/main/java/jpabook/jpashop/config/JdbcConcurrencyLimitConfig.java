@@ -0,0 +1,46 @@
+package jpabook.jpashop.config;
+
+import jpabook.jpashop.datasource.ConcurrencyLimitingDataSource;
+import jpabook.jpashop.datasource.JdbcConcurrencyLimitProperties;
+import jpabook.jpashop.datasource.JdbcConcurrencyLimiter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * JDBC 동시 실행 수 제한 ( jpashop.datasource.concurrency-limit.enabled=true 일 때만 )
+ * JPA / JdbcTemplate 이 사용하는 dataSource 빈을 ConcurrencyLimitingDataSource 로 감쌈
+ * 라우팅 사용 시 dataSource 는 LazyConnectionDataSourceProxy 이므로 primary / replica 를 합친 논리 커넥션 수가 제한됨
+ */
+@Configuration
+@EnableConfigurationProperties(JdbcConcurrencyLimitProperties.class)
+@ConditionalOnProperty(name = "jpashop.datasource.concurrency-limit.enabled", havingValue = "true")
+public class JdbcConcurrencyLimitConfig {
+
+    @Bean
+    public JdbcConcurrencyLimiter jdbcConcurrencyLimiter(JdbcConcurrencyLimitProperties properties,
+                                                         @Value("${spring.datasource.hikari.maximum-pool-size:10}") int maximumPoolSize) {
+        int maxConcurrent = properties.getMaxConcurrent() > 0 ? properties.getMaxConcurrent() : maximumPoolSize;
+        return new JdbcConcurrencyLimiter(maxConcurrent, properties.getAcquireTimeout());
+    }
+
+    @Bean
+    public static BeanPostProcessor jdbcConcurrencyLimitingPostProcessor(ObjectProvider<JdbcConcurrencyLimiter> limiter) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource
+                        && !(bean instanceof ConcurrencyLimitingDataSource)) {
+                    return new ConcurrencyLimitingDataSource(dataSource, limiter.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,22 @@
+package jpabook.jpashop.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+/**
+ * 조회 fan-out ( OrderItemFanOutLoader ) 용 실행기
+ * 작업마다 스레드를 새로 만들고, JDK 21 이상에서 실행하면 가상 스레드를 사용
+ * 동시 실행 수는 OrderItemFanOutLoader 가 커넥션 풀 크기, 지금 놀고 있는 커넥션 수 기준으로 제한함
+ */
+@Configuration
+public class QueryFanOutConfig {
+
+    @Bean
+    public AsyncTaskExecutor queryFanOutExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("query-fanout-");
+        executor.setVirtualThreads(Runtime.version().feature() >= 21);
+        return executor;
+    }
+}
@@ -0,0 +1,12 @@
+package jpabook.jpashop.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * @Scheduled 작업 ( replica 헬스 체크, 일별 매출 롤업 다시 계산 )
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
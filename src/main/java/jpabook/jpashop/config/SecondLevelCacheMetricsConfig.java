@@ -0,0 +1,38 @@
+package jpabook.jpashop.config;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+
+/**
+ * 2차 캐시 region 별 hit / miss / put / eviction 통계를 micrometer 로 노출
+ * ( hit / miss 같은 Hibernate 통계는 hibernate-micrometer 가 hibernate.* 메트릭으로 노출해줌 )
+ * /actuator/metrics/cache.evictions?tag=cache:item 처럼 조회
+ */
+@Configuration
+public class SecondLevelCacheMetricsConfig {
+
+    @Bean
+    public MeterBinder secondLevelCacheMetrics(EntityManagerFactory emf) {
+        return registry -> {
+            RegionFactory regionFactory = emf.unwrap(SessionFactoryImplementor.class)
+                    .getCache()
+                    .getRegionFactory();
+
+            if (regionFactory instanceof JCacheRegionFactory jCacheRegionFactory) {
+                CacheManager cacheManager = jCacheRegionFactory.getCacheManager();
+                for (String cacheName : cacheManager.getCacheNames()) {
+                    JCacheMetrics.monitor(registry, cacheManager.getCache(cacheName), Tags.of("layer", "hibernate-l2"));
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,32 @@
+package jpabook.jpashop.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * 가상 스레드 실행 모드 ( virtual 프로필 : spring.threads.virtual.enabled=true, JDK 21 이상 )
+ * - Tomcat 요청 처리 : 스프링 부트가 요청마다 가상 스레드를 사용하도록 설정
+ * - @Async : 스프링 부트의 applicationTaskExecutor ( 가상 스레드 모드에서는 SimpleAsyncTaskExecutor ) 에서 실행
+ * 요청 시간 대부분이 JDBC 대기이므로 스레드 수가 아니라 커넥션 수가 동시 처리량을 정함 -> JdbcConcurrencyLimitConfig
+ */
+@Slf4j
+@Configuration
+@EnableAsync
+public class VirtualThreadConfig {
+
+    // JDK 17 에서는 스프링 부트가 설정을 무시하고 플랫폼 스레드를 그대로 사용하므로 알려줌
+    @Bean
+    @ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+    public InitializingBean virtualThreadsSupportCheck() {
+        return () -> {
+            if (Runtime.version().feature() < 21) {
+                log.warn("spring.threads.virtual.enabled=true 이지만 JDK {} 에서 실행 중이라 플랫폼 스레드를 사용합니다. JDK 21 이상에서 실행하세요.",
+                        Runtime.version().feature());
+            }
+        };
+    }
+}
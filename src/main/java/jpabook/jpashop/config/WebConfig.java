@@ -0,0 +1,24 @@
+package jpabook.jpashop.config;
+
+import jpabook.jpashop.datasource.ReadAfterWriteInterceptor;
+import jpabook.jpashop.monitoring.QueryBudgetInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final QueryBudgetInterceptor queryBudgetInterceptor;
+    private final ReadAfterWriteInterceptor readAfterWriteInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(queryBudgetInterceptor)
+                .excludePathPatterns("/css/**", "/*.ico", "/error");
+        registry.addInterceptor(readAfterWriteInterceptor)
+                .excludePathPatterns("/css/**", "/*.ico", "/error");
+    }
+}
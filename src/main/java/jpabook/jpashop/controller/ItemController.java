@@ -1,18 +1,27 @@
 package jpabook.jpashop.controller;
 
 import jpabook.jpashop.domain.Item.Book;
+import jpabook.jpashop.dto.CursorResult;
+import jpabook.jpashop.dto.ItemSummaryDto;
+import jpabook.jpashop.dto.ListingSnapshot;
 import jpabook.jpashop.dto.UpdateItemDto;
+import jpabook.jpashop.repository.CatalogSearch;
+import jpabook.jpashop.repository.ItemCursor;
 import jpabook.jpashop.service.ItemService;
 import lombok.RequiredArgsConstructor;
 import org.hibernate.sql.Update;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @Controller
 @RequiredArgsConstructor
 public class ItemController {
 
+    private static final int PAGE_SIZE = 100;
+
     private final ItemService itemService;
 
     @GetMapping("/items/new")
@@ -34,9 +43,20 @@ public class ItemController {
         return "redirect:/";
     }
 
+    /**
+     * 전체를 그리지 않고 PAGE_SIZE 씩 Keyset 페이징 ( 다음 페이지는 cursor )
+     * ETag 는 페이지 내용으로 만듦 -> 페이지가 그대로면 304 ( 조회는 하지만 화면을 다시 그리거나 보내지 않음 )
+     */
     @GetMapping("/items")
-    public String list(Model model) {
-        model.addAttribute("items", itemService.findAll());
+    public String list(@RequestParam(value = "cursor", required = false) String cursor, Model model, WebRequest webRequest) {
+        CursorResult<ItemSummaryDto> items = itemService.findCatalog(new CatalogSearch(),
+                StringUtils.hasText(cursor) ? ItemCursor.decode(cursor) : null, PAGE_SIZE);
+        ListingSnapshot<ItemSummaryDto> page = new ListingSnapshot<>(items.getData());
+        if (webRequest.checkNotModified(page.getEtag())) {
+            return null;
+        }
+        model.addAttribute("items", page.getData());
+        model.addAttribute("nextCursor", items.getNextCursor());
         return "items/itemList";
     }
 
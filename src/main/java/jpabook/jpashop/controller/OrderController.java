@@ -1,34 +1,28 @@
 package jpabook.jpashop.controller;
 
-import jpabook.jpashop.domain.Item.Item;
-import jpabook.jpashop.domain.Member;
-import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.dto.OrderSearchPage;
 import jpabook.jpashop.repository.OrderSearch;
-import jpabook.jpashop.service.ItemService;
-import jpabook.jpashop.service.MemberService;
+import jpabook.jpashop.service.ListingCacheService;
 import jpabook.jpashop.service.OrderService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @Controller
 @RequiredArgsConstructor
 public class OrderController {
 
     private final OrderService orderService;
-    private final MemberService memberService;
-    private final ItemService itemService;
+    private final ListingCacheService listingCacheService;
+
+    private static final int PAGE_SIZE = 20;
+    private static final int MAX_PAGE = OrderSearchPage.COUNT_LIMIT / PAGE_SIZE; // 전체 건수를 세는 범위까지만 페이지 링크가 있음
 
     @GetMapping("/order")
     public String createForm(Model model) {
-        List<Member> members = memberService.findMembers();
-        List<Item> items = itemService.findAll();
-
-        model.addAttribute("members", members);
-        model.addAttribute("items", items);
+        model.addAttribute("members", listingCacheService.members().getData());
+        model.addAttribute("items", listingCacheService.items().getData());
 
         return "/order/orderForm";
     }
@@ -42,9 +36,11 @@ public class OrderController {
     }
 
     @GetMapping("/orders")
-    public String orderList(@ModelAttribute("orderSearch") OrderSearch orderSearch, Model model) {
-        List<Order> orders = orderService.findOrders(orderSearch);
-        model.addAttribute("orders", orders);
+    public String orderList(@ModelAttribute("orderSearch") OrderSearch orderSearch,
+                            @RequestParam(value = "page", defaultValue = "0") int page, Model model) {
+        OrderSearchPage orderPage = orderService.searchOrders(orderSearch, Math.min(Math.max(page, 0), MAX_PAGE), PAGE_SIZE);
+        model.addAttribute("orders", orderPage.getContent());
+        model.addAttribute("orderPage", orderPage);
 
         return "order/orderList";
     }
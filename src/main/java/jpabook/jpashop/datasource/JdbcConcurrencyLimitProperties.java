@@ -0,0 +1,24 @@
+package jpabook.jpashop.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * jpashop.datasource.concurrency-limit.*
+ * 가상 스레드 모드 ( virtual 프로필 ) 에서 켬
+ */
+@Getter @Setter
+@ConfigurationProperties(prefix = "jpashop.datasource.concurrency-limit")
+public class JdbcConcurrencyLimitProperties {
+
+    private boolean enabled;
+
+    // 0 이면 spring.datasource.hikari.maximum-pool-size ( 기본 10 )
+    private int maxConcurrent;
+
+    // Hikari connection-timeout 기본값과 같음
+    private Duration acquireTimeout = Duration.ofSeconds(30);
+}
@@ -0,0 +1,104 @@
+package jpabook.jpashop.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 동시에 사용 중인 JDBC 커넥션 수 제한 ( 공정한 세마포어 )
+ * 가상 스레드는 요청마다 하나씩 만들어지므로 커넥션 풀보다 훨씬 많은 스레드가 동시에 커넥션을 요청할 수 있음
+ * 풀 앞에서 세마포어로 줄을 세워서
+ * - 대기 중인 스레드는 세마포어에서 파킹 ( 캐리어 스레드를 잡지 않음 )
+ * - 대기 시간을 넘기면 SQLTransientConnectionException 으로 빨리 실패
+ * - 대기 수를 jpashop.jdbc.concurrency 메트릭으로 확인
+ * 이미 허가를 잡은 요청이 다른 스레드에 맡긴 작업 ( fan-out 청크 ) 은 tryReserve 로 줄을 서지 않고 미리 받은 허가를 사용
+ * ( 공정한 세마포어에서 수백 개의 대기 스레드 뒤에 서면, 허가를 잡은 채로 기다리는 호출 스레드까지 같이 밀림 )
+ */
+public class JdbcConcurrencyLimiter implements MeterBinder {
+
+    private final int maxConcurrent;
+    private final Duration acquireTimeout;
+    private final Semaphore permits;
+    private final ThreadLocal<Boolean> reserved = new ThreadLocal<>();
+
+    public JdbcConcurrencyLimiter(int maxConcurrent, Duration acquireTimeout) {
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("maxConcurrent 는 1 이상이어야 합니다. maxConcurrent=" + maxConcurrent);
+        }
+        this.maxConcurrent = maxConcurrent;
+        this.acquireTimeout = acquireTimeout;
+        this.permits = new Semaphore(maxConcurrent, true);
+    }
+
+    public void acquire() throws SQLTransientConnectionException {
+        if (reserved.get() != null) {
+            reserved.remove(); // withReserved 로 미리 받은 허가 사용
+            return;
+        }
+        try {
+            if (!permits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException("JDBC 동시 실행 수 제한 대기 시간 초과 maxConcurrent="
+                        + maxConcurrent + ", waiting=" + getWaiting() + ", timeout=" + acquireTimeout);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("JDBC 커넥션 대기 중 인터럽트", e);
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    /**
+     * 기다리지 않고 허가를 받음 ( 대기 중인 스레드보다 먼저 ) - 받지 못하면 false
+     * 받은 허가는 withReserved 로 넘기거나 release 로 돌려줘야 함
+     */
+    public boolean tryReserve() {
+        return permits.tryAcquire();
+    }
+
+    /**
+     * tryReserve 로 받은 허가를 이 스레드의 다음 커넥션에 사용하면서 task 실행
+     * task 가 커넥션을 가져가지 않았으면 끝날 때 허가를 돌려줌
+     */
+    public <T> T withReserved(Supplier<T> task) {
+        reserved.set(Boolean.TRUE);
+        try {
+            return task.get();
+        } finally {
+            if (reserved.get() != null) {
+                reserved.remove();
+                permits.release();
+            }
+        }
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int getActive() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    public int getWaiting() {
+        return permits.getQueueLength();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("jpashop.jdbc.concurrency", this, JdbcConcurrencyLimiter::getActive)
+                .tag("state", "active")
+                .register(registry);
+        Gauge.builder("jpashop.jdbc.concurrency", this, JdbcConcurrencyLimiter::getWaiting)
+                .tag("state", "waiting")
+                .register(registry);
+    }
+}
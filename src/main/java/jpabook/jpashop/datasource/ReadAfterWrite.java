@@ -0,0 +1,85 @@
+package jpabook.jpashop.datasource;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+
+/**
+ * 쓰기 직후 읽기 ( read-after-write ) 를 primary 로 고정하는 기간
+ * 복제 지연 때문에 방금 쓴 데이터가 replica 에 아직 없을 수 있으므로, 쓰기 트랜잭션이 커밋되면
+ * 같은 스레드 ( 요청 ) 와 같은 클라이언트 ( 쿠키 ) 의 읽기는 window 동안 primary 에서 읽음
+ */
+public final class ReadAfterWrite {
+
+    public static final String COOKIE_NAME = "jpashop-primary-until";
+
+    private static final ThreadLocal<Long> PRIMARY_UNTIL = new ThreadLocal<>();
+
+    private ReadAfterWrite() {
+    }
+
+    // 요청 시작 - 이전 요청에서 쓰기를 했다면 쿠키에 primary 고정 시각이 들어 있음
+    // 쿠키는 클라이언트가 바꿀 수 있으므로 지금부터 maxWindow 까지만 인정 ( 먼 미래 값으로 replica 를 계속 우회하지 못하게 )
+    public static void begin(HttpServletRequest request, Duration maxWindow) {
+        PRIMARY_UNTIL.remove();
+        if (request.getCookies() == null) {
+            return;
+        }
+        for (Cookie cookie : request.getCookies()) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    long until = Long.parseLong(cookie.getValue());
+                    PRIMARY_UNTIL.set(Math.min(until, System.currentTimeMillis() + maxWindow.toMillis()));
+                } catch (NumberFormatException ignored) {
+                    // 잘못된 쿠키는 무시
+                }
+            }
+        }
+    }
+
+    // 쓰기 트랜잭션 커밋 후 호출
+    public static void markWrite(Duration window) {
+        if (window.isZero() || window.isNegative()) {
+            return;
+        }
+        long until = System.currentTimeMillis() + window.toMillis();
+        PRIMARY_UNTIL.set(until);
+
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            HttpServletResponse response = attributes.getResponse();
+            if (response != null && !response.isCommitted()) {
+                Cookie cookie = new Cookie(COOKIE_NAME, String.valueOf(until));
+                cookie.setPath("/");
+                cookie.setHttpOnly(true);
+                cookie.setMaxAge((int) Math.max(1, window.toSeconds()));
+                response.addCookie(cookie);
+            }
+        }
+    }
+
+    public static boolean isSticky() {
+        Long until = PRIMARY_UNTIL.get();
+        return until != null && System.currentTimeMillis() < until;
+    }
+
+    public static void clear() {
+        PRIMARY_UNTIL.remove();
+    }
+
+    // 다른 스레드로 넘길 때 사용 ( RequestThreadContext )
+    static Long primaryUntil() {
+        return PRIMARY_UNTIL.get();
+    }
+
+    static void restore(Long until) {
+        if (until == null) {
+            PRIMARY_UNTIL.remove();
+        } else {
+            PRIMARY_UNTIL.set(until);
+        }
+    }
+}
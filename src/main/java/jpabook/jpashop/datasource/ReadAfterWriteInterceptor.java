@@ -0,0 +1,33 @@
+package jpabook.jpashop.datasource;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+
+/**
+ * 요청 단위로 ReadAfterWrite 상태를 쿠키에서 읽고, 요청이 끝나면 정리
+ */
+@Component
+public class ReadAfterWriteInterceptor implements HandlerInterceptor {
+
+    private final Duration stickyWindow;
+
+    public ReadAfterWriteInterceptor(@Value("${jpashop.datasource.routing.sticky-window:3s}") Duration stickyWindow) {
+        this.stickyWindow = stickyWindow;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ReadAfterWrite.begin(request, stickyWindow);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        ReadAfterWrite.clear();
+    }
+}
@@ -0,0 +1,69 @@
+package jpabook.jpashop.datasource;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * replica 연결 / 복제 지연 주기적 확인
+ * 연결이 안 되거나 지연이 maxLag 를 넘으면 라우팅에서 빼고, 회복되면 다시 넣음
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ReplicaHealthChecker {
+
+    private static final int VALID_TIMEOUT_SECONDS = 1;
+
+    private final ReplicaRoutingDataSource routingDataSource;
+    private final String lagQuery;
+    private final Duration maxLag;
+
+    @Scheduled(fixedDelayString = "${jpashop.datasource.routing.health-check-interval-millis:5000}")
+    public void check() {
+        for (Map.Entry<String, DataSource> replica : routingDataSource.getReplicas().entrySet()) {
+            String name = replica.getKey();
+            boolean healthy = isHealthy(name, replica.getValue());
+            boolean wasHealthy = routingDataSource.isHealthy(name);
+
+            if (healthy) {
+                routingDataSource.markHealthy(name);
+            } else {
+                routingDataSource.markUnhealthy(name);
+            }
+            if (healthy != wasHealthy) {
+                log.warn("replica {} 상태 변경 {} -> {}", name, wasHealthy ? "UP" : "DOWN", healthy ? "UP" : "DOWN");
+            }
+        }
+    }
+
+    private boolean isHealthy(String name, DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!connection.isValid(VALID_TIMEOUT_SECONDS)) {
+                return false;
+            }
+            if (lagQuery == null) {
+                return true;
+            }
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(lagQuery)) {
+                // 지연을 알 수 없으면 ( 예: 아직 복제된 트랜잭션이 없음 ) 사용하지 않음
+                if (!rs.next() || rs.getObject(1) == null) {
+                    return false;
+                }
+                double lagSeconds = rs.getDouble(1);
+                return lagSeconds * 1000 <= maxLag.toMillis();
+            }
+        } catch (SQLException e) {
+            log.debug("replica {} 확인 실패", name, e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package jpabook.jpashop.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 읽기 전용 트랜잭션은 replica, 나머지는 primary 로 보내는 DataSource
+ * - 트랜잭션의 readOnly 여부는 커넥션을 실제로 가져올 때 결정되므로 LazyConnectionDataSourceProxy 로 감싸서 사용해야 함
+ * - replica 는 정상 ( ReplicaHealthChecker 가 확인 ) 인 것만 돌아가면서 사용, 하나도 없으면 primary
+ * - 쓰기 트랜잭션이 커밋되면 stickyWindow 동안 같은 요청 / 클라이언트의 읽기는 primary ( ReadAfterWrite )
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    private final Map<String, DataSource> replicas;
+    private final List<String> replicaKeys;
+    private final Set<String> healthyReplicas = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger next = new AtomicInteger();
+    private final Duration stickyWindow;
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, Duration stickyWindow) {
+        this.replicas = replicas;
+        this.replicaKeys = List.copyOf(replicas.keySet());
+        this.stickyWindow = stickyWindow;
+
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+
+        // 첫 헬스 체크 전까지는 정상으로 간주
+        healthyReplicas.addAll(replicaKeys);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            registerReadAfterWrite();
+            return PRIMARY;
+        }
+        if (ReadAfterWrite.isSticky()) {
+            return PRIMARY;
+        }
+        String replica = nextHealthyReplica();
+        return replica == null ? PRIMARY : replica;
+    }
+
+    private void registerReadAfterWrite() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    ReadAfterWrite.markWrite(stickyWindow);
+                }
+            });
+        }
+    }
+
+    // 정상인 replica 를 돌아가면서 선택
+    private String nextHealthyReplica() {
+        int size = replicaKeys.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            String key = replicaKeys.get((start + i) % size);
+            if (healthyReplicas.contains(key)) {
+                return key;
+            }
+        }
+        return null;
+    }
+
+    public Map<String, DataSource> getReplicas() {
+        return replicas;
+    }
+
+    public void markHealthy(String replica) {
+        healthyReplicas.add(replica);
+    }
+
+    public void markUnhealthy(String replica) {
+        healthyReplicas.remove(replica);
+    }
+
+    public boolean isHealthy(String replica) {
+        return healthyReplicas.contains(replica);
+    }
+
+    // replica 풀은 빈이 아니므로 여기서 닫음 ( primary 는 별도 빈 )
+    public void close() throws Exception {
+        for (DataSource replica : replicas.values()) {
+            if (replica instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
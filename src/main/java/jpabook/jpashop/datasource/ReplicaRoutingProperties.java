@@ -0,0 +1,37 @@
+package jpabook.jpashop.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * jpashop.datasource.routing.*
+ * primary 는 spring.datasource.* 를 그대로 사용하고, replica 만 여기에 설정
+ */
+@Getter @Setter
+@ConfigurationProperties(prefix = "jpashop.datasource.routing")
+public class ReplicaRoutingProperties {
+
+    private boolean enabled;
+    private List<Replica> replicas = new ArrayList<>();
+
+    private Duration stickyWindow = Duration.ofSeconds(3); // 쓰기 후 primary 에서 읽는 기간
+    private Duration maxLag = Duration.ofSeconds(5); // 이보다 지연된 replica 는 사용하지 않음
+    private long healthCheckIntervalMillis = 5000;
+
+    // replica 에서 실행해서 복제 지연 ( 초 ) 을 구하는 쿼리, 없으면 연결 확인만 함
+    // 예: PostgreSQL - select extract(epoch from now() - pg_last_xact_replay_timestamp())
+    private String lagQuery;
+
+    @Getter @Setter
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
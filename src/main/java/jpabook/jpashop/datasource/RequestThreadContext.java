@@ -0,0 +1,40 @@
+package jpabook.jpashop.datasource;
+
+import jpabook.jpashop.monitoring.QueryStatistics;
+import jpabook.jpashop.monitoring.QueryStatisticsHolder;
+
+import java.util.function.Supplier;
+
+/**
+ * 요청 스레드의 ThreadLocal 상태를 다른 스레드 ( fan-out 청크, 스트림 페이지 조회 ) 로 넘김
+ * - ReadAfterWrite : 쓰기 직후 요청이면 다른 스레드의 조회도 primary 에서 읽어야 함 ( 아니면 replica 에서 방금 쓴 데이터가 빠짐 )
+ * - QueryStatisticsHolder : 다른 스레드에서 실행한 SQL 도 요청의 @QueryBudget 에 포함
+ * 요청 스레드에서 capture 하고, 작업 스레드에서 call 로 실행 ( 끝나면 작업 스레드의 이전 상태로 되돌림 )
+ */
+public final class RequestThreadContext {
+
+    private final Long primaryUntil;
+    private final QueryStatistics statistics;
+
+    private RequestThreadContext(Long primaryUntil, QueryStatistics statistics) {
+        this.primaryUntil = primaryUntil;
+        this.statistics = statistics;
+    }
+
+    public static RequestThreadContext capture() {
+        return new RequestThreadContext(ReadAfterWrite.primaryUntil(), QueryStatisticsHolder.current());
+    }
+
+    public <T> T call(Supplier<T> task) {
+        Long previousPrimaryUntil = ReadAfterWrite.primaryUntil();
+        QueryStatistics previousStatistics = QueryStatisticsHolder.current();
+        ReadAfterWrite.restore(primaryUntil);
+        QueryStatisticsHolder.restore(statistics);
+        try {
+            return task.get();
+        } finally {
+            ReadAfterWrite.restore(previousPrimaryUntil);
+            QueryStatisticsHolder.restore(previousStatistics);
+        }
+    }
+}
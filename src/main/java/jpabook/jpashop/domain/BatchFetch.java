@@ -0,0 +1,19 @@
+package jpabook.jpashop.domain;
+
+/**
+ * 지연 로딩 batch fetch 크기
+ * 프록시 / 컬렉션을 하나씩 초기화하지 않고, 영속성 컨텍스트에 있는 같은 종류의 것들을 in 절로 최대 SIZE 개씩 한 번에 초기화
+ * -> N + 1 이 1 + ceil(N / SIZE) 로 줄어듦
+ * 전역 기본값은 application.yml 의 hibernate.default_batch_fetch_size, 연관관계별로 @BatchSize / @Fetch 로 조정
+ */
+public final class BatchFetch {
+
+    // in 절 파라미터 수. 너무 크면 DB 가 in 절을 처리하는 비용과 SQL 길이가 커짐
+    public static final int SIZE = 100;
+
+    // 한 번에 많이 초기화되는 컬렉션 ( 주문의 주문상품 등 )
+    public static final int LARGE_SIZE = 500;
+
+    private BatchFetch() {
+    }
+}
@@ -4,6 +4,10 @@ import jakarta.persistence.*;
 import jpabook.jpashop.domain.Item.Item;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -11,19 +15,26 @@ import java.util.List;
 import static jakarta.persistence.FetchType.*;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "category")
 @Getter @Setter
 public class Category {
 
-    @Id @GeneratedValue
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "category_seq_generator")
+    @SequenceGenerator(name = "category_seq_generator", sequenceName = "category_seq", allocationSize = IdGeneration.ALLOCATION_SIZE)
     @Column(name = "category_id")
     private Long id;
 
     private String name;
 
+    // 카테고리는 트리 전체를 한 번에 읽는 경우가 많아서, 처음 읽은 쿼리의 카테고리 전부에 대해 서브쿼리로 한 번에 초기화
     @ManyToMany
+    @Fetch(FetchMode.SUBSELECT)
     @JoinTable(name = "category_item",
             joinColumns = @JoinColumn(name = "category_id"),
-            inverseJoinColumns = @JoinColumn(name = "item_id"))
+            inverseJoinColumns = @JoinColumn(name = "item_id"),
+            indexes = @Index(name = "idx_category_item_category", columnList = "category_id, item_id")) // 카테고리 상품 목록
     private List<Item> items = new ArrayList<>();
 
     @ManyToOne(fetch = LAZY)
@@ -31,10 +42,15 @@ public class Category {
     private Category parent;
 
     @OneToMany(mappedBy = "parent")
+    @Fetch(FetchMode.SUBSELECT)
     private List<Category> child = new ArrayList<>();
 
     //==연관관계 메서드==//
+    // 다른 부모 밑에 있던 카테고리면 옮김 ( closure 테이블은 CategoryService 가 갱신 )
     public void addChildCategory(Category child) {
+        if (child.getParent() != null) {
+            child.getParent().getChild().remove(child);
+        }
         this.child.add(child);
         child.setParent(this);
     }
@@ -0,0 +1,15 @@
+package jpabook.jpashop.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 카테고리 생성 / 이동 / 이름 변경 이벤트
+ * 커밋 이후 카테고리 트리 스냅샷을 다시 만듦
+ */
+@Getter
+@AllArgsConstructor
+public class CategoryChangedEvent {
+
+    private final Long categoryId;
+}
@@ -0,0 +1,42 @@
+package jpabook.jpashop.domain;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * 카테고리 closure 테이블 ( 조상 -> 자손 경로마다 한 row, 자기 자신 depth 0 포함 )
+ * "X 와 하위 카테고리 전부" 를 트리 깊이와 상관없이 ancestor_id 조건 하나로 찾을 수 있음
+ * CategoryService 가 카테고리를 만들거나 옮길 때 같은 트랜잭션에서 갱신
+ */
+@Entity
+@Table(name = "category_closure", indexes = {
+        @Index(name = "idx_category_closure_descendant", columnList = "descendant_id, ancestor_id") // 조상 찾기
+})
+@IdClass(CategoryClosure.Key.class)
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class CategoryClosure {
+
+    @Id
+    @Column(name = "ancestor_id")
+    private Long ancestorId;
+
+    @Id
+    @Column(name = "descendant_id")
+    private Long descendantId;
+
+    private int depth; // 조상에서 자손까지 거리
+
+    @Getter
+    @EqualsAndHashCode
+    @NoArgsConstructor(access = AccessLevel.PROTECTED)
+    public static class Key implements Serializable {
+        private Long ancestorId;
+        private Long descendantId;
+    }
+}
@@ -0,0 +1,31 @@
+package jpabook.jpashop.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 카테고리 트리 변경 락 ( row 하나 )
+ * 카테고리 이동 / 하위 카테고리 생성은 이 row 를 잠그고 closure 를 읽고 고침 -> 트리 변경이 한 번에 하나씩만 실행됨
+ * ( 서로 다른 카테고리를 옮기는 이동 두 개도 합치면 순환이 될 수 있어서 카테고리 단위로 잠그면 부족함 )
+ */
+@Entity
+@Table(name = "category_tree_lock")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class CategoryTreeLock {
+
+    public static final long ID = 1L;
+
+    @Id
+    @Column(name = "lock_id")
+    private Long id;
+
+    private LocalDateTime lockedAt;
+}
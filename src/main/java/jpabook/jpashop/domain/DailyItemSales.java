@@ -0,0 +1,45 @@
+package jpabook.jpashop.domain;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * 일별 / 상품별 매출 롤업 ( 하루 + 상품 하나당 한 row )
+ * 주문 / 취소 트랜잭션 안에서 DailySalesRollupProjector 가 증감시키고, 어긋난 날은 DailySalesRepairJob 이 다시 계산
+ * 매출 / 판매 수량은 취소분을 뺀 값, 주문 수에는 취소 주문도 포함
+ */
+@Entity
+@Table(name = "daily_item_sales", indexes = {
+        @Index(name = "idx_daily_item_sales_date", columnList = "sales_date"), // 기간 조회 ( 일별 합계 )
+        @Index(name = "idx_daily_item_sales_item_date", columnList = "item_id, sales_date") // 상품별 기간 조회
+})
+@IdClass(DailyItemSales.Key.class)
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class DailyItemSales {
+
+    @Id
+    private LocalDate salesDate;
+
+    @Id
+    private Long itemId;
+
+    private long orderCount;
+    private long canceledOrderCount;
+    private long units;
+    private long revenue;
+
+    @Getter
+    @EqualsAndHashCode
+    @NoArgsConstructor(access = AccessLevel.PROTECTED)
+    public static class Key implements Serializable {
+        private LocalDate salesDate;
+        private Long itemId;
+    }
+}
@@ -0,0 +1,26 @@
+package jpabook.jpashop.domain;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 롤업 ( daily_item_sales ) 을 다시 계산해야 하는 날
+ */
+@Entity
+@Table(name = "daily_sales_dirty_day")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class DailySalesDirtyDay {
+
+    @Id
+    private LocalDate salesDate;
+
+    private LocalDateTime markedAt;
+}
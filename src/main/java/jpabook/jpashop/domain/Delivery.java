@@ -11,7 +11,9 @@ import static jakarta.persistence.FetchType.*;
 @Getter @Setter
 public class Delivery {
 
-    @Id @GeneratedValue
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "delivery_seq_generator")
+    @SequenceGenerator(name = "delivery_seq_generator", sequenceName = "delivery_seq", allocationSize = IdGeneration.ALLOCATION_SIZE)
     @Column(name = "delivery_id")
     private Long id;
 
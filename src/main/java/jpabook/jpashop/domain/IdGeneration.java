@@ -0,0 +1,16 @@
+package jpabook.jpashop.domain;
+
+/**
+ * 엔티티 식별자 생성 전략 ( 모든 엔티티 공통 )
+ * 엔티티마다 시퀀스를 두고, 시퀀스 한 번 호출로 ALLOCATION_SIZE 개의 id 를 메모리에 미리 할당받음 ( pooled-lo )
+ * -> persist 할 때마다 시퀀스를 호출하지 않아도 되고, insert 를 JDBC batch 로 묶을 수 있음
+ * 옵티마이저는 application.yml 의 hibernate.id.optimizer.pooled.preferred 로 설정
+ */
+public final class IdGeneration {
+
+    // 시퀀스의 increment by 값과 같아야 함. 크게 잡을수록 시퀀스 호출은 줄고, 재시작 시 버려지는 id 는 늘어남
+    public static final int ALLOCATION_SIZE = 100;
+
+    private IdGeneration() {
+    }
+}
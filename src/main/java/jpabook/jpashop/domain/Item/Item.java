@@ -1,27 +1,44 @@
 package jpabook.jpashop.domain.Item;
 
 import jakarta.persistence.*;
+import jpabook.jpashop.domain.BatchFetch;
 import jpabook.jpashop.domain.Category;
+import jpabook.jpashop.domain.IdGeneration;
 import jpabook.jpashop.dto.UpdateItemDto;
 import jpabook.jpashop.exception.NotEnoughStockException;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "item") // Album, Book, Movie 모두 같은 region 사용
+@Table(indexes = {
+        @Index(name = "idx_item_price", columnList = "price, item_id") // 상품 목록 가격순 Keyset 페이징 / 가격 범위 검색
+})
 @Inheritance(strategy = InheritanceType.SINGLE_TABLE)
 @DiscriminatorColumn(name = "dtype")
+@BatchSize(size = BatchFetch.SIZE) // OrderItem.item 프록시 초기화 ( ToOne 은 대상 엔티티에 지정 )
 @Getter @Setter
 public class Item {
 
-    @Id @GeneratedValue
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_seq_generator")
+    @SequenceGenerator(name = "item_seq_generator", sequenceName = "item_seq", allocationSize = IdGeneration.ALLOCATION_SIZE)
     @Column(name = "item_id")
     private Long id;
 
     private String name;
     private int price;
+
+    // 재고는 변경 감지로 update 하지 않음 ( 동시 주문 시 마지막 커밋이 이전 차감을 덮어써버림 )
+    // DB 반영은 StockReservationService 가 조건부 update 로 처리하고, 이 필드는 메모리 상의 값만 맞춰줌
+    @Column(updatable = false)
     private int stockQuantity;
 
     @ManyToMany(mappedBy = "items")
@@ -0,0 +1,16 @@
+package jpabook.jpashop.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 상품 등록 / 수정 이벤트
+ * 커밋 이후에 처리해야 하는 것들 ( 목록 캐시 등 ) 은 @TransactionalEventListener 로 받음
+ */
+@Getter
+@AllArgsConstructor
+public class ItemChangedEvent {
+
+    private final Long itemId;
+    private final boolean created; // 새로 등록 ( 기존 주문에는 영향 없음 )
+}
@@ -5,17 +5,25 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotEmpty;
 import jpabook.jpashop.dto.MemberDto;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Table(indexes = @Index(name = "idx_member_name", columnList = "name")) // 회원 이름 ( 앞부분 일치 ) 검색용
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "member")
 @Getter
 @AllArgsConstructor @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @Builder
 public class Member {
 
-    @Id @GeneratedValue
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "member_seq_generator")
+    @SequenceGenerator(name = "member_seq_generator", sequenceName = "member_seq", allocationSize = IdGeneration.ALLOCATION_SIZE)
     @Column(name = "member_id")
     private Long id;
 
@@ -27,6 +35,7 @@ public class Member {
     private Address address;
 
     @OneToMany(mappedBy = "member")
+    @BatchSize(size = BatchFetch.SIZE)
     private List<Order> orders = new ArrayList<>();
 
     // updateName
@@ -0,0 +1,17 @@
+package jpabook.jpashop.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 회원 가입 / 수정 이벤트
+ * 커밋 이후에 처리해야 하는 것들 ( 검색 인덱스 등 ) 은 @TransactionalEventListener 로 받음
+ */
+@Getter
+@AllArgsConstructor
+public class MemberChangedEvent {
+
+    private final Long memberId;
+    private final String name;
+    private final boolean created; // 새로 가입 ( 기존 주문에는 영향 없음 )
+}
@@ -0,0 +1,53 @@
+package jpabook.jpashop.domain;
+
+/**
+ * 금액 계산 ( 원 단위 long )
+ * int 곱셈 ( 가격 * 수량 ) 은 21억을 넘으면 말없이 음수가 되므로 금액은 모두 long 으로 계산하고,
+ * 넘칠 수 있는 곳은 Math.*Exact 로 예외를 던짐 ( 원 아래 단위가 없으므로 BigDecimal 은 쓰지 않음 )
+ *
+ * 주문 금액 하나는 MAX_AMOUNT 이하로 제한 -> sum 에서 BLOCK 개까지는 넘칠 걱정 없이 그냥 더할 수 있음
+ */
+public final class Money {
+
+    static final int BLOCK = 1024;
+
+    // BLOCK 개를 더해도 long 범위를 넘지 않는 최대 금액 ( 약 9 천조 원 )
+    public static final long MAX_AMOUNT = Long.MAX_VALUE / BLOCK;
+
+    private Money() {
+    }
+
+    // 가격 * 수량 ( int * int 는 long 범위를 넘지 않음 )
+    public static long multiply(int price, int count) {
+        return (long) price * count;
+    }
+
+    public static long add(long a, long b) {
+        return Math.addExact(a, b);
+    }
+
+    // 주문 금액 검증 ( 주문 생성 시 )
+    public static long checkAmount(long amount) {
+        if (amount < 0 || amount > MAX_AMOUNT) {
+            throw new IllegalArgumentException("주문 금액이 허용 범위를 벗어났습니다. amount=" + amount);
+        }
+        return amount;
+    }
+
+    /**
+     * amounts[0, length) 의 합 ( 각 값은 0 ~ MAX_AMOUNT )
+     * BLOCK 개씩은 넘침 검사 없이 단순 루프로 더하고 ( JIT 가 벡터화 / 언롤링 가능 ), 블록 합끼리만 addExact
+     */
+    public static long sum(long[] amounts, int length) {
+        long total = 0;
+        for (int from = 0; from < length; from += BLOCK) {
+            int to = Math.min(from + BLOCK, length);
+            long block = 0;
+            for (int i = from; i < to; i++) {
+                block += amounts[i];
+            }
+            total = Math.addExact(total, block);
+        }
+        return total;
+    }
+}
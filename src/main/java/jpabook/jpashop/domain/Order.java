@@ -5,6 +5,7 @@ import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -13,12 +14,17 @@ import java.util.List;
 import static jakarta.persistence.FetchType.*;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_order_date_id", columnList = "order_date, order_id"), // Keyset 페이징용
+        @Index(name = "idx_orders_status_order_date", columnList = "status, order_date") // 주문 상태 검색용
+})
 @Getter @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Order {
 
-    @Id @GeneratedValue
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq_generator")
+    @SequenceGenerator(name = "orders_seq_generator", sequenceName = "orders_seq", allocationSize = IdGeneration.ALLOCATION_SIZE)
     @Column(name = "order_id")
     private Long id;
 
@@ -27,6 +33,7 @@ public class Order {
     private Member member;
 
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL)
+    @BatchSize(size = BatchFetch.LARGE_SIZE) // 목록 조회 ( V2, V3.1 ) 에서 주문 수 만큼 초기화됨
     private List<OrderItem> orderItems = new ArrayList<>();
 
     @OneToOne(fetch = LAZY, cascade = CascadeType.ALL)
@@ -36,6 +43,15 @@ public class Order {
     private LocalDateTime orderDate; // 주문시
     private OrderStatus status; // 주문상태 [ORDER, CANCEL]
 
+    // 전체 주문 금액 ( 원 단위 ), 주문 생성 시 한 번 계산해서 저장 -> 조회할 때 주문 상품을 읽지 않음
+    @Column(name = "total_amount", nullable = false, updatable = false)
+    @Setter(AccessLevel.NONE)
+    private long totalAmount;
+
+    @Version
+    @Setter(AccessLevel.NONE)
+    private Long version; // 주문 JSON 조각 캐시 키 ( 주문 id + 버전 )
+
     //==연관관계 메서드==//
     public void setMember(Member member) {
         this.member = member;
@@ -62,6 +78,7 @@ public class Order {
         }
         order.setStatus(OrderStatus.ORDER);
         order.setOrderDate(LocalDateTime.now());
+        order.totalAmount = calculateTotalAmount(orderItems);
         return order;
     }
 
@@ -79,17 +96,20 @@ public class Order {
         }
     }
 
+    private static long calculateTotalAmount(OrderItem... orderItems) {
+        long totalAmount = 0;
+        for (OrderItem orderItem : orderItems) {
+            totalAmount = Money.add(totalAmount, orderItem.getTotalPrice());
+        }
+        return Money.checkAmount(totalAmount);
+    }
+
     //==조회 로직==//
     /**
-     * 전체 주문 가격 조회
+     * 전체 주문 가격 조회 ( 저장된 total_amount, 주문 상품을 읽지 않음 )
      */
-
-    public int getTotalPrice() {
-        int totalPrice = 0;
-        for (OrderItem orderItem : orderItems) {
-            totalPrice += orderItem.getTotalPrice();
-        }
-        return totalPrice;
+    public long getTotalPrice() {
+        return totalAmount;
     }
 
 }
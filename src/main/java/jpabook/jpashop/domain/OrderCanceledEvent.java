@@ -0,0 +1,14 @@
+package jpabook.jpashop.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 주문 취소 이벤트
+ */
+@Getter
+@AllArgsConstructor
+public class OrderCanceledEvent {
+
+    private final Long orderId;
+}
@@ -14,7 +14,9 @@ import static jakarta.persistence.FetchType.*;
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class OrderItem {
 
-    @Id @GeneratedValue
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_item_seq_generator")
+    @SequenceGenerator(name = "order_item_seq_generator", sequenceName = "order_item_seq", allocationSize = IdGeneration.ALLOCATION_SIZE)
     @Column(name = "order_item_id")
     private Long id;
 
@@ -50,9 +52,9 @@ public class OrderItem {
     //==조회 로직==//
 
     /**
-     * 주문 상품 전체 가격 조회
+     * 주문 상품 전체 가격 조회 ( 원 단위 long, int 곱셈으로 넘치지 않음 )
      */
-    public int getTotalPrice() {
-        return getOrderPrice() * getCount();
+    public long getTotalPrice() {
+        return Money.multiply(getOrderPrice(), getCount());
     }
 }
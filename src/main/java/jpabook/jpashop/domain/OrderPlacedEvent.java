@@ -0,0 +1,21 @@
+package jpabook.jpashop.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 주문 생성 이벤트 ( 대량 등록은 청크의 주문을 한 번에 )
+ * 주문 요약 ( OrderSummary ) 은 같은 트랜잭션의 커밋 직전에 갱신됨
+ */
+@Getter
+@AllArgsConstructor
+public class OrderPlacedEvent {
+
+    private final List<Long> orderIds;
+
+    public static OrderPlacedEvent of(Long orderId) {
+        return new OrderPlacedEvent(List.of(orderId));
+    }
+}
@@ -0,0 +1,39 @@
+package jpabook.jpashop.domain;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 주문 요약 ( 조회 전용 모델, 주문 하나당 한 row )
+ * 목록 조회에서 orders / member / delivery / order_item 을 매번 조인하지 않도록 미리 펼쳐서 저장
+ * 주문 / 취소 / 회원 이름 변경 트랜잭션 안에서 OrderSummaryProjector 가 갱신하고, 그 외에는 변경하지 않음
+ */
+@Entity
+@Table(name = "order_summary", indexes = {
+        @Index(name = "idx_order_summary_order_date_id", columnList = "order_date, order_id"), // Keyset 페이징용
+        @Index(name = "idx_order_summary_member_id", columnList = "member_id") // 회원 이름 변경
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class OrderSummary {
+
+    @Id
+    @Column(name = "order_id")
+    private Long orderId; // orders.order_id 와 같은 값
+
+    private Long memberId;
+    private String memberName;
+
+    @Embedded
+    private Address address; // 배송지
+
+    private LocalDateTime orderDate;
+    private OrderStatus status; // orders.status 와 같은 형식 ( insert-select 로 그대로 복사 )
+
+    private int itemCount; // 주문 상품 종류 수
+    private long totalPrice; // Order.getTotalPrice() ( orders.total_amount )
+}
@@ -0,0 +1,49 @@
+package jpabook.jpashop.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 대량 주문 등록 결과
+ * 실패한 줄은 MAX_FAILURES 개까지만 담고, 나머지는 건수만 셈
+ */
+@Getter
+public class BulkOrderResult {
+
+    private static final int MAX_FAILURES = 1000;
+
+    private long total;
+    private long succeeded;
+    private long failed;
+    private long elapsedMillis;
+    private double ordersPerSecond;
+    private final List<Failure> failures = new ArrayList<>();
+
+    public void success(int count) {
+        total += count;
+        succeeded += count;
+    }
+
+    public void fail(long lineNumber, String reason) {
+        total++;
+        failed++;
+        if (failures.size() < MAX_FAILURES) {
+            failures.add(new Failure(lineNumber, reason));
+        }
+    }
+
+    public void finish(long elapsedNanos) {
+        this.elapsedMillis = elapsedNanos / 1_000_000;
+        this.ordersPerSecond = elapsedNanos == 0 ? 0 : succeeded * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Failure {
+        private long lineNumber;
+        private String reason;
+    }
+}
@@ -0,0 +1,16 @@
+package jpabook.jpashop.dto;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor @NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class CursorResult<T> {
+
+    private List<T> data;
+    private String nextCursor; // 다음 페이지가 없으면 null
+}
@@ -0,0 +1,17 @@
+package jpabook.jpashop.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+@Getter
+@AllArgsConstructor
+public class DailySalesDto {
+
+    private LocalDate salesDate;
+    private long orderCount; // 취소 주문 포함
+    private long canceledOrderCount;
+    private long units; // 취소분 제외
+    private long revenue; // 취소분 제외
+}
@@ -0,0 +1,24 @@
+package jpabook.jpashop.dto;
+
+import jpabook.jpashop.domain.Item.Item;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * 상품 목록 ( 캐시 ) 용 DTO - 상품 목록 화면, 주문 화면 select
+ */
+@Getter
+@EqualsAndHashCode
+@AllArgsConstructor
+public class ItemSummaryDto {
+
+    private final Long id;
+    private final String name;
+    private final int price;
+    private final int stockQuantity;
+
+    public ItemSummaryDto(Item item) {
+        this(item.getId(), item.getName(), item.getPrice(), item.getStockQuantity());
+    }
+}
@@ -0,0 +1,38 @@
+package jpabook.jpashop.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * 캐시되는 목록 한 벌 + ETag
+ * ETag 는 내용으로 만들기 때문에 캐시가 다시 채워져도 ( 다른 서버에서 채워도 ) 내용이 같으면 클라이언트는 304 를 받음
+ * hashCode ( 32 비트 ) 는 내용이 달라도 같을 수 있어서 ( 304 로 바뀐 목록을 못 받음 ) 직렬화한 JSON 의 SHA-256 을 씀
+ */
+@Getter
+public class ListingSnapshot<T> {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final List<T> data;
+    private final String etag;
+
+    public ListingSnapshot(List<T> data) {
+        this.data = List.copyOf(data);
+        this.etag = "\"" + sha256(this.data) + "\"";
+    }
+
+    private static String sha256(List<?> data) {
+        try {
+            byte[] json = OBJECT_MAPPER.writeValueAsBytes(data);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
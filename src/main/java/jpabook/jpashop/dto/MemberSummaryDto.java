@@ -0,0 +1,22 @@
+package jpabook.jpashop.dto;
+
+import jpabook.jpashop.domain.Member;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * 회원 목록 ( 캐시 ) 용 DTO - 주문 화면 select, /api/v2/members
+ */
+@Getter
+@EqualsAndHashCode
+@AllArgsConstructor
+public class MemberSummaryDto {
+
+    private final Long id;
+    private final String name;
+
+    public MemberSummaryDto(Member member) {
+        this(member.getId(), member.getName());
+    }
+}
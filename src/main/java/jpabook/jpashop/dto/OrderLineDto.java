@@ -0,0 +1,19 @@
+package jpabook.jpashop.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter @Setter
+@AllArgsConstructor @NoArgsConstructor
+public class OrderLineDto {
+
+    @NotNull
+    private Long itemId;
+
+    @Positive
+    private int count;
+}
@@ -0,0 +1,32 @@
+package jpabook.jpashop.dto;
+
+import jpabook.jpashop.domain.Order;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 주문 검색 결과 페이지
+ * totalCount 는 최대 COUNT_LIMIT 까지만 세고, 넘으면 totalCountCapped = true ( 화면에는 "10000+" 처럼 표시 )
+ */
+@Getter
+@AllArgsConstructor
+public class OrderSearchPage {
+
+    public static final int COUNT_LIMIT = 10_000;
+
+    private List<Order> content;
+    private int page;
+    private int size;
+    private long totalCount;
+    private boolean totalCountCapped;
+
+    public boolean hasPrevious() {
+        return page > 0;
+    }
+
+    public boolean hasNext() {
+        return (long) (page + 1) * size < totalCount;
+    }
+}
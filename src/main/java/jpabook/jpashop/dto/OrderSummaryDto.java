@@ -0,0 +1,30 @@
+package jpabook.jpashop.dto;
+
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.domain.OrderSummary;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+public class OrderSummaryDto {
+
+    private Long orderId;
+    private String name;
+    private LocalDateTime orderDate;
+    private OrderStatus orderStatus;
+    private Address address;
+    private int itemCount;
+    private long totalPrice;
+
+    public OrderSummaryDto(OrderSummary summary) {
+        orderId = summary.getOrderId();
+        name = summary.getMemberName();
+        orderDate = summary.getOrderDate();
+        orderStatus = summary.getStatus();
+        address = summary.getAddress();
+        itemCount = summary.getItemCount();
+        totalPrice = summary.getTotalPrice();
+    }
+}
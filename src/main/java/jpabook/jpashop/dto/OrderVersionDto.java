@@ -0,0 +1,12 @@
+package jpabook.jpashop.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class OrderVersionDto {
+
+    private Long orderId;
+    private Long version;
+}
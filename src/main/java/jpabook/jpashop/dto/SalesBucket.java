@@ -0,0 +1,22 @@
+package jpabook.jpashop.dto;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * 매출 집계 시간 단위
+ */
+public enum SalesBucket {
+
+    DAY, WEEK, MONTH;
+
+    // day 가 속한 버킷의 시작일 ( 주는 월요일부터 )
+    public LocalDate start(LocalDate day) {
+        return switch (this) {
+            case DAY -> day;
+            case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> day.withDayOfMonth(1);
+        };
+    }
+}
@@ -0,0 +1,61 @@
+package jpabook.jpashop.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 매출 리포트 ( 기간 [from, to) )
+ * 매출 / 판매 수량은 취소되지 않은 주문만, 취소율 = 취소 주문 수 / 주문 수
+ * 카테고리 값은 카테고리에 속한 상품의 합 ( 한 주문에 같은 카테고리 상품이 여러 개면 주문 수는 상품마다 셈 )
+ */
+@Getter
+@AllArgsConstructor
+public class SalesReport {
+
+    private LocalDate from;
+    private LocalDate to;
+    private SalesBucket bucket;
+    private Sales total;
+    private List<ItemSales> items; // 매출 순
+    private List<CategorySales> categories; // 매출 순
+    private List<PeriodSales> periods; // 시간 순
+
+    @Getter
+    @AllArgsConstructor
+    public static class Sales {
+        private long revenue;
+        private long units;
+        private long orders;
+        private long canceledOrders;
+
+        public double getCancellationRate() {
+            return orders == 0 ? 0 : (double) canceledOrders / orders;
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class ItemSales {
+        private Long itemId;
+        private String name;
+        private Sales sales;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class CategorySales {
+        private Long categoryId;
+        private String name;
+        private Sales sales;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class PeriodSales {
+        private LocalDate start; // 기간 시작과 겹치는 첫 버킷은 from 부터
+        private Sales sales;
+    }
+}
@@ -0,0 +1,18 @@
+package jpabook.jpashop.monitoring;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 요청 한 번에 실행될 수 있는 최대 SQL 수
+ * 초과하면 운영에서는 메트릭 ( jpashop.sql.budget.exceeded ) 과 경고 로그,
+ * jpashop.sql.budget.fail-on-exceed=true ( 테스트 ) 면 응답을 쓰기 전에 QueryBudgetExceededException ( QueryBudgetResponseBodyAdvice )
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+
+    int value();
+}
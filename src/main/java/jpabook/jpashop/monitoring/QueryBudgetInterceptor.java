@@ -0,0 +1,83 @@
+package jpabook.jpashop.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 요청 단위 SQL 통계 수집 + @QueryBudget 초과 메트릭 / 경고 로그
+ * 초과 시 요청을 실패시키는 것 ( fail-on-exceed ) 은 응답을 쓰기 전에 검사해야 해서 QueryBudgetResponseBodyAdvice 에서 함
+ * 통계는 요청 attribute ( ATTRIBUTE ) 로도 남겨서 테스트에서 MockMvc 결과로 꺼내볼 수 있음
+ */
+@Slf4j
+@Component
+public class QueryBudgetInterceptor implements AsyncHandlerInterceptor {
+
+    public static final String ATTRIBUTE = QueryStatistics.class.getName();
+    private static final String ASYNC_ATTRIBUTE = ATTRIBUTE + ".ASYNC";
+
+    private final MeterRegistry meterRegistry;
+
+    public QueryBudgetInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // 비동기 요청이 끝나고 다시 디스패치되면 처음 디스패치에서 시작한 통계를 이어서 씀
+        QueryStatistics started = (QueryStatistics) request.getAttribute(ASYNC_ATTRIBUTE);
+        if (started != null) {
+            request.removeAttribute(ASYNC_ATTRIBUTE);
+            QueryStatisticsHolder.restore(started);
+        } else {
+            QueryStatisticsHolder.start();
+        }
+        return true;
+    }
+
+    // 비동기 처리가 시작되면 이 스레드에서는 postHandle / afterCompletion 이 호출되지 않음
+    // -> 컨테이너 스레드에 통계가 남지 않도록 요청 attribute 로 옮겨두고 비동기 디스패치의 preHandle 에서 복원
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        QueryStatistics statistics = QueryStatisticsHolder.finish();
+        if (statistics != null) {
+            request.setAttribute(ASYNC_ATTRIBUTE, statistics);
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        QueryStatistics statistics = QueryStatisticsHolder.finish();
+        if (statistics == null || !(handler instanceof HandlerMethod handlerMethod)) {
+            return;
+        }
+        request.setAttribute(ATTRIBUTE, statistics);
+
+        String handlerName = handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+        meterRegistry.summary("jpashop.sql.statements", "handler", handlerName).record(statistics.getStatementCount());
+        meterRegistry.summary("jpashop.sql.rows", "handler", handlerName).record(statistics.getRowCount());
+        meterRegistry.timer("jpashop.sql.time", "handler", handlerName)
+                .record(statistics.getElapsedNanos(), TimeUnit.NANOSECONDS);
+
+        if (!statistics.getRepeatedStatements().isEmpty()) {
+            meterRegistry.counter("jpashop.sql.repeated", "handler", handlerName).increment();
+            log.warn("N + 1 의심 {} : {}", handlerName, statistics.getRepeatedStatements());
+        }
+
+        QueryBudget budget = budgetOf(handler);
+        if (budget != null && statistics.getStatementCount() > budget.value()) {
+            meterRegistry.counter("jpashop.sql.budget.exceeded", "handler", handlerName).increment();
+            log.warn("SQL 예산 초과 {} : {} 번 실행 ( 예산 {} 번 )", handlerName, statistics.getStatementCount(), budget.value());
+        }
+    }
+
+    private QueryBudget budgetOf(Object handler) {
+        return handler instanceof HandlerMethod handlerMethod ? handlerMethod.getMethodAnnotation(QueryBudget.class) : null;
+    }
+}
@@ -0,0 +1,46 @@
+package jpabook.jpashop.monitoring;
+
+import jpabook.jpashop.exception.QueryBudgetExceededException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * jpashop.sql.budget.fail-on-exceed=true 일 때 @QueryBudget 검사
+ * @ResponseBody 는 핸들러 리턴 직후 바로 직렬화해서 써버리므로 postHandle 에서는 이미 응답이 커밋된 뒤일 수 있음
+ * -> 응답 본문을 쓰기 직전에 검사해야 200 대신 오류 응답이 나감
+ * 예산을 건 API 는 모두 DTO 를 리턴해서 직렬화 중에 지연 로딩 SQL 이 없음 ( 직렬화 중 SQL 은 afterCompletion 의 메트릭에만 잡힘 )
+ */
+@ControllerAdvice
+public class QueryBudgetResponseBodyAdvice implements ResponseBodyAdvice<Object> {
+
+    private final boolean failOnExceed;
+
+    public QueryBudgetResponseBodyAdvice(@Value("${jpashop.sql.budget.fail-on-exceed:false}") boolean failOnExceed) {
+        this.failOnExceed = failOnExceed;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return failOnExceed && returnType.hasMethodAnnotation(QueryBudget.class);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        QueryStatistics statistics = QueryStatisticsHolder.current();
+        QueryBudget budget = returnType.getMethodAnnotation(QueryBudget.class);
+        if (statistics == null || budget == null || statistics.getStatementCount() <= budget.value()) {
+            return body;
+        }
+        throw new QueryBudgetExceededException(String.format("%s %s : SQL %d 번 실행 ( 예산 %d 번 ), N + 1 의심 %s",
+                request.getMethod(), request.getURI().getPath(), statistics.getStatementCount(), budget.value(),
+                statistics.getRepeatedStatements()));
+    }
+}
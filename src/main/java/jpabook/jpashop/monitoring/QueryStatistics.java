@@ -0,0 +1,60 @@
+package jpabook.jpashop.monitoring;
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 요청 하나에서 실행된 SQL 통계
+ * 같은 select 문이 바인딩 값만 바뀌어서 여러 번 실행되면 N + 1 의심 쿼리로 기록
+ * fan-out 청크 등 같은 요청의 다른 스레드에서도 기록하므로 기록은 synchronized
+ * ( 읽는 쪽은 다른 스레드 작업이 끝난 뒤 ( join ) 에 읽음 )
+ */
+@Getter
+public class QueryStatistics {
+
+    private int statementCount;
+    private long elapsedNanos;
+    private long rowCount;
+
+    private final Map<String, Integer> executions = new HashMap<>();
+    private final Map<String, String> firstBindings = new HashMap<>();
+    private final Set<String> repeatedStatements = new LinkedHashSet<>();
+
+    synchronized void record(String sql, String sqlWithValues, long elapsedNanos) {
+        this.statementCount++;
+        this.elapsedNanos += elapsedNanos;
+        executions.merge(sql, 1, Integer::sum);
+
+        if (isSelect(sql)) {
+            String first = firstBindings.putIfAbsent(sql, sqlWithValues);
+            if (first != null && !first.equals(sqlWithValues)) {
+                repeatedStatements.add(sql);
+            }
+        }
+    }
+
+    synchronized void recordRow() {
+        this.rowCount++;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    public int getExecutionCount(String sql) {
+        return executions.getOrDefault(sql, 0);
+    }
+
+    public Set<String> getRepeatedStatements() {
+        return Collections.unmodifiableSet(repeatedStatements);
+    }
+
+    private boolean isSelect(String sql) {
+        return sql != null && sql.stripLeading().regionMatches(true, 0, "select", 0, 6);
+    }
+}
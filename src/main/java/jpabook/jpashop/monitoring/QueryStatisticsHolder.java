@@ -0,0 +1,36 @@
+package jpabook.jpashop.monitoring;
+
+/**
+ * 현재 요청 ( 스레드 ) 의 SQL 통계
+ * 통계를 시작하지 않은 스레드 ( 배치, 스케줄러 등 ) 에서는 아무것도 기록하지 않음
+ */
+public final class QueryStatisticsHolder {
+
+    private static final ThreadLocal<QueryStatistics> CURRENT = new ThreadLocal<>();
+
+    private QueryStatisticsHolder() {
+    }
+
+    public static void start() {
+        CURRENT.set(new QueryStatistics());
+    }
+
+    public static QueryStatistics current() {
+        return CURRENT.get();
+    }
+
+    // 다른 스레드에서 같은 요청의 통계에 기록할 때 사용 ( RequestThreadContext )
+    public static void restore(QueryStatistics statistics) {
+        if (statistics == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(statistics);
+        }
+    }
+
+    public static QueryStatistics finish() {
+        QueryStatistics statistics = CURRENT.get();
+        CURRENT.remove();
+        return statistics;
+    }
+}
@@ -0,0 +1,32 @@
+package jpabook.jpashop.monitoring;
+
+import com.p6spy.engine.common.ResultSetInformation;
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+
+/**
+ * p6spy 이벤트로 SQL 실행 수, DB 시간, 조회 row 수 수집
+ * p6spy-spring-boot-starter 가 JdbcEventListener 빈을 자동으로 등록해줌
+ */
+@Component
+public class QueryStatisticsListener extends SimpleJdbcEventListener {
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        QueryStatistics statistics = QueryStatisticsHolder.current();
+        if (statistics != null) {
+            statistics.record(statementInformation.getSql(), statementInformation.getSqlWithValues(), timeElapsedNanos);
+        }
+    }
+
+    @Override
+    public void onAfterResultSetNext(ResultSetInformation resultSetInformation, long timeElapsedNanos, boolean hasNext, SQLException e) {
+        QueryStatistics statistics = QueryStatisticsHolder.current();
+        if (statistics != null && hasNext) {
+            statistics.recordRow();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package jpabook.jpashop.repository;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter @Setter
+public class CatalogSearch {
+
+    private Long categoryId; // 하위 카테고리 상품 포함
+    private Integer minPrice; // 이상
+    private Integer maxPrice; // 이하
+    private CatalogSort sort = CatalogSort.ID;
+}
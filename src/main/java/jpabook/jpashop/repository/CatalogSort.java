@@ -0,0 +1,9 @@
+package jpabook.jpashop.repository;
+
+/**
+ * 상품 목록 정렬
+ * ID 는 PK, PRICE 는 item(price, item_id) 인덱스 순서로 읽음 ( 정렬 작업 없이 limit 만큼만 )
+ */
+public enum CatalogSort {
+    ID, PRICE
+}
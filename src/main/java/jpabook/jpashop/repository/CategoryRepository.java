@@ -0,0 +1,131 @@
+package jpabook.jpashop.repository;
+
+import jakarta.persistence.EntityManager;
+import jpabook.jpashop.domain.Category;
+import jpabook.jpashop.domain.CategoryClosure;
+import jpabook.jpashop.domain.CategoryTreeLock;
+import jpabook.jpashop.domain.Item.Item;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.query.NativeQuery;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * 카테고리 + closure 테이블 저장소
+ * closure 갱신은 insert-select / delete 한 번씩으로 처리 ( 옮기는 서브트리의 크기만큼 엔티티를 읽지 않음 )
+ */
+@Repository
+@RequiredArgsConstructor
+public class CategoryRepository {
+
+    private final EntityManager em;
+    private final PrecompiledQueryRegistry queryRegistry;
+    private final JdbcTemplate jdbcTemplate;
+
+    public void save(Category category) {
+        em.persist(category);
+    }
+
+    public Category findOne(Long id) {
+        return em.find(Category.class, id);
+    }
+
+    /**
+     * 트리 변경 락 - 트랜잭션이 끝날 때까지 다른 트리 변경은 여기서 기다림
+     * 락 row 가 없으면 만들고 있으면 update ( merge ) 하므로 처음 실행할 때도 row 가 하나만 생김
+     */
+    public void lockTree() {
+        em.createNativeQuery("merge into category_tree_lock (lock_id, locked_at) key (lock_id) values (:lockId, current_timestamp)")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(CategoryTreeLock.class)
+                .setParameter("lockId", CategoryTreeLock.ID)
+                .executeUpdate();
+    }
+
+    // 트리 스냅샷용 [id, parentId, name] ( 엔티티를 만들지 않음 )
+    public List<Object[]> findAllNodes() {
+        return em.createQuery("select c.id, p.id, c.name from Category c left join c.parent p", Object[].class)
+                .getResultList();
+    }
+
+    // 새 카테고리의 자기 자신 경로 ( depth 0 )
+    public void insertSelf(Long categoryId) {
+        em.flush();
+        nativeUpdate("insert into category_closure (ancestor_id, descendant_id, depth) values (:categoryId, :categoryId, 0)")
+                .setParameter("categoryId", categoryId)
+                .executeUpdate();
+    }
+
+    /**
+     * 카테고리 ( + 서브트리 ) 를 parentId 밑에 연결
+     * parent 의 조상 ( 자기 포함 ) x 카테고리의 자손 ( 자기 포함 ) 경로를 insert-select 한 번으로 추가
+     */
+    public void linkSubtree(Long categoryId, Long parentId) {
+        em.flush();
+        nativeUpdate("insert into category_closure (ancestor_id, descendant_id, depth)" +
+                " select a.ancestor_id, d.descendant_id, a.depth + d.depth + 1" +
+                " from category_closure a, category_closure d" +
+                " where a.descendant_id = :parentId and d.ancestor_id = :categoryId")
+                .setParameter("parentId", parentId)
+                .setParameter("categoryId", categoryId)
+                .executeUpdate();
+    }
+
+    /**
+     * 카테고리 ( + 서브트리 ) 를 지금 부모에서 떼어냄
+     * 서브트리 밖의 조상 -> 서브트리 안의 자손 경로만 지움 ( 서브트리 안의 경로는 그대로 )
+     */
+    public void unlinkSubtree(Long categoryId) {
+        em.flush();
+        nativeUpdate("delete from category_closure" +
+                " where descendant_id in (select descendant_id from category_closure where ancestor_id = :categoryId)" +
+                " and ancestor_id in (select ancestor_id from category_closure where descendant_id = :categoryId and ancestor_id <> :categoryId)")
+                .setParameter("categoryId", categoryId)
+                .executeUpdate();
+    }
+
+    // closure 전체를 다시 만들 때 ( CategoryService.rebuildClosure )
+    public void deleteAllClosure() {
+        em.createQuery("delete from CategoryClosure").executeUpdate();
+    }
+
+    // [ancestorId, descendantId, depth] 를 JDBC batch 로 insert
+    public void insertAllClosure(List<Object[]> paths) {
+        em.flush();
+        jdbcTemplate.batchUpdate("insert into category_closure (ancestor_id, descendant_id, depth) values (?, ?, ?)", paths);
+    }
+
+    // ancestorId 가 descendantId 의 조상 ( 또는 자기 자신 ) 인지
+    public boolean isAncestorOrSelf(Long ancestorId, Long descendantId) {
+        return !em.createQuery("select cc.depth from CategoryClosure cc" +
+                        " where cc.ancestorId = :ancestorId and cc.descendantId = :descendantId", Integer.class)
+                .setParameter("ancestorId", ancestorId)
+                .setParameter("descendantId", descendantId)
+                .getResultList()
+                .isEmpty();
+    }
+
+    /**
+     * 카테고리와 모든 하위 카테고리의 상품 - 트리 깊이와 상관없이 쿼리 한 번
+     * closure ( ancestor_id, descendant_id ) PK -> category_item -> item
+     */
+    public List<Item> findItemsInSubtree(Long categoryId) {
+        return queryRegistry.createQuery(em, "Category.findItemsInSubtree", Item.class,
+                        templateEm -> templateEm.createQuery(
+                                "select distinct i from Item i" +
+                                        " join i.categories c" +
+                                        " where c.id in (select cc.descendantId from CategoryClosure cc where cc.ancestorId = :categoryId)" +
+                                        " order by i.id", Item.class))
+                .setParameter("categoryId", categoryId)
+                .getResultList();
+    }
+
+    // 2차 캐시 전체가 무효화되지 않도록 영향 받는 테이블을 category_closure 로 지정
+    private NativeQuery<?> nativeUpdate(String sql) {
+        return em.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(CategoryClosure.class);
+    }
+}
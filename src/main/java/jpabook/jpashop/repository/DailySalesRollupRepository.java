@@ -0,0 +1,138 @@
+package jpabook.jpashop.repository;
+
+import jakarta.persistence.EntityManager;
+import jpabook.jpashop.domain.OrderItem;
+import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.dto.DailySalesDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * daily_item_sales ( 일별 / 상품별 롤업 ), daily_sales_dirty_day 저장소
+ * 롤업은 엔티티로 읽어서 더하지 않고 SQL 에서 바로 증감시킴 ( 같은 row 를 동시에 바꿔도 덮어쓰지 않음 )
+ * JPA 와 같은 트랜잭션 / 커넥션을 쓰므로, 쓰기 지연된 주문이 있으면 먼저 flush
+ */
+@Repository
+@RequiredArgsConstructor
+public class DailySalesRollupRepository {
+
+    private static final String ADD_ORDERS =
+            "merge into daily_item_sales t" +
+                    " using (select cast(o.order_date as date) sales_date, oi.item_id item_id, count(*) order_count," +
+                    "               sum(oi.count) units, sum(cast(oi.order_price as bigint) * oi.count) revenue" +
+                    "        from orders o" +
+                    "        join order_item oi on oi.order_id = o.order_id" +
+                    "        where o.order_id in (:orderIds)" +
+                    "        group by cast(o.order_date as date), oi.item_id) s" +
+                    " on t.sales_date = s.sales_date and t.item_id = s.item_id" +
+                    " when matched then update set t.order_count = t.order_count + s.order_count," +
+                    "                              t.units = t.units + s.units," +
+                    "                              t.revenue = t.revenue + s.revenue" +
+                    " when not matched then insert (sales_date, item_id, order_count, canceled_order_count, units, revenue)" +
+                    "                       values (s.sales_date, s.item_id, s.order_count, 0, s.units, s.revenue)";
+
+    private static final String RECOMPUTE_DAY =
+            "insert into daily_item_sales (sales_date, item_id, order_count, canceled_order_count, units, revenue)" +
+                    " select cast(o.order_date as date), oi.item_id, count(*)," +
+                    "        sum(case when o.status = ? then 1 else 0 end)," +
+                    "        sum(case when o.status = ? then 0 else oi.count end)," +
+                    "        sum(case when o.status = ? then 0 else cast(oi.order_price as bigint) * oi.count end)" +
+                    " from orders o" +
+                    " join order_item oi on oi.order_id = o.order_id" +
+                    " where o.order_date >= ? and o.order_date < ?" +
+                    " group by cast(o.order_date as date), oi.item_id";
+
+    private static final RowMapper<DailySalesDto> DAILY_SALES = (rs, rowNum) -> new DailySalesDto(
+            rs.getDate(1).toLocalDate(), rs.getLong(2), rs.getLong(3), rs.getLong(4), rs.getLong(5));
+
+    private static final int CANCEL = OrderStatus.CANCEL.ordinal();
+
+    private final EntityManager em;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /**
+     * 주문의 ( 주문일, 상품 ) 별 주문 수 / 판매 수량 / 매출을 더함, 롤업 row 가 없으면 추가
+     */
+    public int addOrders(List<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+        em.flush();
+        return namedParameterJdbcTemplate.update(ADD_ORDERS, Map.of("orderIds", orderIds));
+    }
+
+    /**
+     * 취소된 주문 상품만큼 판매 수량 / 매출 ( OrderItem.getTotalPrice() ) 을 빼고 취소 주문 수를 더함
+     * 주문 상품 순서대로 update 된 row 수를 리턴 ( 0 이면 롤업 row 가 없음 )
+     */
+    public int[] cancel(LocalDate salesDate, List<OrderItem> orderItems) {
+        List<Object[]> args = orderItems.stream()
+                .map(oi -> new Object[]{oi.getCount(), oi.getTotalPrice(), Date.valueOf(salesDate), oi.getItem().getId()})
+                .toList();
+        return jdbcTemplate.batchUpdate(
+                "update daily_item_sales" +
+                        " set canceled_order_count = canceled_order_count + 1, units = units - ?, revenue = revenue - ?" +
+                        " where sales_date = ? and item_id = ?", args);
+    }
+
+    // 하루치를 지우고 원본 ( orders / order_item ) 에서 다시 계산
+    public int recompute(LocalDate salesDate) {
+        em.flush();
+        jdbcTemplate.update("delete from daily_item_sales where sales_date = ?", Date.valueOf(salesDate));
+        return jdbcTemplate.update(RECOMPUTE_DAY, CANCEL, CANCEL, CANCEL,
+                Timestamp.valueOf(salesDate.atStartOfDay()), Timestamp.valueOf(salesDate.plusDays(1).atStartOfDay()));
+    }
+
+    //== 다시 계산할 날 ==//
+
+    public void markDirty(LocalDate salesDate) {
+        jdbcTemplate.update("merge into daily_sales_dirty_day (sales_date, marked_at) key (sales_date) values (?, current_timestamp)",
+                Date.valueOf(salesDate));
+    }
+
+    // 기간 [from, to) 중 주문이 있는 날을 모두 표시 ( 롤업을 처음 만들 때 / 원본을 직접 고쳤을 때 )
+    public int markDirty(LocalDate from, LocalDate to) {
+        return jdbcTemplate.update("merge into daily_sales_dirty_day (sales_date, marked_at) key (sales_date)" +
+                        " select distinct cast(o.order_date as date), current_timestamp from orders o" +
+                        " where o.order_date >= ? and o.order_date < ?",
+                Timestamp.valueOf(from.atStartOfDay()), Timestamp.valueOf(to.atStartOfDay()));
+    }
+
+    public List<LocalDate> findDirtyDays(LocalDate before, int limit) {
+        return jdbcTemplate.query("select sales_date from daily_sales_dirty_day where sales_date < ? order by sales_date limit ?",
+                (rs, rowNum) -> rs.getDate(1).toLocalDate(), Date.valueOf(before), limit);
+    }
+
+    public void clearDirty(LocalDate salesDate) {
+        jdbcTemplate.update("delete from daily_sales_dirty_day where sales_date = ?", Date.valueOf(salesDate));
+    }
+
+    //== 조회 ( 주문 수가 아니라 일 수 만큼의 row ) ==//
+
+    public List<DailySalesDto> findDailySales(LocalDate from, LocalDate to) {
+        return jdbcTemplate.query("select sales_date, sum(order_count), sum(canceled_order_count), sum(units), sum(revenue)" +
+                        " from daily_item_sales" +
+                        " where sales_date >= ? and sales_date < ?" +
+                        " group by sales_date" +
+                        " order by sales_date",
+                DAILY_SALES, Date.valueOf(from), Date.valueOf(to));
+    }
+
+    public List<DailySalesDto> findDailySales(LocalDate from, LocalDate to, Long itemId) {
+        return jdbcTemplate.query("select sales_date, order_count, canceled_order_count, units, revenue" +
+                        " from daily_item_sales" +
+                        " where item_id = ? and sales_date >= ? and sales_date < ?" +
+                        " order by sales_date",
+                DAILY_SALES, itemId, Date.valueOf(from), Date.valueOf(to));
+    }
+}
@@ -0,0 +1,41 @@
+package jpabook.jpashop.repository;
+
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 상품 목록 Keyset 페이징 커서 ( price, item_id )
+ * 정렬이 ID 면 price 는 쓰지 않음
+ * 클라이언트에는 Base64 로 인코딩된 토큰만 노출하고, 내부 구조는 감춘다.
+ */
+@Getter
+public class ItemCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final int price;
+    private final Long itemId;
+
+    public ItemCursor(int price, Long itemId) {
+        this.price = price;
+        this.itemId = itemId;
+    }
+
+    public String encode() {
+        String raw = price + SEPARATOR + itemId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ItemCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            return new ItemCursor(Integer.parseInt(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("잘못된 cursor 입니다.", e);
+        }
+    }
+}
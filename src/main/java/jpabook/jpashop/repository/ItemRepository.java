@@ -1,17 +1,25 @@
 package jpabook.jpashop.repository;
 
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
 import jpabook.jpashop.domain.Item.Item;
+import jpabook.jpashop.dto.ItemSummaryDto;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Repository
 @RequiredArgsConstructor
 public class ItemRepository {
 
     private final EntityManager em;
+    private final PrecompiledQueryRegistry queryRegistry;
 
     public void save(Item item) {
         if (item.getId() == null) {
@@ -27,7 +35,85 @@ public class ItemRepository {
         return em.find(Item.class, id);
     }
 
+    public List<Item> findAllById(Collection<Long> ids) {
+        return em.createQuery("select i from Item i where i.id in :ids", Item.class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
     public List<Item> findAll() {
-        return em.createQuery("select i from Item i", Item.class).getResultList();
+        // 쿼리 캐시 - item 테이블이 변경되면 자동으로 무효화됨
+        return em.createQuery("select i from Item i", Item.class)
+                .setHint(HibernateHints.HINT_CACHEABLE, true)
+                .setHint(HibernateHints.HINT_CACHE_REGION, "query.item.findAll")
+                .getResultList();
+    }
+
+    // 목록 화면 / 주문 화면 select 용 - 표시하는 컬럼만 ( Book / Album / Movie 컬럼, categories 는 읽지 않음 )
+    public List<ItemSummaryDto> findAllSummaries() {
+        return queryRegistry.createQuery(em, "Item.findAllSummaries", ItemSummaryDto.class,
+                        templateEm -> templateEm.createQuery(
+                                "select new jpabook.jpashop.dto.ItemSummaryDto(i.id, i.name, i.price, i.stockQuantity)" +
+                                        " from Item i" +
+                                        " order by i.id", ItemSummaryDto.class))
+                .getResultList();
+    }
+
+    /**
+     * 상품 목록 ( 카탈로그 ) - Keyset 페이징 + DTO 프로젝션
+     * - 정렬 순서 ( item_id / (price, item_id) ) 의 인덱스를 커서 위치부터 limit 만큼만 읽으므로 상품 수, 페이지 깊이와 상관없이 비용이 일정함
+     * - 카테고리는 category_closure 로 하위 카테고리까지 한 번에 거름 ( 상품마다 categories 초기화 x )
+     * - 조건 모양별로 named query 를 한 번만 만들어 재사용
+     */
+    public List<ItemSummaryDto> findCatalog(CatalogSearch search, ItemCursor cursor, int limit) {
+        boolean byPrice = search.getSort() == CatalogSort.PRICE;
+        List<String> conditions = new ArrayList<>();
+        List<String> shape = new ArrayList<>();
+        Map<String, Object> parameters = new HashMap<>();
+
+        //카테고리 ( + 하위 카테고리 ) 검색
+        if (search.getCategoryId() != null) {
+            conditions.add("i.id in (select ci.id from Category c join c.items ci" +
+                    " where c.id in (select cc.descendantId from CategoryClosure cc where cc.ancestorId = :categoryId))");
+            shape.add("category");
+            parameters.put("categoryId", search.getCategoryId());
+        }
+
+        //가격 범위 검색
+        if (search.getMinPrice() != null) {
+            conditions.add("i.price >= :minPrice");
+            shape.add("minPrice");
+            parameters.put("minPrice", search.getMinPrice());
+        }
+        if (search.getMaxPrice() != null) {
+            conditions.add("i.price <= :maxPrice");
+            shape.add("maxPrice");
+            parameters.put("maxPrice", search.getMaxPrice());
+        }
+
+        //커서 다음부터
+        if (cursor != null) {
+            if (byPrice) {
+                conditions.add("(i.price > :cursorPrice or (i.price = :cursorPrice and i.id > :cursorId))");
+                parameters.put("cursorPrice", cursor.getPrice());
+            } else {
+                conditions.add("i.id > :cursorId");
+            }
+            shape.add("cursor");
+            parameters.put("cursorId", cursor.getItemId());
+        }
+
+        String where = conditions.isEmpty() ? "" : " where " + String.join(" and ", conditions);
+        String orderBy = byPrice ? " order by i.price, i.id" : " order by i.id";
+
+        TypedQuery<ItemSummaryDto> query = queryRegistry.createQuery(em,
+                        "Item.findCatalog[" + search.getSort() + "]" + shape, ItemSummaryDto.class,
+                        templateEm -> templateEm.createQuery(
+                                "select new jpabook.jpashop.dto.ItemSummaryDto(i.id, i.name, i.price, i.stockQuantity)" +
+                                        " from Item i" + where + orderBy, ItemSummaryDto.class))
+                .setMaxResults(limit);
+
+        parameters.forEach(query::setParameter);
+        return query.getResultList();
     }
 }
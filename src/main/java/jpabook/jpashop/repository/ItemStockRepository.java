@@ -0,0 +1,60 @@
+package jpabook.jpashop.repository;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * item.stock_quantity 전용 저장소
+ * 재고는 엔티티 변경 감지로 덮어쓰지 않고 ( read-modify-write -> 동시 주문 시 overselling ),
+ * 조건부 update 로 DB 에서 원자적으로 증감시킴
+ */
+@Repository
+@RequiredArgsConstructor
+public class ItemStockRepository {
+
+    private final EntityManager em;
+    private final JdbcTemplate jdbcTemplate;
+
+    // 2차 캐시가 아니라 DB 에서 읽음 ( JPQL 이라 아직 insert 안 된 item 이 있으면 먼저 flush 됨 )
+    public int findStockQuantity(Long itemId) {
+        return em.createQuery("select i.stockQuantity from Item i where i.id = :itemId", Integer.class)
+                .setParameter("itemId", itemId)
+                .getSingleResult();
+    }
+
+    // JDBC update 전에 쓰기 지연된 insert 를 먼저 반영
+    public void flush() {
+        em.flush();
+    }
+
+    /**
+     * 재고 차감 - 재고가 충분한 row 만 차감됨
+     * quantities 순서대로 update 된 row 수를 리턴 ( 0 이면 DB 재고 부족 )
+     */
+    public int[] decreaseAll(Map<Long, Integer> quantities) {
+        List<Object[]> args = quantities.entrySet().stream()
+                .map(e -> new Object[]{e.getValue(), e.getKey(), e.getValue()})
+                .toList();
+        return jdbcTemplate.batchUpdate(
+                "update item set stock_quantity = stock_quantity - ? where item_id = ? and stock_quantity >= ?", args);
+    }
+
+    public void increaseAll(Map<Long, Integer> quantities) {
+        List<Object[]> args = quantities.entrySet().stream()
+                .map(e -> new Object[]{e.getValue(), e.getKey()})
+                .toList();
+        jdbcTemplate.batchUpdate("update item set stock_quantity = stock_quantity + ? where item_id = ?", args);
+    }
+
+    public void overwriteAll(Map<Long, Integer> quantities) {
+        List<Object[]> args = quantities.entrySet().stream()
+                .map(e -> new Object[]{e.getValue(), e.getKey()})
+                .toList();
+        jdbcTemplate.batchUpdate("update item set stock_quantity = ? where item_id = ?", args);
+    }
+}
@@ -0,0 +1,28 @@
+package jpabook.jpashop.repository;
+
+import java.util.Arrays;
+
+/**
+ * 조회 결과 한 컬럼을 long 배열로 모음 ( 행마다 객체를 만들지 않음 )
+ * values() 의 앞에서 size() 개만 유효
+ */
+public class LongColumn {
+
+    private long[] values = new long[1024];
+    private int size;
+
+    public void add(long value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, values.length * 2);
+        }
+        values[size++] = value;
+    }
+
+    public long[] values() {
+        return values;
+    }
+
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,130 @@
+package jpabook.jpashop.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jpabook.jpashop.domain.MemberChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 회원 이름 trigram 인덱스 ( 메모리 )
+ * like '%name%' 은 인덱스를 못 타서 member 전체를 훑게 되므로, 부분 문자열 검색은 여기서 회원 id 를 먼저 찾음
+ * 애플리케이션 시작 시 전체를 한 번 읽고, 이후에는 회원 가입 / 수정이 커밋될 때마다 반영
+ * 이 서버에서 커밋된 변경만 반영되므로 서버가 여러 대면 다른 서버에서 가입 / 수정한 회원은 검색되지 않음
+ * -> jpashop.member-name-index.enabled=true ( 단일 서버 ) 일 때만 사용하고, 꺼져 있으면 findIdsContaining 은 항상 null ( like 검색 )
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MemberNameTrigramIndex {
+
+    public static final int GRAM = 3;
+
+    private final EntityManagerFactory emf;
+
+    @Value("${jpashop.member-name-index.enabled:false}")
+    private boolean enabled;
+
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+    private final Map<Long, String> names = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        EntityManager em = emf.createEntityManager();
+        try {
+            List<Object[]> members = em.createQuery("select m.id, m.name from Member m", Object[].class)
+                    .getResultList();
+            members.forEach(row -> put((Long) row[0], (String) row[1]));
+            log.info("회원 이름 trigram 인덱스 생성 members={}", members.size());
+        } finally {
+            em.close();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onMemberChanged(MemberChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        put(event.getMemberId(), event.getName());
+    }
+
+    /**
+     * name 을 포함하는 회원 id
+     * 인덱스를 끈 경우, 인덱스로 찾을 수 없는 검색어 ( GRAM 글자 미만 ) 면 null
+     */
+    public List<Long> findIdsContaining(String name) {
+        String keyword = normalize(name);
+        if (!enabled || keyword.length() < GRAM) {
+            return null;
+        }
+
+        // 가장 짧은 posting 부터 교집합
+        List<Set<Long>> candidates = new ArrayList<>();
+        for (String gram : grams(keyword)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return Collections.emptyList();
+            }
+            candidates.add(ids);
+        }
+        candidates.sort((a, b) -> Integer.compare(a.size(), b.size()));
+
+        List<Long> result = new ArrayList<>();
+        for (Long id : candidates.get(0)) {
+            String memberName = names.get(id);
+            // trigram 이 모두 있어도 순서가 다를 수 있으므로 실제 문자열로 확인
+            if (memberName != null && normalize(memberName).contains(keyword)) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
+    private synchronized void put(Long memberId, String name) {
+        if (name == null) {
+            return;
+        }
+        String previous = names.put(memberId, name);
+        if (previous != null) {
+            for (String gram : grams(normalize(previous))) {
+                Set<Long> ids = postings.get(gram);
+                if (ids != null) {
+                    ids.remove(memberId);
+                }
+            }
+        }
+        for (String gram : grams(normalize(name))) {
+            postings.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(memberId);
+        }
+    }
+
+    private Set<String> grams(String value) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private String normalize(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,10 @@
+package jpabook.jpashop.repository;
+
+/**
+ * 회원 이름 검색 방식
+ * EXACT, PREFIX 는 member(name) 인덱스를 탈 수 있음
+ * CONTAINS 는 like '%name%' ( 기본 ), trigram 인덱스를 켰으면 ( 단일 서버 ) 회원을 먼저 찾고 3 글자 미만이면 like 로 검색
+ */
+public enum NameMatchMode {
+    EXACT, PREFIX, CONTAINS
+}
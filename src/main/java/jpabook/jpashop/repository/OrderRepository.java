@@ -4,18 +4,30 @@ import jakarta.persistence.EntityManager;
 import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.*;
 import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.dto.OrderSearchPage;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 import org.springframework.util.StringUtils;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+/**
+ * 동적 검색 쿼리는 조건 모양 ( 주문 상태 / 회원 이름 유무 ) 별로, 정적 쿼리는 하나씩
+ * PrecompiledQueryRegistry 에 named query 로 등록해 두고 재사용함
+ */
 @Repository
 @RequiredArgsConstructor
 public class OrderRepository {
 
+    private static final int MAX_IN_MEMBER_IDS = 1000;
+
     private final EntityManager em;
+    private final MemberNameTrigramIndex memberNameTrigramIndex;
+    private final PrecompiledQueryRegistry queryRegistry;
 
     public void save(Order order) {
         em.persist(order);
@@ -27,12 +39,31 @@ public class OrderRepository {
     }
 
     public List<Order> findAllByString(OrderSearch orderSearch) {
+        boolean hasStatus = orderSearch.getOrderStatus() != null;
+        boolean hasName = StringUtils.hasText(orderSearch.getName());
+
+        TypedQuery<Order> query = queryRegistry.createQuery(em,
+                        "Order.findAllByString" + shape(hasStatus, hasName), Order.class,
+                        templateEm -> templateEm.createQuery(findAllByStringJpql(hasStatus, hasName), Order.class))
+                .setMaxResults(1000);
+
+        if (hasStatus) {
+            query = query.setParameter("status", orderSearch.getOrderStatus());
+        }
+        if (hasName) {
+            query = query.setParameter("name", orderSearch.getName());
+        }
+
+        return query.getResultList();
+    }
+
+    private static String findAllByStringJpql(boolean hasStatus, boolean hasName) {
 
         String jpql = "select o from Order o join o.member m";
         boolean isFirstCondition = true;
 
         //주문 상태 검색
-        if (orderSearch.getOrderStatus() != null) {
+        if (hasStatus) {
             if (isFirstCondition) {
                 jpql += " where";
                 isFirstCondition = false;
@@ -43,7 +74,7 @@ public class OrderRepository {
         }
 
         //회원 이름 검색
-        if (StringUtils.hasText(orderSearch.getName())) {
+        if (hasName) {
             if (isFirstCondition) {
                 jpql += " where";
                 isFirstCondition = false;
@@ -53,24 +84,32 @@ public class OrderRepository {
             jpql += " m.name like :name";
         }
 
-        TypedQuery<Order> query = em.createQuery(jpql, Order.class)
+        return jpql;
+    }
+
+    /**
+     * JPA Criteria
+     * Criteria 트리도 조건 모양별로 한 번만 만들고, 검색어는 파라미터로 바인딩
+     */
+    public List<Order> findAllByCriteria(OrderSearch orderSearch) {
+        boolean hasStatus = orderSearch.getOrderStatus() != null;
+        boolean hasName = StringUtils.hasText(orderSearch.getName());
+
+        TypedQuery<Order> query = queryRegistry.createQuery(em,
+                        "Order.findAllByCriteria" + shape(hasStatus, hasName), Order.class,
+                        templateEm -> templateEm.createQuery(findAllByCriteriaQuery(templateEm.getCriteriaBuilder(), hasStatus, hasName)))
                 .setMaxResults(1000);
 
-        if (orderSearch.getOrderStatus() != null) {
-            query = query.setParameter("status", orderSearch.getOrderStatus());
+        if (hasStatus) {
+            query.setParameter("status", orderSearch.getOrderStatus());
         }
-        if (StringUtils.hasText(orderSearch.getName())) {
-            query = query.setParameter("name", orderSearch.getName());
+        if (hasName) {
+            query.setParameter("name", "%" + orderSearch.getName() + "%");
         }
-
         return query.getResultList();
     }
 
-    /**
-     * JPA Criteria
-     */
-    public List<Order> findAllByCriteria(OrderSearch orderSearch) {
-        CriteriaBuilder cb = em.getCriteriaBuilder();
+    private static CriteriaQuery<Order> findAllByCriteriaQuery(CriteriaBuilder cb, boolean hasStatus, boolean hasName) {
         CriteriaQuery<Order> cq = cb.createQuery(Order.class);
         Root<Order> o = cq.from(Order.class);
         Join<Object, Object> m = o.join("member", JoinType.INNER);
@@ -78,50 +117,189 @@ public class OrderRepository {
         List<Predicate> criteria = new ArrayList<>();
 
         //주문 상태 검색
-        if (orderSearch.getOrderStatus() != null) {
-            Predicate status = cb.equal(o.get("status"), orderSearch.getOrderStatus());
+        if (hasStatus) {
+            Predicate status = cb.equal(o.get("status"), cb.parameter(OrderStatus.class, "status"));
             criteria.add(status);
         }
         //회원 이름 검색
-        if (StringUtils.hasText(orderSearch.getName())) {
+        if (hasName) {
             Predicate name =
-                    cb.like(m.<String>get("name"), "%" + orderSearch.getName() + "%");
+                    cb.like(m.<String>get("name"), cb.parameter(String.class, "name"));
             criteria.add(name);
         }
 
         cq.where(cb.and(criteria.toArray(new Predicate[criteria.size()])));
-        TypedQuery<Order> query = em.createQuery(cq).setMaxResults(1000);
-        return query.getResultList();
+        return cq;
+    }
+
+    // 조건 모양 -> named query 이름 ( 예: [status,name] )
+    private static String shape(boolean hasStatus, boolean hasName) {
+        if (hasStatus && hasName) {
+            return "[status,name]";
+        }
+        if (hasStatus) {
+            return "[status]";
+        }
+        return hasName ? "[name]" : "[]";
+    }
+
+    /**
+     * 주문 검색 ( 페이징 )
+     * 주문 상태는 orders(status, order_date) 인덱스, 회원 이름은 EXACT / PREFIX 면 member(name) 인덱스,
+     * CONTAINS 면 trigram 인덱스로 먼저 찾은 회원 id 로 검색
+     * 1000 건에서 말없이 잘라버리는 대신 페이지 단위로 조회하고, 전체 건수는 COUNT_LIMIT 까지만 셈
+     */
+    public OrderSearchPage search(OrderSearch orderSearch, int page, int size) {
+        return search(orderSearch, page, size, OrderSearchPage.COUNT_LIMIT);
+    }
+
+    OrderSearchPage search(OrderSearch orderSearch, int page, int size, int countLimit) {
+        // page * size 가 int 를 넘으면 음수 offset 이 되므로 long 으로 계산해서 확인
+        long offset = (long) page * size;
+        if (page < 0 || size < 1 || offset > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("잘못된 페이지입니다. page=" + page + ", size=" + size);
+        }
+
+        List<String> conditions = new ArrayList<>();
+        List<String> shape = new ArrayList<>();
+        Map<String, Object> parameters = new HashMap<>();
+
+        //주문 상태 검색
+        if (orderSearch.getOrderStatus() != null) {
+            conditions.add("o.status = :status");
+            shape.add("status");
+            parameters.put("status", orderSearch.getOrderStatus());
+        }
+
+        //회원 이름 검색
+        if (StringUtils.hasText(orderSearch.getName())) {
+            String name = orderSearch.getName().trim();
+            NameMatchMode nameMatchMode = orderSearch.getNameMatchMode() == null ? NameMatchMode.CONTAINS : orderSearch.getNameMatchMode();
+
+            switch (nameMatchMode) {
+                case EXACT -> {
+                    conditions.add("m.name = :name");
+                    shape.add("name=");
+                    parameters.put("name", name);
+                }
+                case PREFIX -> {
+                    conditions.add("m.name like :name escape '!'");
+                    shape.add("name like");
+                    parameters.put("name", escapeLike(name) + "%");
+                }
+                case CONTAINS -> {
+                    List<Long> memberIds = memberNameTrigramIndex.findIdsContaining(name);
+                    if (memberIds == null || memberIds.size() > MAX_IN_MEMBER_IDS) {
+                        // trigram 인덱스를 껐거나 검색어가 짧아서 쓸 수 없는 경우, 걸리는 회원이 너무 많아 in 절이 더 비싼 경우
+                        conditions.add("m.name like :name escape '!'");
+                        shape.add("name like");
+                        parameters.put("name", "%" + escapeLike(name) + "%");
+                    } else if (memberIds.isEmpty()) {
+                        return new OrderSearchPage(List.of(), page, size, 0, false);
+                    } else {
+                        conditions.add("m.id in :memberIds");
+                        shape.add("memberIds");
+                        parameters.put("memberIds", memberIds);
+                    }
+                }
+            }
+        }
+
+        String where = conditions.isEmpty() ? "" : " where " + String.join(" and ", conditions);
+
+        TypedQuery<Order> query = queryRegistry.createQuery(em, "Order.search" + shape, Order.class,
+                        templateEm -> templateEm.createQuery(
+                                "select o from Order o" +
+                                        " join fetch o.member m" +
+                                        " join fetch o.delivery d" + where +
+                                        " order by o.orderDate desc, o.id desc", Order.class))
+                .setFirstResult((int) offset)
+                .setMaxResults(size);
+
+        // count(*) 는 조건에 맞는 row 를 끝까지 세야 하므로, id 만 COUNT_LIMIT + 1 개까지 읽어서 셈
+        TypedQuery<Long> countQuery = queryRegistry.createQuery(em, "Order.searchIds" + shape, Long.class,
+                        templateEm -> templateEm.createQuery(
+                                "select o.id from Order o" +
+                                        " join o.member m" + where, Long.class))
+                .setMaxResults(countLimit + 1);
+
+        parameters.forEach((name, value) -> {
+            query.setParameter(name, value);
+            countQuery.setParameter(name, value);
+        });
+
+        int counted = countQuery.getResultList().size();
+        boolean capped = counted > countLimit;
+
+        return new OrderSearchPage(query.getResultList(), page, size,
+                capped ? countLimit : counted, capped);
+    }
+
+    // like 검색어의 %, _ 를 문자 그대로 검색
+    private static String escapeLike(String value) {
+        return value.replace("!", "!!")
+                .replace("%", "!%")
+                .replace("_", "!_");
     }
 
     // fetch join
     public List<Order> findAllWithMemberDelivery() {
-        return em.createQuery(
-                "select o from Order o" +
-                        " join fetch o.member m" +
-                        " join fetch o.delivery d", Order.class)
+        return queryRegistry.createQuery(em, "Order.findAllWithMemberDelivery", Order.class,
+                        templateEm -> templateEm.createQuery(
+                                "select o from Order o" +
+                                        " join fetch o.member m" +
+                                        " join fetch o.delivery d", Order.class))
                 .getResultList();
     }
 
     //fetch join -> Paging
     public List<Order> findAllWithMemberDelivery(int offset, int limit) {
-        return em.createQuery(
-                        "select o from Order o" +
-                                "  join fetch o.member m" +
-                                "  join fetch o.delivery d", Order.class)
+        return queryRegistry.createQuery(em, "Order.findAllWithMemberDelivery", Order.class,
+                        templateEm -> templateEm.createQuery(
+                                "select o from Order o" +
+                                        " join fetch o.member m" +
+                                        " join fetch o.delivery d", Order.class))
                 .setFirstResult(offset)
                 .setMaxResults(limit)
                 .getResultList();
     }
 
+    //fetch join -> Keyset Paging ( orderDate, order_id 기준 )
+    // offset 만큼 읽고 버리는 게 아니라 인덱스에서 커서 위치부터 바로 읽기 때문에 페이지가 깊어져도 비용이 일정함
+    public List<Order> findAllWithMemberDelivery(OrderCursor cursor, int limit) {
+        boolean hasCursor = cursor != null;
+
+        TypedQuery<Order> query = queryRegistry.createQuery(em,
+                        hasCursor ? "Order.findAllWithMemberDelivery[cursor]" : "Order.findAllWithMemberDelivery[first]", Order.class,
+                        templateEm -> {
+                            String jpql = "select o from Order o" +
+                                    "  join fetch o.member m" +
+                                    "  join fetch o.delivery d";
+                            if (hasCursor) {
+                                jpql += " where o.orderDate > :orderDate" +
+                                        " or (o.orderDate = :orderDate and o.id > :orderId)";
+                            }
+                            jpql += " order by o.orderDate, o.id";
+                            return templateEm.createQuery(jpql, Order.class);
+                        })
+                .setMaxResults(limit);
+
+        if (hasCursor) {
+            query.setParameter("orderDate", cursor.getOrderDate());
+            query.setParameter("orderId", cursor.getOrderId());
+        }
+        return query.getResultList();
+    }
+
     // fetch join - 컬렉션 추가
     public List<Order> findAllWithItem() {
-        return em.createQuery(
-                "select distinct o from Order o" +
-                " join fetch o.member m" +
-                " join fetch o.delivery d" +
-                " join fetch o.orderItems oi" +
-                " join fetch oi.item i", Order.class)
+        return queryRegistry.createQuery(em, "Order.findAllWithItem", Order.class,
+                        templateEm -> templateEm.createQuery(
+                                "select distinct o from Order o" +
+                                        " join fetch o.member m" +
+                                        " join fetch o.delivery d" +
+                                        " join fetch o.orderItems oi" +
+                                        " join fetch oi.item i", Order.class))
                 .getResultList();
     }
 }
@@ -9,4 +9,5 @@ public class OrderSearch {
 
     private String name; // 회원 이름
     private OrderStatus orderStatus; // 주문 상태 [ORDER, COMP]
+    private NameMatchMode nameMatchMode = NameMatchMode.CONTAINS; // 회원 이름 검색 방식 ( 기본은 이전처럼 부분 일치 )
 }
@@ -0,0 +1,112 @@
+package jpabook.jpashop.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.domain.OrderSummary;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.query.NativeQuery;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * order_summary 저장소
+ * 요약 row 는 엔티티로 만들지 않고 insert-select 한 번으로 원본 테이블에서 바로 계산해서 넣음
+ * ( 주문 상품 / 회원 / 배송을 영속성 컨텍스트로 읽어 오지 않음 )
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderSummaryRepository {
+
+    private static final String INSERT_SELECT =
+            "insert into order_summary (order_id, member_id, member_name, city, street, zipcode, order_date, status, item_count, total_price)" +
+                    " select o.order_id, m.member_id, m.name, d.city, d.street, d.zipcode, o.order_date, o.status," +
+                    "        count(oi.order_item_id), o.total_amount" +
+                    " from orders o" +
+                    " join member m on m.member_id = o.member_id" +
+                    " join delivery d on d.delivery_id = o.delivery_id" +
+                    " left join order_item oi on oi.order_id = o.order_id" +
+                    " where o.order_id in (:orderIds)" +
+                    " group by o.order_id, m.member_id, m.name, d.city, d.street, d.zipcode, o.order_date, o.status, o.total_amount";
+
+    private final EntityManager em;
+    private final PrecompiledQueryRegistry queryRegistry;
+
+    /**
+     * 주문 요약 다시 계산 ( 없으면 추가, 있으면 교체 )
+     * 같은 트랜잭션에서 아직 flush 안 된 주문이 있으므로 먼저 flush
+     */
+    public int refresh(List<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+        em.flush();
+
+        em.createQuery("delete from OrderSummary s where s.orderId in :orderIds")
+                .setParameter("orderIds", orderIds)
+                .executeUpdate();
+
+        // 영향 받는 테이블을 order_summary 로 지정 -> 2차 캐시 전체가 무효화되지 않음
+        return em.createNativeQuery(INSERT_SELECT)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(OrderSummary.class)
+                .setParameter("orderIds", orderIds)
+                .executeUpdate();
+    }
+
+    public int updateStatus(Long orderId, OrderStatus status) {
+        return em.createQuery("update OrderSummary s set s.status = :status where s.orderId = :orderId")
+                .setParameter("status", status)
+                .setParameter("orderId", orderId)
+                .executeUpdate();
+    }
+
+    // 회원 이름은 요약마다 복사되어 있으므로 회원의 요약 전체를 바꿈
+    public int updateMemberName(Long memberId, String memberName) {
+        return em.createQuery("update OrderSummary s set s.memberName = :memberName where s.memberId = :memberId")
+                .setParameter("memberName", memberName)
+                .setParameter("memberId", memberId)
+                .executeUpdate();
+    }
+
+    public OrderSummary findOne(Long orderId) {
+        return em.find(OrderSummary.class, orderId);
+    }
+
+    // Keyset Paging ( orderDate, order_id 기준 ), order_summary 한 테이블만 읽음
+    public List<OrderSummary> findAll(OrderCursor cursor, int limit) {
+        boolean hasCursor = cursor != null;
+
+        TypedQuery<OrderSummary> query = queryRegistry.createQuery(em,
+                        hasCursor ? "OrderSummary.findAll[cursor]" : "OrderSummary.findAll[first]", OrderSummary.class,
+                        templateEm -> {
+                            String jpql = "select s from OrderSummary s";
+                            if (hasCursor) {
+                                jpql += " where s.orderDate > :orderDate" +
+                                        " or (s.orderDate = :orderDate and s.orderId > :orderId)";
+                            }
+                            jpql += " order by s.orderDate, s.orderId";
+                            return templateEm.createQuery(jpql, OrderSummary.class);
+                        })
+                .setMaxResults(limit);
+
+        if (hasCursor) {
+            query.setParameter("orderDate", cursor.getOrderDate());
+            query.setParameter("orderId", cursor.getOrderId());
+        }
+        return query.getResultList();
+    }
+
+    // 다시 계산 ( 백필 ) 용 - order_id 순으로 afterOrderId 다음부터 limit 개
+    public List<Long> findOrderIds(Long afterOrderId, int limit) {
+        return queryRegistry.createQuery(em, "OrderSummary.findOrderIds", Long.class,
+                        templateEm -> templateEm.createQuery(
+                                "select o.id from Order o" +
+                                        " where o.id > :afterOrderId" +
+                                        " order by o.id", Long.class))
+                .setParameter("afterOrderId", afterOrderId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
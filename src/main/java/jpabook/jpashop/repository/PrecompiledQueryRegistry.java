@@ -0,0 +1,86 @@
+package jpabook.jpashop.repository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * 미리 만들어 둔 쿼리 ( named query ) 저장소
+ * JPQL 문자열 / Criteria 를 호출마다 새로 만들면 Hibernate 가 매번 파싱, 해석을 다시 하므로
+ * 쿼리 모양 ( 어떤 조건이 붙는지 ) 별로 처음 한 번만 만들어서 named query 로 등록하고, 이후에는 등록된 것을 꺼내 씀
+ *
+ * 메트릭
+ * - jpashop.query.registry{query, result=hit|miss} : 등록된 쿼리 재사용 / 새로 등록
+ * - jpashop.query.plan.cache{result=hit|miss} : Hibernate 쿼리 plan 캐시 ( generate_statistics 필요 )
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PrecompiledQueryRegistry {
+
+    private final EntityManagerFactory emf;
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<String, Counter> hits = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void bindPlanCacheMetrics() {
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        FunctionCounter.builder("jpashop.query.plan.cache", statistics, Statistics::getQueryPlanCacheHitCount)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("jpashop.query.plan.cache", statistics, Statistics::getQueryPlanCacheMissCount)
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    /**
+     * name 으로 등록된 쿼리를 꺼냄, 처음이면 template 으로 만들어서 등록
+     * template 은 등록할 때 한 번만 호출되므로 파라미터 값이 아니라 쿼리 모양만 담아야 함 ( 값은 꺼낸 뒤 setParameter )
+     */
+    public <T> TypedQuery<T> createQuery(EntityManager em, String name, Class<T> resultClass,
+                                         Function<EntityManager, Query> template) {
+        Counter hit = hits.get(name);
+        if (hit == null) {
+            hits.computeIfAbsent(name, n -> register(n, template));
+        } else {
+            hit.increment();
+        }
+        return em.createNamedQuery(name, resultClass);
+    }
+
+    // 트랜잭션에 묶인 EntityManager ( 공유 프록시 ) 가 아니라 등록 전용 EntityManager 로 템플릿을 만듦
+    private Counter register(String name, Function<EntityManager, Query> template) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            emf.addNamedQuery(name, template.apply(em));
+        } finally {
+            em.close();
+        }
+        log.debug("named query 등록 {}", name);
+
+        Counter.builder("jpashop.query.registry")
+                .tag("query", name)
+                .tag("result", "miss")
+                .register(meterRegistry)
+                .increment();
+        return Counter.builder("jpashop.query.registry")
+                .tag("query", name)
+                .tag("result", "hit")
+                .register(meterRegistry);
+    }
+}
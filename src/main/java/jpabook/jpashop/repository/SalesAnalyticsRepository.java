@@ -0,0 +1,107 @@
+package jpabook.jpashop.repository;
+
+import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.service.SalesAccumulator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 매출 집계용 SQL
+ * DB 에서 group by 로 줄인 결과를 DTO 로 만들지 않고 ResultSet 에서 바로 SalesAccumulator 에 더함
+ * orders.status 는 ordinal 로 저장되어 있음
+ */
+@Repository
+@RequiredArgsConstructor
+public class SalesAnalyticsRepository {
+
+    private static final String ITEM_SALES =
+            "select oi.item_id, o.status, count(*), sum(oi.count), sum(cast(oi.order_price as bigint) * oi.count)" +
+                    " from orders o" +
+                    " join order_item oi on oi.order_id = o.order_id" +
+                    " where o.order_date >= ? and o.order_date < ?" +
+                    " group by oi.item_id, o.status";
+
+    private static final String DAILY_SALES =
+            "select cast(o.order_date as date), o.status, count(distinct o.order_id), sum(oi.count), sum(cast(oi.order_price as bigint) * oi.count)" +
+                    " from orders o" +
+                    " join order_item oi on oi.order_id = o.order_id" +
+                    " where o.order_date >= ? and o.order_date < ?" +
+                    " group by cast(o.order_date as date), o.status";
+
+    private static final int CANCEL = OrderStatus.CANCEL.ordinal();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    // [min(item_id), max(item_id)], 상품이 없으면 [0, -1]
+    public long[] findItemIdRange() {
+        return jdbcTemplate.queryForObject("select min(item_id), max(item_id) from item",
+                (rs, rowNum) -> rs.getObject(1) == null ? new long[]{0, -1} : new long[]{rs.getLong(1), rs.getLong(2)});
+    }
+
+    // 상품별 ( 상태별 ) 주문 수, 판매 수량, 매출
+    public void accumulateItemSales(LocalDateTime from, LocalDateTime to, SalesAccumulator accumulator) {
+        jdbcTemplate.query(ITEM_SALES,
+                rs -> {
+                    accumulator.addItem(rs.getLong(1), rs.getInt(2) == CANCEL, rs.getLong(3), rs.getLong(4), rs.getLong(5));
+                },
+                Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    // 일별 ( 상태별 ) 주문 수, 판매 수량, 매출
+    public void accumulateDailySales(LocalDateTime from, LocalDateTime to, SalesAccumulator accumulator) {
+        jdbcTemplate.query(DAILY_SALES,
+                rs -> {
+                    accumulator.addDay(rs.getDate(1).toLocalDate(), rs.getInt(2) == CANCEL, rs.getLong(3), rs.getLong(4), rs.getLong(5));
+                },
+                Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    // 기간 [from, to) 의 취소되지 않은 주문 금액 ( orders.total_amount ) 컬럼
+    public LongColumn findOrderAmounts(LocalDateTime from, LocalDateTime to) {
+        LongColumn amounts = new LongColumn();
+        jdbcTemplate.query("select o.total_amount from orders o where o.order_date >= ? and o.order_date < ? and o.status <> ?",
+                rs -> {
+                    amounts.add(rs.getLong(1));
+                },
+                Timestamp.valueOf(from), Timestamp.valueOf(to), CANCEL);
+        return amounts;
+    }
+
+    // [category_id, item_id] 목록
+    public List<long[]> findCategoryItems() {
+        return jdbcTemplate.query("select category_id, item_id from category_item",
+                (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2)});
+    }
+
+    public Map<Long, String> findItemNames(Collection<Long> itemIds) {
+        Map<Long, String> names = new HashMap<>();
+        if (itemIds.isEmpty()) {
+            return names;
+        }
+        namedParameterJdbcTemplate.query("select item_id, name from item where item_id in (:itemIds)",
+                Map.of("itemIds", itemIds),
+                rs -> {
+                    names.put(rs.getLong(1), rs.getString(2));
+                });
+        return names;
+    }
+
+    public Map<Long, String> findCategoryNames() {
+        Map<Long, String> names = new HashMap<>();
+        jdbcTemplate.query("select category_id, name from category",
+                rs -> {
+                    names.put(rs.getLong(1), rs.getString(2));
+                });
+        return names;
+    }
+}
@@ -0,0 +1,68 @@
+package jpabook.jpashop.repository.order.query;
+
+import jpabook.jpashop.dto.OrderFlatDto;
+import jpabook.jpashop.dto.OrderItemQueryDto;
+import jpabook.jpashop.dto.OrderQueryDto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * OrderFlatDto -> OrderQueryDto 조립기
+ * order_id 로 정렬된 flat row 를 한 번만 훑으면서, order_id 가 바뀔 때마다 이전 주문을 완성시킴
+ * groupingBy 처럼 row 마다 key 객체와 HashMap entry 를 만들지 않고, 결과도 order_id 순서 그대로 나옴
+ * 입력이 order_id 오름차순으로 정렬되어 있어야 함
+ * ( 같은 주문의 row 가 떨어져 있으면 한 주문이 두 번 나오므로, order_id 가 줄어들면 IllegalStateException )
+ */
+public class OrderFlatAssembler {
+
+    private OrderQueryDto current;
+
+    public static List<OrderQueryDto> assemble(List<OrderFlatDto> flats) {
+        OrderFlatAssembler assembler = new OrderFlatAssembler();
+        List<OrderQueryDto> result = new ArrayList<>();
+
+        for (OrderFlatDto flat : flats) {
+            OrderQueryDto completed = assembler.add(flat);
+            if (completed != null) {
+                result.add(completed);
+            }
+        }
+        OrderQueryDto last = assembler.finish();
+        if (last != null) {
+            result.add(last);
+        }
+        return result;
+    }
+
+    /**
+     * row 하나 추가
+     * 이 row 로 인해 이전 주문이 완성되면 완성된 주문을 리턴, 아니면 null
+     */
+    public OrderQueryDto add(OrderFlatDto flat) {
+        OrderQueryDto completed = null;
+
+        if (current != null && flat.getOrderId() < current.getOrderId()) {
+            throw new IllegalStateException("order_id 순으로 정렬된 row 가 아닙니다. "
+                    + current.getOrderId() + " 다음에 " + flat.getOrderId());
+        }
+        if (current == null || !current.getOrderId().equals(flat.getOrderId())) {
+            completed = current;
+            current = new OrderQueryDto(flat.getOrderId(), flat.getName(), flat.getOrderDate(),
+                    flat.getOrderStatus(), flat.getAddress(), new ArrayList<>());
+        }
+        current.getOrderItems().add(new OrderItemQueryDto(flat.getOrderId(), flat.getItemName(),
+                flat.getOrderPrice(), flat.getCount()));
+
+        return completed;
+    }
+
+    /**
+     * 마지막으로 만들고 있던 주문 꺼내기 ( row 가 없었으면 null )
+     */
+    public OrderQueryDto finish() {
+        OrderQueryDto last = current;
+        current = null;
+        return last;
+    }
+}
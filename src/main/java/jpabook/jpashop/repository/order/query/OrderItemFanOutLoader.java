@@ -0,0 +1,213 @@
+package jpabook.jpashop.repository.order.query;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import jpabook.jpashop.datasource.JdbcConcurrencyLimiter;
+import jpabook.jpashop.datasource.RequestThreadContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * id 목록을 CHUNK_SIZE 씩 나눠서 in 쿼리를 동시에 실행하고 결과를 합침
+ * - 청크마다 별도 스레드 ( JDK 21 이상이면 가상 스레드 ) 에서 새 읽기 전용 트랜잭션 = 자기 EntityManager / 커넥션 으로 실행
+ *   ( 공유 EntityManager 프록시는 스레드의 트랜잭션에 묶인 EntityManager 를 쓰므로 query 함수는 그대로 사용 가능 )
+ * - 호출한 스레드는 커넥션을 잡은 채로 청크를 기다림 -> 커넥션이 빌 때까지 기다리는 청크를 만들면 풀 교착
+ *   ( 예: 풀 10 개를 호출 스레드 10 개가 모두 잡고, 각자 fork 한 청크는 커넥션 대기 -> connectionTimeout 후 실패 )
+ *   그래서 지금 놀고 있는 커넥션 수만큼만 fork 하고 ( 최대 maxConcurrency ), 나머지는 호출한 스레드에서 순서대로 실행
+ * - fork 한 청크가 아직 시작하지 않았으면 호출한 스레드가 가져와서 직접 실행 ( 실행기가 밀려도 기다리지 않음 )
+ * - 청크 스레드에는 호출한 요청의 ReadAfterWrite / SQL 통계를 넘김 ( RequestThreadContext )
+ *   -> 쓰기 직후 요청이면 청크도 primary 에서 읽고, 청크의 SQL 도 @QueryBudget 에 포함
+ * - 호출한 쪽이 읽기 전용 트랜잭션이 아니면 ( primary 에서 읽는 중 ) fork 하지 않음 - 청크만 replica 에서 읽지 않도록
+ * - JDBC 동시 실행 수 제한을 켰으면 fork 할 때 허가를 미리 받아서 넘김 ( 못 받으면 호출한 스레드에서 실행 )
+ */
+@Slf4j
+@Component
+public class OrderItemFanOutLoader {
+
+    public static final int CHUNK_SIZE = 500;
+
+    private final AsyncTaskExecutor executor;
+    private final TransactionTemplate readOnly;
+    private final Semaphore permits;
+    private final DataSource dataSource;
+    private final JdbcConcurrencyLimiter limiter; // jpashop.datasource.concurrency-limit.enabled=false 면 null
+
+    @Autowired
+    public OrderItemFanOutLoader(@Qualifier("queryFanOutExecutor") AsyncTaskExecutor executor,
+                                 PlatformTransactionManager transactionManager,
+                                 DataSource dataSource,
+                                 ObjectProvider<JdbcConcurrencyLimiter> limiter,
+                                 @Value("${spring.datasource.hikari.maximum-pool-size:10}") int maximumPoolSize) {
+        this(executor, transactionManager, dataSource, limiter.getIfAvailable(), maximumPoolSize);
+    }
+
+    OrderItemFanOutLoader(AsyncTaskExecutor executor, PlatformTransactionManager transactionManager,
+                          DataSource dataSource, JdbcConcurrencyLimiter limiter, int maximumPoolSize) {
+        this.executor = executor;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.readOnly.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.permits = new Semaphore(maxConcurrency(maximumPoolSize));
+        this.dataSource = dataSource;
+        this.limiter = limiter;
+    }
+
+    // 커넥션 풀의 1/4 까지만 fan-out 에 사용
+    static int maxConcurrency(int maximumPoolSize) {
+        return Math.max(1, maximumPoolSize / 4);
+    }
+
+    /**
+     * ids 가 CHUNK_SIZE 이하면 호출한 스레드에서 한 번에 실행
+     */
+    public <T> List<T> load(List<Long> ids, Function<List<Long>, List<T>> query) {
+        if (ids.size() <= CHUNK_SIZE) {
+            return query.apply(ids);
+        }
+
+        int idle = TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? idleConnections() : 0;
+        RequestThreadContext context = RequestThreadContext.capture();
+        List<ForkedChunk<T>> forked = new ArrayList<>();
+        List<List<Long>> inline = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size()));
+            if (forked.size() < idle && tryAcquire()) {
+                forked.add(fork(chunk, query, context));
+            } else {
+                inline.add(chunk);
+            }
+        }
+
+        List<T> result = new ArrayList<>();
+        try {
+            for (List<Long> chunk : inline) {
+                result.addAll(query.apply(chunk));
+            }
+            for (ForkedChunk<T> chunk : forked) {
+                if (claim(chunk)) {
+                    result.addAll(query.apply(chunk.ids));
+                } else {
+                    result.addAll(chunk.future.join());
+                }
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        } finally {
+            // 예외로 끝나면 아직 시작하지 않은 청크는 실행하지 않도록 가져감
+            forked.forEach(this::claim);
+        }
+        return result;
+    }
+
+    // fan-out 허가 + ( 켜져 있으면 ) JDBC 동시 실행 허가를 기다리지 않고 받음
+    private boolean tryAcquire() {
+        if (!permits.tryAcquire()) {
+            return false;
+        }
+        if (limiter != null && !limiter.tryReserve()) {
+            permits.release();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 호출한 스레드가 청크를 가져감 - 호출한 스레드의 커넥션으로 실행하므로 청크용으로 받은 JDBC 허가는 바로 돌려줌
+     * ( fan-out 허가는 작업 스레드가 끝날 때 돌려줌 )
+     */
+    private boolean claim(ForkedChunk<?> chunk) {
+        if (!chunk.claim()) {
+            return false;
+        }
+        if (limiter != null) {
+            limiter.release();
+        }
+        return true;
+    }
+
+    private <T> ForkedChunk<T> fork(List<Long> ids, Function<List<Long>, List<T>> query, RequestThreadContext context) {
+        ForkedChunk<T> chunk = new ForkedChunk<>(ids);
+        try {
+            chunk.future = CompletableFuture.supplyAsync(() -> {
+                try {
+                    // 호출한 스레드가 이미 가져갔으면 커넥션을 빌리지 않고 끝냄
+                    return chunk.claim() ? context.call(() -> execute(ids, query)) : List.<T>of();
+                } finally {
+                    permits.release();
+                }
+            }, executor);
+        } catch (RuntimeException e) {
+            // 작업 등록 자체가 실패하면 허가를 돌려주고 예외 전파
+            if (limiter != null) {
+                limiter.release();
+            }
+            permits.release();
+            throw e;
+        }
+        return chunk;
+    }
+
+    // 새 읽기 전용 트랜잭션에서 실행, JDBC 동시 실행 수 제한을 켰으면 미리 받은 허가로 커넥션을 가져옴
+    private <T> List<T> execute(List<Long> ids, Function<List<Long>, List<T>> query) {
+        if (limiter == null) {
+            return readOnly.execute(status -> query.apply(ids));
+        }
+        return limiter.withReserved(() -> readOnly.execute(status -> query.apply(ids)));
+    }
+
+    /**
+     * 지금 바로 빌릴 수 있는 커넥션 수 ( 기다리지 않음 )
+     * Hikari 풀을 찾을 수 없거나 아직 시작 전이면 0 -> fork 하지 않고 모두 호출한 스레드에서 실행
+     * replica 라우팅을 쓰면 지금 트랜잭션이 향하는 풀 기준
+     */
+    int idleConnections() {
+        try {
+            if (!dataSource.isWrapperFor(HikariDataSource.class)) {
+                return 0;
+            }
+            HikariPoolMXBean pool = dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+            return pool == null ? 0 : Math.max(0, pool.getIdleConnections() - pool.getThreadsAwaitingConnection());
+        } catch (SQLException e) {
+            log.debug("커넥션 풀 상태를 확인할 수 없어 fan-out 하지 않음", e);
+            return 0;
+        }
+    }
+
+    // fork 한 청크 - 먼저 claim 한 쪽 ( 작업 스레드 / 호출한 스레드 ) 이 실행
+    private static class ForkedChunk<T> {
+
+        private final List<Long> ids;
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        private CompletableFuture<List<T>> future;
+
+        ForkedChunk(List<Long> ids) {
+            this.ids = ids;
+        }
+
+        boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+    }
+}
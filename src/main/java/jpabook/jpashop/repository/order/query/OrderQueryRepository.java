@@ -1,40 +1,101 @@
 package jpabook.jpashop.repository.order.query;
 
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
 import jpabook.jpashop.dto.OrderFlatDto;
 import jpabook.jpashop.dto.OrderItemQueryDto;
 import jpabook.jpashop.dto.OrderQueryDto;
+import jpabook.jpashop.dto.OrderVersionDto;
+import jpabook.jpashop.repository.OrderCursor;
+import jpabook.jpashop.repository.PrecompiledQueryRegistry;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Repository
 @RequiredArgsConstructor
 public class OrderQueryRepository {
 
+    private static final String FLAT_JPQL =
+            "select new jpabook.jpashop.dto.OrderFlatDto(o.id, m.name, o.orderDate, " +
+                    "o.status, d.address, i.name, oi.orderPrice, oi.count)" +
+                    " from Order o" +
+                    " join o.member m" +
+                    " join o.delivery d" +
+                    " join o.orderItems oi" +
+                    " join oi.item i" +
+                    " order by o.id";
+
     private final EntityManager em;
+    private final PrecompiledQueryRegistry queryRegistry;
+    private final OrderItemFanOutLoader orderItemFanOutLoader;
 
     // ToOne 관계 조회
     private List<OrderQueryDto> findOrders() {
-        return em.createQuery(
-                "select new jpabook.jpashop.dto.OrderQueryDto(o.id, m.name, o.orderDate, o.status, d.address)" +
-                " from Order o" +
-                " join o.member m" +
-                " join o.delivery d", OrderQueryDto.class)
+        return queryRegistry.createQuery(em, "OrderQuery.findOrders", OrderQueryDto.class,
+                        templateEm -> templateEm.createQuery(
+                                "select new jpabook.jpashop.dto.OrderQueryDto(o.id, m.name, o.orderDate, o.status, d.address)" +
+                                        " from Order o" +
+                                        " join o.member m" +
+                                        " join o.delivery d", OrderQueryDto.class))
+                .getResultList();
+    }
+
+    // ToOne 관계 조회 - Keyset Paging ( orderDate, order_id 기준 )
+    private List<OrderQueryDto> findOrders(OrderCursor cursor, int limit) {
+        boolean hasCursor = cursor != null;
+
+        TypedQuery<OrderQueryDto> query = queryRegistry.createQuery(em,
+                        hasCursor ? "OrderQuery.findOrders[cursor]" : "OrderQuery.findOrders[first]", OrderQueryDto.class,
+                        templateEm -> {
+                            String jpql = "select new jpabook.jpashop.dto.OrderQueryDto(o.id, m.name, o.orderDate, o.status, d.address)" +
+                                    " from Order o" +
+                                    " join o.member m" +
+                                    " join o.delivery d";
+                            if (hasCursor) {
+                                jpql += " where o.orderDate > :orderDate" +
+                                        " or (o.orderDate = :orderDate and o.id > :orderId)";
+                            }
+                            jpql += " order by o.orderDate, o.id";
+                            return templateEm.createQuery(jpql, OrderQueryDto.class);
+                        })
+                .setMaxResults(limit);
+
+        if (hasCursor) {
+            query.setParameter("orderDate", cursor.getOrderDate());
+            query.setParameter("orderId", cursor.getOrderId());
+        }
+        return query.getResultList();
+    }
+
+    // ToOne 관계 조회 - 지정한 주문만
+    private List<OrderQueryDto> findOrders(List<Long> orderIds) {
+        return queryRegistry.createQuery(em, "OrderQuery.findOrders[ids]", OrderQueryDto.class,
+                        templateEm -> templateEm.createQuery(
+                                "select new jpabook.jpashop.dto.OrderQueryDto(o.id, m.name, o.orderDate, o.status, d.address)" +
+                                        " from Order o" +
+                                        " join o.member m" +
+                                        " join o.delivery d" +
+                                        " where o.id in :orderIds" +
+                                        " order by o.id", OrderQueryDto.class))
+                .setParameter("orderIds", orderIds)
                 .getResultList();
     }
 
     // ToMany 관계 조회
     private List<OrderItemQueryDto> findOrderItems(Long orderId) {
-        return em.createQuery(
-                "select new jpabook.jpashop.dto.OrderItemQueryDto(oi.order.id, i.name, oi.orderPrice, oi.count)" +
-                " from OrderItem oi" +
-                " join oi.item i " +
-                " where oi.order.id = :orderId", OrderItemQueryDto.class)
+        return queryRegistry.createQuery(em, "OrderQuery.findOrderItems", OrderItemQueryDto.class,
+                        templateEm -> templateEm.createQuery(
+                                "select new jpabook.jpashop.dto.OrderItemQueryDto(oi.order.id, i.name, oi.orderPrice, oi.count)" +
+                                        " from OrderItem oi" +
+                                        " join oi.item i " +
+                                        " where oi.order.id = :orderId", OrderItemQueryDto.class))
                 .setParameter("orderId", orderId)
                 .getResultList();
     }
@@ -47,20 +108,24 @@ public class OrderQueryRepository {
     }
 
     // Map 을 사용하여 orderItems 조회
+    // 주문이 많으면 in 쿼리를 청크로 나눠서 동시에 실행 ( OrderItemFanOutLoader )
     private Map<Long, List<OrderItemQueryDto>> findOrderItemMap(List<Long> orderIds) {
 
-        List<OrderItemQueryDto> orderItems = em.createQuery("select new jpabook.jpashop.dto.OrderItemQueryDto(oi.order.id, i.name, oi.orderPrice, oi.count)" +
-                        " from OrderItem oi " +
-                        " join oi.item i" +
-                        " where oi.order.id in :orderIds", OrderItemQueryDto.class)
-                .setParameter("orderIds", orderIds)
-                .getResultList();
+        List<OrderItemQueryDto> orderItems = orderItemFanOutLoader.load(orderIds, this::findOrderItemsIn);
 
         // orderItems 들을 OrderId로 그룹화하여 리턴하면 됨
         return orderItems.stream().collect(Collectors.groupingBy(OrderItemQueryDto::getOrderId));
     }
 
-
+    private List<OrderItemQueryDto> findOrderItemsIn(List<Long> orderIds) {
+        return queryRegistry.createQuery(em, "OrderQuery.findOrderItemMap", OrderItemQueryDto.class,
+                        templateEm -> templateEm.createQuery("select new jpabook.jpashop.dto.OrderItemQueryDto(oi.order.id, i.name, oi.orderPrice, oi.count)" +
+                                " from OrderItem oi " +
+                                " join oi.item i" +
+                                " where oi.order.id in :orderIds", OrderItemQueryDto.class))
+                .setParameter("orderIds", orderIds)
+                .getResultList();
+    }
 
     // JPA 에서 직접 DTO 조회하기 - 쿼리 : 루트 1번, 컬렉션 N 번
     // ToMany 관계는 별도로 조회
@@ -90,15 +155,56 @@ public class OrderQueryRepository {
         return result;
     }
 
+    // 최적화 + Keyset Paging ( 쿼리는 페이지 당 루트 1번, 컬렉션 1번 )
+    public List<OrderQueryDto> findAllByDto_optimization(OrderCursor cursor, int limit) {
+        List<OrderQueryDto> result = findOrders(cursor, limit);
+        if (result.isEmpty()) {
+            return result;
+        }
+
+        Map<Long, List<OrderItemQueryDto>> orderItems = findOrderItemMap(toOrderIds(result));
+        result.forEach(o -> o.setOrderItems(orderItems.get(o.getOrderId())));
+
+        return result;
+    }
+
+    // 최적화 - 지정한 주문만 ( 쿼리는 루트 1번, 컬렉션 1번 )
+    public List<OrderQueryDto> findAllByDto_optimization(List<Long> orderIds) {
+        List<OrderQueryDto> result = findOrders(orderIds);
+        if (result.isEmpty()) {
+            return result;
+        }
+
+        Map<Long, List<OrderItemQueryDto>> orderItems = findOrderItemMap(toOrderIds(result));
+        result.forEach(o -> o.setOrderItems(orderItems.get(o.getOrderId())));
+
+        return result;
+    }
+
+    // 주문 id + 버전만 조회 ( JSON 조각 캐시 키 )
+    public List<OrderVersionDto> findOrderVersions() {
+        return queryRegistry.createQuery(em, "OrderQuery.findOrderVersions", OrderVersionDto.class,
+                        templateEm -> templateEm.createQuery(
+                                "select new jpabook.jpashop.dto.OrderVersionDto(o.id, o.version)" +
+                                        " from Order o" +
+                                        " order by o.id", OrderVersionDto.class))
+                .getResultList();
+    }
+
+    // 같은 주문의 row 가 연속으로 나오도록 order_id 로 정렬 -> OrderFlatAssembler 로 한 번에 조립 가능
     public List<OrderFlatDto> findAllByDto_flat() {
-        return em.createQuery(
-                        "select new jpabook.jpashop.dto.OrderFlatDto(o.id, m.name, o.orderDate, " +
-                                "o.status, d.address, i.name, oi.orderPrice, oi.count)" +
-                                " from Order o" +
-                                " join o.member m" +
-                                " join o.delivery d" +
-                                " join o.orderItems oi" +
-                                " join oi.item i", OrderFlatDto.class)
+        return queryRegistry.createQuery(em, "OrderQuery.findAllByDto_flat", OrderFlatDto.class,
+                        templateEm -> templateEm.createQuery(FLAT_JPQL, OrderFlatDto.class))
                 .getResultList();
     }
+
+    // 전체 내보내기용 - List 로 모으지 않고 fetchSize 단위로 DB 에서 끌어옴
+    // 같은 주문의 row 가 연속으로 나오도록 order_id 로 정렬
+    public Stream<OrderFlatDto> streamAllByDto_flat(int fetchSize) {
+        return queryRegistry.createQuery(em, "OrderQuery.findAllByDto_flat", OrderFlatDto.class,
+                        templateEm -> templateEm.createQuery(FLAT_JPQL, OrderFlatDto.class))
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
 }
@@ -1,6 +1,9 @@
 package jpabook.jpashop.repository.order.simplequery;
 
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jpabook.jpashop.repository.OrderCursor;
+import jpabook.jpashop.repository.PrecompiledQueryRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 
@@ -11,14 +14,41 @@ import java.util.List;
 public class OrderSimpleQueryRepository {
 
     private final EntityManager em;
+    private final PrecompiledQueryRegistry queryRegistry;
 
     // JPA에서 DTO 직접 조회
     public List<OrderSimpleQueryDto> findOrderDtos() {
-        return em.createQuery(
-                "select new jpabook.jpashop.repository.order.simplequery.OrderSimpleQueryDto(o.id, m.name, o.orderDate, o.status, d.address) from Order o" +
-                " join o.member m" +
-                " join o.delivery d", OrderSimpleQueryDto.class)
+        return queryRegistry.createQuery(em, "OrderSimpleQuery.findOrderDtos", OrderSimpleQueryDto.class,
+                        templateEm -> templateEm.createQuery(
+                                "select new jpabook.jpashop.repository.order.simplequery.OrderSimpleQueryDto(o.id, m.name, o.orderDate, o.status, d.address) from Order o" +
+                                        " join o.member m" +
+                                        " join o.delivery d", OrderSimpleQueryDto.class))
                 .getResultList();
     }
 
+    // JPA에서 DTO 직접 조회 - Keyset Paging ( orderDate, order_id 기준 )
+    public List<OrderSimpleQueryDto> findOrderDtos(OrderCursor cursor, int limit) {
+        boolean hasCursor = cursor != null;
+
+        TypedQuery<OrderSimpleQueryDto> query = queryRegistry.createQuery(em,
+                        hasCursor ? "OrderSimpleQuery.findOrderDtos[cursor]" : "OrderSimpleQuery.findOrderDtos[first]", OrderSimpleQueryDto.class,
+                        templateEm -> {
+                            String jpql = "select new jpabook.jpashop.repository.order.simplequery.OrderSimpleQueryDto(o.id, m.name, o.orderDate, o.status, d.address) from Order o" +
+                                    " join o.member m" +
+                                    " join o.delivery d";
+                            if (hasCursor) {
+                                jpql += " where o.orderDate > :orderDate" +
+                                        " or (o.orderDate = :orderDate and o.id > :orderId)";
+                            }
+                            jpql += " order by o.orderDate, o.id";
+                            return templateEm.createQuery(jpql, OrderSimpleQueryDto.class);
+                        })
+                .setMaxResults(limit);
+
+        if (hasCursor) {
+            query.setParameter("orderDate", cursor.getOrderDate());
+            query.setParameter("orderId", cursor.getOrderId());
+        }
+        return query.getResultList();
+    }
 }
@@ -0,0 +1,10 @@
+package jpabook.jpashop.service;
+
+/**
+ * 대량 주문 입력 형식
+ * CSV    - memberId,itemId,count ( 한 줄에 상품 하나, 첫 줄 헤더는 생략 가능 )
+ * NDJSON - {"memberId":1,"orderItems":[{"itemId":2,"count":3}]} ( 한 줄에 주문 하나 )
+ */
+public enum BulkOrderFormat {
+    CSV, NDJSON
+}
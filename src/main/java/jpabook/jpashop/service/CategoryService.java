@@ -0,0 +1,168 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.domain.Category;
+import jpabook.jpashop.domain.CategoryChangedEvent;
+import jpabook.jpashop.domain.Item.Item;
+import jpabook.jpashop.repository.CategoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 카테고리 트리
+ * - category_closure 는 카테고리를 만들거나 옮기는 트랜잭션 안에서 같이 갱신 ( 엔티티 메서드는 SQL 을 실행할 수 없으므로 여기서 )
+ * - 하위 카테고리 상품 조회는 closure 로 쿼리 한 번
+ * - 조상 / 자손 판단은 메모리의 CategoryTreeSnapshot 으로 O(1), 스냅샷은 커밋 이후 다음 조회 때 다시 만듦
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class CategoryService {
+
+    private final CategoryRepository categoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Object snapshotLock = new Object();
+    private volatile CategoryTreeSnapshot snapshot; // null 이면 다음 조회 때 다시 만듦
+
+    // 트리 락 row 를 미리 만들어 둠 ( 처음 트리 변경 두 개가 동시에 row 를 만들다가 키 중복으로 실패하지 않도록 )
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void createTreeLock() {
+        categoryRepository.lockTree();
+    }
+
+    @Transactional
+    public Long create(String name, Long parentId) {
+        Category category = new Category();
+        category.setName(name);
+        if (parentId != null) {
+            categoryRepository.lockTree(); // 부모의 조상 경로를 복사하는 동안 부모가 옮겨지지 않도록
+            findCategory(parentId).addChildCategory(category);
+        }
+        categoryRepository.save(category);
+
+        categoryRepository.insertSelf(category.getId());
+        if (parentId != null) {
+            categoryRepository.linkSubtree(category.getId(), parentId);
+        }
+        eventPublisher.publishEvent(new CategoryChangedEvent(category.getId()));
+        return category.getId();
+    }
+
+    /**
+     * 카테고리 ( + 서브트리 ) 를 parentId 밑으로 옮김, parentId 가 null 이면 루트로
+     * 자기 자신이나 자기 하위 카테고리 밑으로는 옮길 수 없음 ( 순환 )
+     */
+    @Transactional
+    public void move(Long categoryId, Long parentId) {
+        categoryRepository.lockTree(); // 순환 검사 ~ closure 갱신 사이에 다른 이동이 끼어들지 않도록
+        Category category = findCategory(categoryId);
+        Long currentParentId = category.getParent() == null ? null : category.getParent().getId();
+        if (Objects.equals(currentParentId, parentId)) {
+            return;
+        }
+        // 스냅샷은 커밋 전 변경을 모르므로 순환 검사는 closure 로 ( 같은 트랜잭션, 트리 락 이후 커밋된 최신 값 )
+        if (parentId != null && categoryRepository.isAncestorOrSelf(categoryId, parentId)) {
+            throw new IllegalArgumentException("하위 카테고리 밑으로 옮길 수 없습니다. categoryId=" + categoryId + ", parentId=" + parentId);
+        }
+
+        categoryRepository.unlinkSubtree(categoryId);
+        if (parentId == null) {
+            category.getParent().getChild().remove(category);
+            category.setParent(null);
+        } else {
+            findCategory(parentId).addChildCategory(category);
+            categoryRepository.linkSubtree(categoryId, parentId);
+        }
+        eventPublisher.publishEvent(new CategoryChangedEvent(categoryId));
+    }
+
+    @Transactional
+    public void rename(Long categoryId, String name) {
+        findCategory(categoryId).setName(name);
+        eventPublisher.publishEvent(new CategoryChangedEvent(categoryId));
+    }
+
+    /**
+     * closure 전체를 parent_id 로 다시 만듦 ( 기존 데이터 backfill / 복구 )
+     * 스냅샷을 만드는 것과 같은 방법으로 트리를 읽고, 경로는 JDBC batch 로 insert
+     */
+    @Transactional
+    public int rebuildClosure() {
+        categoryRepository.lockTree();
+        CategoryTreeSnapshot tree = CategoryTreeSnapshot.of(categoryRepository.findAllNodes());
+        List<Object[]> paths = new ArrayList<>();
+        for (Long rootId : tree.rootIds()) {
+            for (long descendantId : tree.descendantIds(rootId)) {
+                paths.add(new Object[]{descendantId, descendantId, 0});
+                int depth = 1;
+                for (Long ancestorId : tree.ancestorIds(descendantId)) {
+                    paths.add(new Object[]{ancestorId, descendantId, depth++});
+                }
+            }
+        }
+        categoryRepository.deleteAllClosure();
+        categoryRepository.insertAllClosure(paths);
+        log.info("카테고리 closure 재생성 categories={}, paths={}", tree.size(), paths.size());
+        eventPublisher.publishEvent(new CategoryChangedEvent(null));
+        return paths.size();
+    }
+
+    // 카테고리와 모든 하위 카테고리의 상품
+    public List<Item> findItemsInSubtree(Long categoryId) {
+        return categoryRepository.findItemsInSubtree(categoryId);
+    }
+
+    public Category findOne(Long categoryId) {
+        return categoryRepository.findOne(categoryId);
+    }
+
+    /**
+     * 커밋된 카테고리 트리 스냅샷
+     * 바뀐 뒤 첫 조회만 카테고리 전체를 읽고, 나머지는 volatile 읽기 한 번
+     */
+    public CategoryTreeSnapshot snapshot() {
+        CategoryTreeSnapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (snapshotLock) {
+            if (snapshot == null) {
+                snapshot = CategoryTreeSnapshot.of(categoryRepository.findAllNodes());
+            }
+            return snapshot;
+        }
+    }
+
+    /**
+     * 커밋 이후에만 버림 ( 커밋 전에 버리면 다른 요청이 커밋 전 트리로 다시 만들 수 있음 )
+     * 버리는 중에 만들던 스냅샷이 오래된 트리로 다시 들어오지 않도록 같은 락 안에서 버림
+     */
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // 이미 커밋된 트랜잭션에 참여하지 않도록 ( 클래스의 readOnly 트랜잭션 )
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        synchronized (snapshotLock) {
+            snapshot = null;
+        }
+    }
+
+    private Category findCategory(Long categoryId) {
+        Category category = categoryRepository.findOne(categoryId);
+        if (category == null) {
+            throw new IllegalArgumentException("카테고리가 없습니다. categoryId=" + categoryId);
+        }
+        return category;
+    }
+}
@@ -0,0 +1,177 @@
+package jpabook.jpashop.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 카테고리 트리 스냅샷 ( 불변, 만든 뒤에는 락 없이 여러 스레드가 읽음 )
+ * 노드를 전위 순회 ( pre-order ) 순서로 배열에 담아서
+ * - X 의 자손은 배열에서 [X, X + 서브트리 크기) 연속 구간
+ * - 조상 / 자손 여부는 번호 비교 두 번 ( O(1) )
+ * 카테고리가 바뀌면 고치지 않고 새로 만들어서 통째로 바꿔 끼움 ( CategoryService )
+ */
+public final class CategoryTreeSnapshot {
+
+    public static final CategoryTreeSnapshot EMPTY = of(List.of());
+
+    private final long[] ids;        // 전위 순회 순서
+    private final String[] names;
+    private final int[] parents;     // 부모의 배열 위치, 루트는 -1
+    private final int[] depths;
+    private final int[] ends;        // 서브트리 끝 ( 미포함 )
+    private final Map<Long, Integer> positions;
+
+    private CategoryTreeSnapshot(long[] ids, String[] names, int[] parents, int[] depths, int[] ends, Map<Long, Integer> positions) {
+        this.ids = ids;
+        this.names = names;
+        this.parents = parents;
+        this.depths = depths;
+        this.ends = ends;
+        this.positions = positions;
+    }
+
+    /**
+     * [id, parentId, name] 목록으로 만듦 ( CategoryRepository.findAllNodes )
+     * 루트에서 닿지 않는 노드가 있으면 ( 부모 관계에 순환 ) IllegalStateException
+     */
+    public static CategoryTreeSnapshot of(List<Object[]> nodes) {
+        int size = nodes.size();
+        Map<Long, Object[]> byId = new HashMap<>(size * 2);
+        Map<Long, List<Long>> children = new HashMap<>();
+        List<Long> roots = new ArrayList<>();
+
+        for (Object[] node : nodes) {
+            byId.put((Long) node[0], node);
+        }
+        for (Object[] node : nodes) {
+            Long id = (Long) node[0];
+            Long parentId = (Long) node[1];
+            if (parentId == null || !byId.containsKey(parentId)) {
+                roots.add(id);
+            } else {
+                children.computeIfAbsent(parentId, k -> new ArrayList<>()).add(id);
+            }
+        }
+        roots.sort(null);
+        children.values().forEach(list -> list.sort(null));
+
+        long[] ids = new long[size];
+        String[] names = new String[size];
+        int[] parents = new int[size];
+        int[] depths = new int[size];
+        int[] ends = new int[size];
+        Map<Long, Integer> positions = new HashMap<>(size * 2);
+
+        // 재귀 대신 스택 - 트리가 깊어도 StackOverflowError 없음
+        // 음수 항목은 서브트리를 다 돈 뒤 끝 위치를 기록하는 표시 ( -(위치 + 1) )
+        Deque<long[]> stack = new ArrayDeque<>();
+        for (int i = roots.size() - 1; i >= 0; i--) {
+            stack.push(new long[]{roots.get(i), -1});
+        }
+        int next = 0;
+        while (!stack.isEmpty()) {
+            long[] entry = stack.pop();
+            if (entry[0] < 0) {
+                ends[(int) (-entry[0] - 1)] = next;
+                continue;
+            }
+            long id = entry[0];
+            int parent = (int) entry[1];
+            int position = next++;
+
+            ids[position] = id;
+            names[position] = (String) byId.get(id)[2];
+            parents[position] = parent;
+            depths[position] = parent < 0 ? 0 : depths[parent] + 1;
+            positions.put(id, position);
+
+            stack.push(new long[]{-(position + 1L), 0});
+            List<Long> childIds = children.getOrDefault(id, List.of());
+            for (int i = childIds.size() - 1; i >= 0; i--) {
+                stack.push(new long[]{childIds.get(i), position});
+            }
+        }
+
+        if (next != size) {
+            throw new IllegalStateException("카테고리 부모 관계에 순환이 있습니다. categories=" + size + ", reachable=" + next);
+        }
+        return new CategoryTreeSnapshot(ids, names, parents, depths, ends, positions);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public boolean contains(Long categoryId) {
+        return positions.containsKey(categoryId);
+    }
+
+    // ancestorId 가 descendantId 의 조상이거나 같은 카테고리인지 - O(1)
+    public boolean isAncestorOrSelf(Long ancestorId, Long descendantId) {
+        Integer ancestor = positions.get(ancestorId);
+        Integer descendant = positions.get(descendantId);
+        if (ancestor == null || descendant == null) {
+            return false;
+        }
+        return ancestor <= descendant && descendant < ends[ancestor];
+    }
+
+    // 카테고리 자신 + 모든 하위 카테고리 ( 전위 순회 순서 )
+    public long[] descendantIds(Long categoryId) {
+        int position = position(categoryId);
+        return Arrays.copyOfRange(ids, position, ends[position]);
+    }
+
+    // 부모부터 루트까지
+    public List<Long> ancestorIds(Long categoryId) {
+        List<Long> ancestors = new ArrayList<>();
+        for (int p = parents[position(categoryId)]; p >= 0; p = parents[p]) {
+            ancestors.add(ids[p]);
+        }
+        return ancestors;
+    }
+
+    public Long parentId(Long categoryId) {
+        int parent = parents[position(categoryId)];
+        return parent < 0 ? null : ids[parent];
+    }
+
+    public String name(Long categoryId) {
+        return names[position(categoryId)];
+    }
+
+    public int depth(Long categoryId) {
+        return depths[position(categoryId)];
+    }
+
+    public List<Long> rootIds() {
+        List<Long> roots = new ArrayList<>();
+        for (int p = 0; p < ids.length; p = ends[p]) {
+            roots.add(ids[p]);
+        }
+        return roots;
+    }
+
+    // 바로 아래 자식 ( 자식 서브트리를 건너뛰면서 )
+    public List<Long> childIds(Long categoryId) {
+        int position = position(categoryId);
+        List<Long> children = new ArrayList<>();
+        for (int p = position + 1; p < ends[position]; p = ends[p]) {
+            children.add(ids[p]);
+        }
+        return children;
+    }
+
+    private int position(Long categoryId) {
+        Integer position = positions.get(categoryId);
+        if (position == null) {
+            throw new IllegalArgumentException("카테고리가 없습니다. categoryId=" + categoryId);
+        }
+        return position;
+    }
+}
@@ -0,0 +1,57 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.repository.DailySalesRollupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 다시 계산할 날 ( daily_sales_dirty_day ) 만 롤업을 원본에서 다시 계산
+ * 하루씩 트랜잭션 하나로 지우고 다시 넣은 뒤 표시를 지움
+ * 오늘은 주문이 계속 들어와서 다시 계산하는 동안 들어온 주문과 섞일 수 있으므로 다음 날 처리
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DailySalesRepairJob {
+
+    private static final int BATCH_DAYS = 100;
+
+    private final DailySalesRollupRepository dailySalesRollupRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Scheduled(fixedDelayString = "${jpashop.daily-sales.repair-interval-millis:60000}")
+    public void repairDirtyDays() {
+        int repaired = repairDirtyDays(LocalDate.now());
+        if (repaired > 0) {
+            log.info("일별 매출 롤업 다시 계산 days={}", repaired);
+        }
+    }
+
+    // before 이전의 다시 계산할 날을 모두 처리하고 처리한 날 수를 리턴
+    public int repairDirtyDays(LocalDate before) {
+        int repaired = 0;
+        List<LocalDate> days;
+        do {
+            days = transactionTemplate.execute(status -> dailySalesRollupRepository.findDirtyDays(before, BATCH_DAYS));
+            for (LocalDate day : days) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    dailySalesRollupRepository.recompute(day);
+                    dailySalesRollupRepository.clearDirty(day);
+                });
+                repaired++;
+            }
+        } while (days.size() == BATCH_DAYS);
+        return repaired;
+    }
+
+    // 기간 [from, to) 의 주문이 있는 날을 다시 계산할 날로 표시 ( 롤업 백필 )
+    public int markDirty(LocalDate from, LocalDate to) {
+        return transactionTemplate.execute(status -> dailySalesRollupRepository.markDirty(from, to));
+    }
+}
@@ -0,0 +1,54 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.domain.OrderCanceledEvent;
+import jpabook.jpashop.domain.OrderPlacedEvent;
+import jpabook.jpashop.repository.DailySalesRollupRepository;
+import jpabook.jpashop.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+
+/**
+ * 주문 / 취소 이벤트 -> daily_item_sales 증감 ( 주문과 같은 트랜잭션, 커밋 직전 )
+ * 증감할 롤업 row 가 없으면 ( 롤업을 만들기 전의 주문 취소 등 ) 그 날을 다시 계산할 날로 표시
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DailySalesRollupProjector {
+
+    private final DailySalesRollupRepository dailySalesRollupRepository;
+    private final OrderRepository orderRepository;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        try {
+            dailySalesRollupRepository.addOrders(event.getOrderIds());
+        } catch (DuplicateKeyException e) {
+            // 그 날 그 상품의 첫 주문이 동시에 들어와서 둘 다 insert 하려던 경우 -> 다시 하면 update 로 처리됨
+            log.debug("일별 매출 롤업 동시 insert, 다시 시도 orderIds={}", event.getOrderIds());
+            dailySalesRollupRepository.addOrders(event.getOrderIds());
+        }
+    }
+
+    // 취소 트랜잭션에서 이미 읽어 둔 주문 / 주문 상품을 사용 ( 추가 조회 x )
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onOrderCanceled(OrderCanceledEvent event) {
+        Order order = orderRepository.findOne(event.getOrderId());
+        LocalDate salesDate = order.getOrderDate().toLocalDate();
+
+        int[] updated = dailySalesRollupRepository.cancel(salesDate, order.getOrderItems());
+        for (int count : updated) {
+            if (count == 0) {
+                dailySalesRollupRepository.markDirty(salesDate);
+                return;
+            }
+        }
+    }
+}
@@ -1,9 +1,15 @@
 package jpabook.jpashop.service;
 
 import jpabook.jpashop.domain.Item.Item;
+import jpabook.jpashop.domain.ItemChangedEvent;
+import jpabook.jpashop.dto.CursorResult;
+import jpabook.jpashop.dto.ItemSummaryDto;
 import jpabook.jpashop.dto.UpdateItemDto;
+import jpabook.jpashop.repository.CatalogSearch;
+import jpabook.jpashop.repository.ItemCursor;
 import jpabook.jpashop.repository.ItemRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -14,11 +20,16 @@ import java.util.List;
 @Transactional(readOnly = true)
 public class ItemService {
 
+    public static final int MAX_CATALOG_PAGE_SIZE = 1000;
+
     private final ItemRepository itemRepository;
+    private final StockReservationService stockReservationService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public void save(Item item) {
         itemRepository.save(item);
+        eventPublisher.publishEvent(new ItemChangedEvent(item.getId(), true));
     }
 
     /**
@@ -32,6 +43,8 @@ public class ItemService {
 
         Item findItem = itemRepository.findOne(itemId);
         findItem.changeItem(updateItemDto);
+        stockReservationService.overwrite(itemId, updateItemDto.getStockQuantity()); // 재고는 변경 감지 대상이 아님
+        eventPublisher.publishEvent(new ItemChangedEvent(itemId, false));
     }
 
     public Item findOne(Long id) {
@@ -41,4 +54,24 @@ public class ItemService {
     public List<Item> findAll() {
         return itemRepository.findAll();
     }
+
+    /**
+     * 상품 목록 ( 카탈로그 ) 한 페이지
+     * limit 만큼 꽉 채워서 조회됐을 때만 다음 페이지 커서를 줌
+     */
+    public CursorResult<ItemSummaryDto> findCatalog(CatalogSearch search, ItemCursor cursor, int limit) {
+        if (limit <= 0 || limit > MAX_CATALOG_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit 은 1 ~ " + MAX_CATALOG_PAGE_SIZE + " 이어야 합니다.");
+        }
+        if (search.getMinPrice() != null && search.getMaxPrice() != null && search.getMinPrice() > search.getMaxPrice()) {
+            return new CursorResult<>(List.of(), null);
+        }
+
+        List<ItemSummaryDto> items = itemRepository.findCatalog(search, cursor, limit);
+        if (items.size() < limit) {
+            return new CursorResult<>(items, null);
+        }
+        ItemSummaryDto last = items.get(items.size() - 1);
+        return new CursorResult<>(items, new ItemCursor(last.getPrice(), last.getId()).encode());
+    }
 }
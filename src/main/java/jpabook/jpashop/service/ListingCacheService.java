@@ -0,0 +1,76 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.domain.ItemChangedEvent;
+import jpabook.jpashop.domain.MemberChangedEvent;
+import jpabook.jpashop.dto.ItemSummaryDto;
+import jpabook.jpashop.dto.ListingSnapshot;
+import jpabook.jpashop.dto.MemberSummaryDto;
+import jpabook.jpashop.repository.ItemRepository;
+import jpabook.jpashop.repository.MemberRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 회원 / 상품 목록 캐시 ( DTO 스냅샷, 크기 / TTL 은 app-cache.xml )
+ * 자주 조회되고 거의 안 바뀌는 목록을 엔티티가 아니라 DTO 로 캐시하고, ETag 로 변경 여부를 알려줌
+ *
+ * 무효화는 커밋 이후 ( @TransactionalEventListener ) 에만 함
+ * - 커밋 전에 지우면 다른 요청이 커밋 전 데이터를 다시 읽어서 캐시에 넣을 수 있음
+ * - 키에 세대 ( generation ) 를 넣어서, 무효화 전에 시작된 조회가 늦게 넣는 오래된 목록은 다시 읽히지 않음
+ * 주문으로 바뀌는 상품 재고는 무효화하지 않으므로 상품 목록의 재고는 TTL 만큼 늦을 수 있음
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ListingCacheService {
+
+    public static final String MEMBERS = "listing.members";
+    public static final String ITEMS = "listing.items";
+
+    private final MemberRepository memberRepository;
+    private final ItemRepository itemRepository;
+
+    private final AtomicLong memberGeneration = new AtomicLong();
+    private final AtomicLong itemGeneration = new AtomicLong();
+
+    @Cacheable(cacheNames = MEMBERS, key = "#root.target.memberGeneration()")
+    public ListingSnapshot<MemberSummaryDto> members() {
+        return new ListingSnapshot<>(memberRepository.findAll().stream()
+                .map(MemberSummaryDto::new)
+                .toList());
+    }
+
+    @Cacheable(cacheNames = ITEMS, key = "#root.target.itemGeneration()")
+    public ListingSnapshot<ItemSummaryDto> items() {
+        return new ListingSnapshot<>(itemRepository.findAllSummaries());
+    }
+
+    public long memberGeneration() {
+        return memberGeneration.get();
+    }
+
+    public long itemGeneration() {
+        return itemGeneration.get();
+    }
+
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // 이미 커밋된 트랜잭션에 참여하지 않도록 ( 클래스의 readOnly 트랜잭션 )
+    @CacheEvict(cacheNames = MEMBERS, allEntries = true)
+    public void onMemberChanged(MemberChangedEvent event) {
+        memberGeneration.incrementAndGet();
+    }
+
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @CacheEvict(cacheNames = ITEMS, allEntries = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        itemGeneration.incrementAndGet();
+    }
+}
@@ -0,0 +1,207 @@
+package jpabook.jpashop.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jpabook.jpashop.domain.Item.Item;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.domain.OrderPlacedEvent;
+import jpabook.jpashop.dto.BulkOrderResult;
+import jpabook.jpashop.dto.OrderLineDto;
+import jpabook.jpashop.exception.NotEnoughStockException;
+import jpabook.jpashop.repository.ItemRepository;
+import jpabook.jpashop.repository.MemberRepository;
+import jpabook.jpashop.repository.OrderRepository;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static java.util.stream.Collectors.toMap;
+
+/**
+ * 대량 주문 등록 ( 제휴사 배치 파일 )
+ * 입력을 한 줄씩 읽으면서 CHUNK_SIZE 개씩 묶어서 트랜잭션 하나로 처리
+ * - 청크 안의 회원, 상품은 in 쿼리로 한 번에 조회
+ * - order / order_item / delivery insert 는 hibernate.jdbc.batch_size 로 batch 처리
+ * - 청크가 끝나면 flush, clear 해서 영속성 컨텍스트가 계속 커지지 않도록 함
+ * - 주문 요약 ( order_summary ) 은 청크마다 이벤트 하나로 한 번에 갱신
+ * 재고 부족 같은 줄 단위 실패는 기록만 하고 다음 줄을 계속 처리함
+ * 커밋 시점에 청크가 롤백되면 ( DB 재고 부족 등 ) 청크를 한 번 더 시도하고, 그래도 실패하면 한 줄씩 트랜잭션으로 처리
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderBulkIngestService {
+
+    private static final int CHUNK_SIZE = 1000;
+    private static final int MAX_CHUNK_ATTEMPTS = 2;
+
+    private final EntityManager em;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderFactory orderFactory;
+    private final OrderRepository orderRepository;
+    private final MemberRepository memberRepository;
+    private final ItemRepository itemRepository;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public BulkOrderResult ingest(InputStream in, BulkOrderFormat format) throws IOException {
+        BulkOrderResult result = new BulkOrderResult();
+        long start = System.nanoTime();
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        List<OrderRow> chunk = new ArrayList<>(CHUNK_SIZE);
+        String line;
+        long lineNumber = 0;
+
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (!StringUtils.hasText(line) || isCsvHeader(format, lineNumber, line)) {
+                continue;
+            }
+
+            try {
+                chunk.add(parse(format, lineNumber, line));
+            } catch (IllegalArgumentException | JsonProcessingException e) {
+                result.fail(lineNumber, "잘못된 형식입니다. " + e.getMessage());
+            }
+
+            if (chunk.size() == CHUNK_SIZE) {
+                ingestChunk(chunk, result);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            ingestChunk(chunk, result);
+        }
+
+        result.finish(System.nanoTime() - start);
+        log.info("대량 주문 등록 완료 total={}, succeeded={}, failed={}, {} orders/s",
+                result.getTotal(), result.getSucceeded(), result.getFailed(), String.format("%.1f", result.getOrdersPerSecond()));
+        return result;
+    }
+
+    private void ingestChunk(List<OrderRow> chunk, BulkOrderResult result) {
+        for (int attempt = 1; attempt <= MAX_CHUNK_ATTEMPTS; attempt++) {
+            try {
+                record(chunk, ingestInTransaction(chunk), result);
+                return;
+            } catch (NotEnoughStockException e) {
+                // 커밋 직전 DB 조건부 update 에서 재고 부족 ( 다른 서버에서 먼저 팔림 )
+                // 롤백되면서 재고 카운터를 버렸으므로 다시 시도하면 DB 재고로 예약하고, 모자란 줄만 줄 단위 실패로 남음
+                log.info("대량 주문 청크 커밋 시 재고 부족, 다시 시도 attempt={}, lines={}~{}",
+                        attempt, chunk.get(0).getLineNumber(), chunk.get(chunk.size() - 1).getLineNumber());
+            } catch (RuntimeException e) {
+                log.warn("대량 주문 청크 롤백 lines={}~{}", chunk.get(0).getLineNumber(), chunk.get(chunk.size() - 1).getLineNumber(), e);
+                break;
+            }
+        }
+
+        // 다시 시도해도 커밋에 실패하면 한 줄씩 트랜잭션으로 처리 -> 실패한 줄만 실패로 기록
+        for (OrderRow row : chunk) {
+            try {
+                record(List.of(row), ingestInTransaction(List.of(row)), result);
+            } catch (RuntimeException e) {
+                result.fail(row.getLineNumber(), e.getMessage());
+            }
+        }
+    }
+
+    private void record(List<OrderRow> rows, List<OrderRow> failed, BulkOrderResult result) {
+        result.success(rows.size() - failed.size());
+        failed.forEach(row -> result.fail(row.getLineNumber(), row.getFailure()));
+    }
+
+    /**
+     * rows 를 트랜잭션 하나로 등록하고 줄 단위로 실패한 줄을 리턴
+     * 커밋에 실패하면 예외 ( rows 전체가 롤백됨 )
+     */
+    private List<OrderRow> ingestInTransaction(List<OrderRow> rows) {
+        return transactionTemplate.execute(status -> {
+            Map<Long, Member> members = memberRepository.findAllById(rows.stream().map(OrderRow::getMemberId).distinct().toList())
+                    .stream()
+                    .collect(toMap(Member::getId, Function.identity()));
+            Map<Long, Item> items = itemRepository.findAllById(rows.stream()
+                            .flatMap(row -> row.getOrderItems().stream())
+                            .map(OrderLineDto::getItemId)
+                            .distinct()
+                            .toList())
+                    .stream()
+                    .collect(toMap(Item::getId, Function.identity()));
+
+            List<Long> orderIds = new ArrayList<>(rows.size());
+            List<OrderRow> failed = new ArrayList<>();
+            for (OrderRow row : rows) {
+                try {
+                    Order order = orderFactory.createOrder(members.get(row.getMemberId()), items, row.getOrderItems());
+                    orderRepository.save(order);
+                    orderIds.add(order.getId());
+                } catch (NotEnoughStockException | IllegalArgumentException e) {
+                    row.setFailure(e.getMessage());
+                    failed.add(row);
+                }
+            }
+
+            if (!orderIds.isEmpty()) {
+                eventPublisher.publishEvent(new OrderPlacedEvent(orderIds));
+            }
+            em.flush();
+            em.clear();
+            return failed;
+        });
+    }
+
+    private boolean isCsvHeader(BulkOrderFormat format, long lineNumber, String line) {
+        return format == BulkOrderFormat.CSV && lineNumber == 1 && line.startsWith("memberId");
+    }
+
+    private OrderRow parse(BulkOrderFormat format, long lineNumber, String line) throws JsonProcessingException {
+        OrderRow row;
+        if (format == BulkOrderFormat.CSV) {
+            String[] columns = line.split(",");
+            if (columns.length != 3) {
+                throw new IllegalArgumentException("memberId,itemId,count 형식이어야 합니다.");
+            }
+            row = new OrderRow();
+            row.setMemberId(Long.parseLong(columns[0].trim()));
+            row.setOrderItems(List.of(new OrderLineDto(Long.parseLong(columns[1].trim()), Integer.parseInt(columns[2].trim()))));
+        } else {
+            row = objectMapper.readValue(line, OrderRow.class);
+        }
+
+        if (row.getMemberId() == null || row.getOrderItems() == null || row.getOrderItems().isEmpty()) {
+            throw new IllegalArgumentException("회원과 주문 상품은 필수입니다.");
+        }
+        for (OrderLineDto orderLine : row.getOrderItems()) {
+            if (orderLine.getItemId() == null || orderLine.getCount() <= 0) {
+                throw new IllegalArgumentException("상품과 1 이상의 수량은 필수입니다.");
+            }
+        }
+        row.setLineNumber(lineNumber);
+        return row;
+    }
+
+    @Getter @Setter
+    static class OrderRow {
+        private long lineNumber;
+        private Long memberId;
+        private List<OrderLineDto> orderItems;
+        private String failure;
+    }
+}
@@ -0,0 +1,74 @@
+package jpabook.jpashop.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jpabook.jpashop.dto.OrderFlatDto;
+import jpabook.jpashop.dto.OrderQueryDto;
+import jpabook.jpashop.repository.order.query.OrderFlatAssembler;
+import jpabook.jpashop.repository.order.query.OrderQueryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class OrderExportService {
+
+    private static final int FETCH_SIZE = 500;
+
+    private final EntityManager em;
+    private final OrderQueryRepository orderQueryRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 주문 전체 NDJSON 내보내기
+     * order_id 순으로 정렬된 flat row 를 읽으면서 연속된 같은 주문끼리 묶어 한 줄씩 바로 출력
+     * 메모리에는 지금 만들고 있는 주문 하나만 남음 -> 테이블 크기와 상관없이 메모리 사용량이 일정
+     * 내보낸 주문 수를 리턴
+     */
+    public long exportNdjson(OutputStream out) throws IOException {
+        long exported = 0;
+        int rows = 0;
+
+        try (Stream<OrderFlatDto> flats = orderQueryRepository.streamAllByDto_flat(FETCH_SIZE)) {
+            Iterator<OrderFlatDto> iterator = flats.iterator();
+            OrderFlatAssembler assembler = new OrderFlatAssembler();
+
+            while (iterator.hasNext()) {
+                // order_id 가 바뀌면 이전 주문은 완성된 것
+                OrderQueryDto completed = assembler.add(iterator.next());
+                if (completed != null) {
+                    writeLine(completed, out);
+                    exported++;
+                }
+
+                // fetchSize 단위로 영속성 컨텍스트를 비우고 클라이언트로 밀어냄
+                if (++rows % FETCH_SIZE == 0) {
+                    em.clear();
+                    out.flush();
+                }
+            }
+
+            OrderQueryDto last = assembler.finish();
+            if (last != null) {
+                writeLine(last, out);
+                exported++;
+            }
+        }
+
+        out.flush();
+        return exported;
+    }
+
+    // writeValue(OutputStream) 은 스트림을 닫아버리기 때문에 byte 로 변환해서 직접 씀
+    private void writeLine(OrderQueryDto order, OutputStream out) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(order));
+        out.write('\n');
+    }
+}
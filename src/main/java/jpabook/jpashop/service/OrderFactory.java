@@ -0,0 +1,75 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.domain.Delivery;
+import jpabook.jpashop.domain.DeliveryStatus;
+import jpabook.jpashop.domain.Item.Item;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.domain.OrderItem;
+import jpabook.jpashop.dto.OrderLineDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 이미 조회해 둔 회원, 상품으로 주문 조립 ( 저장은 하지 않음 )
+ * 일부러 @Transactional 을 붙이지 않음 - 트랜잭션 프록시를 거치면 재고 부족 등의 예외가 밖에서 잡히더라도
+ * 호출한 쪽 트랜잭션이 rollback-only 로 표시되어, 대량 주문 등록에서 한 줄의 실패가 청크 전체를 롤백시킴
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderFactory {
+
+    private final StockReservationService stockReservationService;
+
+    /**
+     * 중간에 재고 부족 등으로 실패하면 이 주문에서 예약한 재고는 되돌려 놓고 예외를 던짐
+     * -> 같은 트랜잭션에서 다음 주문을 계속 만들 수 있음 ( 대량 주문 등록 )
+     */
+    public Order createOrder(Member member, Map<Long, Item> items, List<OrderLineDto> orderLines) {
+        if (member == null) {
+            throw new IllegalArgumentException("존재하지 않는 회원입니다.");
+        }
+
+        // 배송정보 생성
+        Delivery delivery = createDelivery(member);
+
+        // 주문 상품 생성
+        OrderItem[] orderItems = new OrderItem[orderLines.size()];
+        int created = 0;
+        try {
+            for (OrderLineDto orderLine : orderLines) {
+                Item item = items.get(orderLine.getItemId());
+                if (item == null) {
+                    throw new IllegalArgumentException("존재하지 않는 상품입니다. itemId=" + orderLine.getItemId());
+                }
+
+                stockReservationService.reserve(item.getId(), orderLine.getCount());
+                try {
+                    orderItems[created] = OrderItem.createOrderItem(item, item.getPrice(), orderLine.getCount());
+                } catch (RuntimeException e) {
+                    stockReservationService.cancelReservation(item.getId(), orderLine.getCount());
+                    throw e;
+                }
+                created++;
+            }
+        } catch (RuntimeException e) {
+            for (int i = 0; i < created; i++) {
+                orderItems[i].cancel();
+                stockReservationService.cancelReservation(orderItems[i].getItem().getId(), orderItems[i].getCount());
+            }
+            throw e;
+        }
+
+        return Order.createOrder(member, delivery, orderItems);
+    }
+
+    public Delivery createDelivery(Member member) {
+        Delivery delivery = new Delivery();
+        delivery.setAddress(member.getAddress());
+        delivery.setStatus(DeliveryStatus.READY);
+        return delivery;
+    }
+}
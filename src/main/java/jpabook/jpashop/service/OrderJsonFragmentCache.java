@@ -0,0 +1,89 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.domain.ItemChangedEvent;
+import jpabook.jpashop.domain.MemberChangedEvent;
+import jpabook.jpashop.domain.OrderCanceledEvent;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 주문 한 건의 OrderQueryDto 를 직렬화한 JSON ( UTF-8 바이트 ) 캐시
+ * 키는 주문 id, 값에 주문 버전과 세대 ( generation ) 를 같이 넣어서 둘 중 하나라도 다르면 없는 것으로 취급
+ * ( = 주문 id + 버전 + 세대 )
+ *
+ * 무효화 - 서비스가 발행한 이벤트로 커밋 이후에 처리
+ * - 주문 취소 : 주문 버전이 바뀌므로 이전 조각은 더 이상 맞지 않음, 커밋 후 지워서 자리만 비움
+ * - 회원 이름, 상품 이름 변경 : 주문 버전은 그대로이므로 세대를 올리고 전체 삭제
+ *   무효화 전에 조회를 시작한 요청이 변경 전 조각을 늦게 넣어도 이전 세대라서 다시 읽히지 않음
+ */
+@Component
+public class OrderJsonFragmentCache {
+
+    public static final String CACHE_NAME = "fragment.order";
+
+    private final Cache cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    public OrderJsonFragmentCache(CacheManager cacheManager) {
+        this.cache = cacheManager.getCache(CACHE_NAME);
+    }
+
+    // 조각을 만들 데이터를 읽기 전에 가져와서 put 에 넘김
+    public long generation() {
+        return generation.get();
+    }
+
+    // 버전, 세대가 같은 조각만 리턴
+    public byte[] get(Long orderId, Long version) {
+        Fragment fragment = cache.get(orderId, Fragment.class);
+        if (fragment == null || !fragment.getVersion().equals(version) || fragment.getGeneration() != generation.get()) {
+            return null;
+        }
+        return fragment.getJson();
+    }
+
+    public void put(Long orderId, Long version, long generation, byte[] json) {
+        cache.put(orderId, new Fragment(version, generation, json));
+    }
+
+    @TransactionalEventListener
+    public void onOrderCanceled(OrderCanceledEvent event) {
+        cache.evict(event.getOrderId());
+    }
+
+    @TransactionalEventListener
+    public void onMemberChanged(MemberChangedEvent event) {
+        if (!event.isCreated()) {
+            invalidateAll();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onItemChanged(ItemChangedEvent event) {
+        if (!event.isCreated()) {
+            invalidateAll();
+        }
+    }
+
+    private void invalidateAll() {
+        generation.incrementAndGet();
+        cache.clear();
+    }
+
+    // off-heap 에 저장되므로 Serializable
+    @Getter
+    @AllArgsConstructor
+    public static class Fragment implements Serializable {
+
+        private final Long version;
+        private final long generation;
+        private final byte[] json;
+    }
+}
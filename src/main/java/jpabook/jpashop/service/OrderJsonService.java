@@ -0,0 +1,99 @@
+package jpabook.jpashop.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jpabook.jpashop.dto.OrderQueryDto;
+import jpabook.jpashop.dto.OrderVersionDto;
+import jpabook.jpashop.repository.order.query.OrderQueryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 주문 목록 JSON - 주문별로 직렬화해 둔 조각 ( OrderJsonFragmentCache ) 을 이어 붙여서 응답
+ * 주문 id + 버전만 조회해서 캐시에 없는 주문만 DTO 로 조회 / 직렬화함
+ * 결과는 V5 ( List<OrderQueryDto> ) 를 order_id 순으로 직렬화한 것과 같음
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class OrderJsonService {
+
+    private static final int MISS_CHUNK_SIZE = 1000; // in 절 크기
+
+    private final OrderQueryRepository orderQueryRepository;
+    private final OrderJsonFragmentCache fragmentCache;
+    private final ObjectMapper objectMapper;
+
+    public byte[] findAllAsJson() {
+        long generation = fragmentCache.generation(); // 조회 전에 ( 조회 중에 무효화되면 넣은 조각은 다시 읽히지 않음 )
+        List<OrderVersionDto> versions = orderQueryRepository.findOrderVersions();
+
+        byte[][] fragments = new byte[versions.size()][];
+        Map<Long, Integer> missIndexes = new HashMap<>();
+        for (int i = 0; i < versions.size(); i++) {
+            OrderVersionDto version = versions.get(i);
+            fragments[i] = fragmentCache.get(version.getOrderId(), version.getVersion());
+            if (fragments[i] == null) {
+                missIndexes.put(version.getOrderId(), i);
+            }
+        }
+
+        List<Long> misses = new ArrayList<>(missIndexes.keySet());
+        for (int from = 0; from < misses.size(); from += MISS_CHUNK_SIZE) {
+            List<Long> chunk = misses.subList(from, Math.min(from + MISS_CHUNK_SIZE, misses.size()));
+            for (OrderQueryDto order : orderQueryRepository.findAllByDto_optimization(chunk)) {
+                int index = missIndexes.get(order.getOrderId());
+                fragments[index] = serialize(order);
+                fragmentCache.put(order.getOrderId(), versions.get(index).getVersion(), generation, fragments[index]);
+            }
+        }
+
+        return concat(fragments);
+    }
+
+    // [ 조각 , 조각 , ... ]
+    private byte[] concat(byte[][] fragments) {
+        int count = 0;
+        int length = 2; // [ ]
+        for (byte[] fragment : fragments) {
+            if (fragment != null) {
+                length += fragment.length;
+                count++;
+            }
+        }
+        length += Math.max(0, count - 1); // ,
+
+        byte[] json = new byte[length];
+        int position = 0;
+        json[position++] = '[';
+        for (byte[] fragment : fragments) {
+            // 버전 조회 후 삭제된 주문은 건너뜀
+            if (fragment == null) {
+                continue;
+            }
+            if (position > 1) {
+                json[position++] = ',';
+            }
+            System.arraycopy(fragment, 0, json, position, fragment.length);
+            position += fragment.length;
+        }
+        json[position] = ']';
+
+        return json;
+    }
+
+    private byte[] serialize(OrderQueryDto order) {
+        try {
+            return objectMapper.writeValueAsBytes(order);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -2,15 +2,22 @@ package jpabook.jpashop.service;
 
 import jpabook.jpashop.domain.*;
 import jpabook.jpashop.domain.Item.Item;
+import jpabook.jpashop.dto.OrderLineDto;
+import jpabook.jpashop.dto.OrderSearchPage;
 import jpabook.jpashop.repository.ItemRepository;
 import jpabook.jpashop.repository.MemberRepository;
 import jpabook.jpashop.repository.OrderRepository;
 import jpabook.jpashop.repository.OrderSearch;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static java.util.stream.Collectors.toMap;
 
 @Service
 @Transactional(readOnly = true)
@@ -20,6 +27,9 @@ public class OrderService {
     private final OrderRepository orderRepository;
     private final MemberRepository memberRepository;
     private final ItemRepository itemRepository;
+    private final StockReservationService stockReservationService;
+    private final OrderFactory orderFactory;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * 주문
@@ -32,9 +42,10 @@ public class OrderService {
         Item item = itemRepository.findOne(itemId);
 
         // 배송정보 생성
-        Delivery delivery = new Delivery();
-        delivery.setAddress(member.getAddress());
-        delivery.setStatus(DeliveryStatus.READY);
+        Delivery delivery = orderFactory.createDelivery(member);
+
+        // 재고 예약 ( 재고가 없으면 DB 에 가지 않고 바로 예외 )
+        stockReservationService.reserve(item.getId(), count);
 
         // 주문 상품 생성
         OrderItem orderItem = OrderItem.createOrderItem(item, item.getPrice(), count);
@@ -44,10 +55,34 @@ public class OrderService {
 
         // 주문 저장
         orderRepository.save(order);
+        eventPublisher.publishEvent(OrderPlacedEvent.of(order.getId()));
 
         return order.getId();
     }
 
+    /**
+     * 주문 - 여러 상품을 하나의 주문으로
+     * 상품은 in 쿼리 한 번으로 조회하고, Order 하나에 OrderItem 여러 개를 cascade 로 저장
+     * ( hibernate.jdbc.batch_size 로 order_item insert 가 batch 로 묶여서 나감 )
+     */
+    @Transactional
+    public Long order(Long memberId, List<OrderLineDto> orderLines) {
+
+        // 엔티티 조회
+        Member member = memberRepository.findOne(memberId);
+        Map<Long, Item> items = itemRepository.findAllById(orderLines.stream().map(OrderLineDto::getItemId).toList())
+                .stream()
+                .collect(toMap(Item::getId, Function.identity()));
+
+        // 주문 생성
+        Order order = orderFactory.createOrder(member, items, orderLines);
+
+        // 주문 저장
+        orderRepository.save(order);
+        eventPublisher.publishEvent(OrderPlacedEvent.of(order.getId()));
+
+        return order.getId();
+    }
 
     /**
      * 주문 취소
@@ -56,6 +91,12 @@ public class OrderService {
     public void cancelOrder(Long orderId) {
         Order order = orderRepository.findOne(orderId);
         order.cancel();
+
+        // 예약했던 재고 반환
+        for (OrderItem orderItem : order.getOrderItems()) {
+            stockReservationService.release(orderItem.getItem().getId(), orderItem.getCount());
+        }
+        eventPublisher.publishEvent(new OrderCanceledEvent(orderId));
     }
 
 
@@ -66,6 +107,13 @@ public class OrderService {
         return orderRepository.findAllByString(orderSearch);
     }
 
+    /**
+     * 주문 검색 ( 페이징 )
+     */
+    public OrderSearchPage searchOrders(OrderSearch orderSearch, int page, int size) {
+        return orderRepository.search(orderSearch, page, size);
+    }
+
     /**
      * 주문 검색 fetch join 사용
      */
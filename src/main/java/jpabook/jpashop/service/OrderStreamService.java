@@ -0,0 +1,83 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.datasource.RequestThreadContext;
+import jpabook.jpashop.dto.OrderQueryDto;
+import jpabook.jpashop.repository.OrderCursor;
+import jpabook.jpashop.repository.order.query.OrderQueryRepository;
+import jpabook.jpashop.repository.order.simplequery.OrderSimpleQueryDto;
+import jpabook.jpashop.repository.order.simplequery.OrderSimpleQueryRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 주문 조회 스트림 ( backpressure )
+ * Keyset 페이지 단위로 조회해서 Flux 로 흘려 보냄
+ * - 다음 페이지는 구독자가 앞 페이지를 다 가져간 뒤에 조회 ( 느린 클라이언트면 조회도 천천히 )
+ * - 페이지 조회는 boundedElastic 스케줄러에서 페이지마다 짧은 읽기 전용 트랜잭션으로 실행
+ *   ( 페이지 사이에는 커넥션을 잡고 있지 않음, 라우팅 사용 시 replica )
+ * - 스트림을 만든 요청 스레드의 ReadAfterWrite / SQL 통계를 페이지 조회 스레드로 넘김 ( RequestThreadContext )
+ *   -> 쓰기 직후 요청이면 페이지도 primary 에서 읽음
+ */
+@Service
+public class OrderStreamService {
+
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    private final OrderSimpleQueryRepository orderSimpleQueryRepository;
+    private final OrderQueryRepository orderQueryRepository;
+    private final TransactionTemplate readOnly;
+
+    public OrderStreamService(OrderSimpleQueryRepository orderSimpleQueryRepository,
+                              OrderQueryRepository orderQueryRepository,
+                              PlatformTransactionManager transactionManager) {
+        this.orderSimpleQueryRepository = orderSimpleQueryRepository;
+        this.orderQueryRepository = orderQueryRepository;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+    }
+
+    // simple V4 와 같은 DTO ( 페이지 당 쿼리 1번 )
+    public Flux<OrderSimpleQueryDto> streamOrderDtos(int pageSize) {
+        return stream(pageSize,
+                (cursor, limit) -> orderSimpleQueryRepository.findOrderDtos(cursor, limit),
+                o -> new OrderCursor(o.getOrderDate(), o.getOrderId()));
+    }
+
+    // V5 와 같은 DTO ( 페이지 당 루트 1번, 컬렉션 1번 )
+    public Flux<OrderQueryDto> streamOrders(int pageSize) {
+        return stream(pageSize,
+                (cursor, limit) -> orderQueryRepository.findAllByDto_optimization(cursor, limit),
+                o -> new OrderCursor(o.getOrderDate(), o.getOrderId()));
+    }
+
+    private <T> Flux<T> stream(int pageSize, PageQuery<T> query, Function<T, OrderCursor> toCursor) {
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            return Flux.error(new IllegalArgumentException("pageSize 는 1 ~ " + MAX_PAGE_SIZE + " 사이여야 합니다."));
+        }
+
+        RequestThreadContext context = RequestThreadContext.capture();
+        return page(query, null, pageSize, context)
+                .expand(page -> page.size() < pageSize
+                        ? Mono.empty()
+                        : page(query, toCursor.apply(page.get(page.size() - 1)), pageSize, context))
+                // 페이지를 하나씩만 요청 -> 구독자가 받아갈 때까지 다음 페이지는 조회하지 않음
+                .concatMapIterable(Function.identity(), 1);
+    }
+
+    private <T> Mono<List<T>> page(PageQuery<T> query, OrderCursor cursor, int pageSize, RequestThreadContext context) {
+        return Mono.fromCallable(() -> context.call(() -> readOnly.execute(status -> query.find(cursor, pageSize))))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @FunctionalInterface
+    private interface PageQuery<T> {
+        List<T> find(OrderCursor cursor, int limit);
+    }
+}
@@ -0,0 +1,42 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.domain.MemberChangedEvent;
+import jpabook.jpashop.domain.OrderCanceledEvent;
+import jpabook.jpashop.domain.OrderPlacedEvent;
+import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.repository.OrderSummaryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * 주문 / 취소 / 회원 이름 변경 이벤트 -> order_summary 갱신
+ * 커밋 직전 ( BEFORE_COMMIT ) 에 같은 트랜잭션에서 갱신하므로 주문과 요약이 항상 같이 커밋 / 롤백됨
+ * 한 트랜잭션에서 주문이 여러 번 바뀌어도 커밋 직전 최종 상태로 계산함
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderSummaryProjector {
+
+    private final OrderSummaryRepository orderSummaryRepository;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        orderSummaryRepository.refresh(event.getOrderIds());
+    }
+
+    // 취소는 상태만 바뀜 ( 금액 / 상품 수는 그대로 )
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onOrderCanceled(OrderCanceledEvent event) {
+        orderSummaryRepository.updateStatus(event.getOrderId(), OrderStatus.CANCEL);
+    }
+
+    // 새로 가입한 회원은 아직 요약이 없음
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onMemberChanged(MemberChangedEvent event) {
+        if (!event.isCreated()) {
+            orderSummaryRepository.updateMemberName(event.getMemberId(), event.getName());
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.repository.OrderSummaryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * order_summary 다시 계산 ( 백필 )
+ * 주문을 order_id 순으로 CHUNK_SIZE 개씩 읽어서 청크마다 트랜잭션 하나로 insert-select
+ * 주문마다 지우고 다시 넣으므로 여러 번 실행해도 결과가 같음 ( 중간에 실패하면 다시 실행 )
+ * jpashop.order-summary.rebuild-on-startup=true 면 애플리케이션 시작 후 한 번 실행
+ */
+@Slf4j
+@Component
+public class OrderSummaryRebuildJob {
+
+    private static final int CHUNK_SIZE = 1000;
+
+    private final OrderSummaryRepository orderSummaryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean rebuildOnStartup;
+
+    public OrderSummaryRebuildJob(OrderSummaryRepository orderSummaryRepository,
+                                  TransactionTemplate transactionTemplate,
+                                  @Value("${jpashop.order-summary.rebuild-on-startup:false}") boolean rebuildOnStartup) {
+        this.orderSummaryRepository = orderSummaryRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.rebuildOnStartup = rebuildOnStartup;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (rebuildOnStartup) {
+            rebuild();
+        }
+    }
+
+    public long rebuild() {
+        long start = System.nanoTime();
+        long rebuilt = 0;
+        Long after = 0L;
+
+        while (true) {
+            Long from = after;
+            List<Long> orderIds = transactionTemplate.execute(status -> {
+                List<Long> ids = orderSummaryRepository.findOrderIds(from, CHUNK_SIZE);
+                orderSummaryRepository.refresh(ids);
+                return ids;
+            });
+            if (orderIds.isEmpty()) {
+                break;
+            }
+            rebuilt += orderIds.size();
+            after = orderIds.get(orderIds.size() - 1);
+        }
+
+        log.info("주문 요약 다시 계산 완료 orders={}, {}ms", rebuilt, (System.nanoTime() - start) / 1_000_000);
+        return rebuilt;
+    }
+}
@@ -0,0 +1,202 @@
+package jpabook.jpashop.service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+
+/**
+ * 매출 집계 누적기 ( 기간 [from, to) )
+ * Map<Long, Integer> 대신 long 배열에 누적 -> 박싱 / 해시 / 엔트리 객체 없이 더하기만 함
+ * - 상품별 : 인덱스 = itemId - itemBase, 범위를 벗어나는 id 가 오면 배열을 늘림
+ * - 일별 : 인덱스 = from 부터의 날짜 수 ( 주 / 월 버킷은 일별 값을 합쳐서 만듦 )
+ * 매출 / 판매 수량은 취소되지 않은 주문만, 주문 수에는 취소 주문도 포함 ( 취소율 = 취소 주문 수 / 주문 수 )
+ * 스레드 안전하지 않음 -> fork-join 의 각 작업이 자기 누적기를 채우고 merge 로 합침
+ */
+public class SalesAccumulator {
+
+    // 상품 id 범위가 이보다 넓으면 배열 대신 다른 방법이 필요함 ( 누적기 하나당 약 320MB )
+    static final int MAX_ITEM_SLOTS = 10_000_000;
+
+    private final LocalDate from;
+    private final int days;
+
+    private long itemBase;
+    private long[] itemRevenue;
+    private long[] itemUnits;
+    private long[] itemOrders;
+    private long[] itemCanceledOrders;
+
+    private final long[] dayRevenue;
+    private final long[] dayUnits;
+    private final long[] dayOrders;
+    private final long[] dayCanceledOrders;
+
+    public SalesAccumulator(LocalDate from, LocalDate to, long minItemId, long maxItemId) {
+        this.from = from;
+        this.days = (int) ChronoUnit.DAYS.between(from, to);
+        if (days < 1) {
+            throw new IllegalArgumentException("집계 기간이 비어 있습니다. from=" + from + ", to=" + to);
+        }
+
+        this.itemBase = Math.max(0, minItemId);
+        int slots = maxItemId < itemBase ? 0 : slots(maxItemId - itemBase + 1);
+        this.itemRevenue = new long[slots];
+        this.itemUnits = new long[slots];
+        this.itemOrders = new long[slots];
+        this.itemCanceledOrders = new long[slots];
+
+        this.dayRevenue = new long[days];
+        this.dayUnits = new long[days];
+        this.dayOrders = new long[days];
+        this.dayCanceledOrders = new long[days];
+    }
+
+    /**
+     * 상품별 집계 row 하나 ( item_id, 상태 별 group by 결과 )
+     */
+    public void addItem(long itemId, boolean canceled, long orders, long units, long revenue) {
+        int index = itemIndex(itemId);
+        itemOrders[index] += orders;
+        if (canceled) {
+            itemCanceledOrders[index] += orders;
+        } else {
+            itemUnits[index] += units;
+            itemRevenue[index] += revenue;
+        }
+    }
+
+    /**
+     * 일별 집계 row 하나 ( 주문일, 상태 별 group by 결과 )
+     */
+    public void addDay(LocalDate day, boolean canceled, long orders, long units, long revenue) {
+        int index = (int) ChronoUnit.DAYS.between(from, day);
+        if (index < 0 || index >= days) {
+            throw new IllegalArgumentException("집계 기간 밖의 날짜입니다. day=" + day);
+        }
+        dayOrders[index] += orders;
+        if (canceled) {
+            dayCanceledOrders[index] += orders;
+        } else {
+            dayUnits[index] += units;
+            dayRevenue[index] += revenue;
+        }
+    }
+
+    /**
+     * other 를 이 누적기에 더함 ( 같은 기간이어야 함 )
+     */
+    public SalesAccumulator merge(SalesAccumulator other) {
+        if (!from.equals(other.from) || days != other.days) {
+            throw new IllegalArgumentException("집계 기간이 다른 누적기는 합칠 수 없습니다.");
+        }
+        if (other.itemRevenue.length > 0) {
+            itemIndex(other.itemBase);
+            itemIndex(other.itemBase + other.itemRevenue.length - 1);
+            int offset = (int) (other.itemBase - itemBase);
+            add(itemRevenue, offset, other.itemRevenue);
+            add(itemUnits, offset, other.itemUnits);
+            add(itemOrders, offset, other.itemOrders);
+            add(itemCanceledOrders, offset, other.itemCanceledOrders);
+        }
+        add(dayRevenue, 0, other.dayRevenue);
+        add(dayUnits, 0, other.dayUnits);
+        add(dayOrders, 0, other.dayOrders);
+        add(dayCanceledOrders, 0, other.dayCanceledOrders);
+        return this;
+    }
+
+    private static void add(long[] target, int offset, long[] source) {
+        for (int i = 0; i < source.length; i++) {
+            target[offset + i] += source[i];
+        }
+    }
+
+    // 범위 밖의 상품 id 면 배열을 늘려서 ( 앞 / 뒤 ) 인덱스를 돌려줌
+    private int itemIndex(long itemId) {
+        if (itemId < itemBase) {
+            int shift = slots(itemBase - itemId);
+            itemRevenue = shiftRight(itemRevenue, shift);
+            itemUnits = shiftRight(itemUnits, shift);
+            itemOrders = shiftRight(itemOrders, shift);
+            itemCanceledOrders = shiftRight(itemCanceledOrders, shift);
+            itemBase = itemId;
+        }
+        long index = itemId - itemBase;
+        if (index >= itemRevenue.length) {
+            int length = slots(Math.max(index + 1, itemRevenue.length * 2L));
+            itemRevenue = Arrays.copyOf(itemRevenue, length);
+            itemUnits = Arrays.copyOf(itemUnits, length);
+            itemOrders = Arrays.copyOf(itemOrders, length);
+            itemCanceledOrders = Arrays.copyOf(itemCanceledOrders, length);
+        }
+        return (int) index;
+    }
+
+    private static long[] shiftRight(long[] values, int shift) {
+        long[] shifted = new long[slots((long) values.length + shift)];
+        System.arraycopy(values, 0, shifted, shift, values.length);
+        return shifted;
+    }
+
+    private static int slots(long slots) {
+        if (slots > MAX_ITEM_SLOTS) {
+            throw new IllegalStateException("상품 id 범위가 너무 넓습니다. slots=" + slots);
+        }
+        return (int) slots;
+    }
+
+    //== 조회 ==//
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public int getDays() {
+        return days;
+    }
+
+    public long getItemBase() {
+        return itemBase;
+    }
+
+    public int getItemSlots() {
+        return itemRevenue.length;
+    }
+
+    public long itemRevenue(long itemId) {
+        return itemValue(itemRevenue, itemId);
+    }
+
+    public long itemUnits(long itemId) {
+        return itemValue(itemUnits, itemId);
+    }
+
+    public long itemOrders(long itemId) {
+        return itemValue(itemOrders, itemId);
+    }
+
+    public long itemCanceledOrders(long itemId) {
+        return itemValue(itemCanceledOrders, itemId);
+    }
+
+    private long itemValue(long[] values, long itemId) {
+        long index = itemId - itemBase;
+        return index < 0 || index >= values.length ? 0 : values[(int) index];
+    }
+
+    public long dayRevenue(int day) {
+        return dayRevenue[day];
+    }
+
+    public long dayUnits(int day) {
+        return dayUnits[day];
+    }
+
+    public long dayOrders(int day) {
+        return dayOrders[day];
+    }
+
+    public long dayCanceledOrders(int day) {
+        return dayCanceledOrders[day];
+    }
+}
@@ -0,0 +1,234 @@
+package jpabook.jpashop.service;
+
+import jakarta.annotation.PreDestroy;
+import jpabook.jpashop.domain.Money;
+import jpabook.jpashop.dto.SalesBucket;
+import jpabook.jpashop.dto.SalesReport;
+import jpabook.jpashop.dto.SalesReport.CategorySales;
+import jpabook.jpashop.dto.SalesReport.ItemSales;
+import jpabook.jpashop.dto.SalesReport.PeriodSales;
+import jpabook.jpashop.dto.SalesReport.Sales;
+import jpabook.jpashop.repository.LongColumn;
+import jpabook.jpashop.repository.SalesAnalyticsRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * 매출 분석 ( 상품별 / 카테고리별 / 시간 버킷별 매출, 판매 수량, 취소율 )
+ * - 주문을 엔티티로 읽어서 Order.getTotalPrice() 로 더하지 않고, DB 에서 group by 로 줄인 결과만 읽음
+ * - 기간을 월 단위로 나눠서 fork-join 으로 동시에 집계하고, 각 작업의 SalesAccumulator 를 합침
+ *   월마다 별도 읽기 전용 트랜잭션 ( 커넥션 ) 에서 실행, 동시 실행 수는 커넥션 풀의 1/4
+ * - 카테고리 / 주 / 월 값은 상품별, 일별 결과를 메모리에서 합쳐서 만듦 ( 추가 쿼리 x )
+ */
+@Service
+public class SalesAnalyticsService {
+
+    public static final int MAX_DAYS = 366 * 5;
+
+    private final SalesAnalyticsRepository salesAnalyticsRepository;
+    private final TransactionTemplate readOnly;
+    private final ForkJoinPool pool;
+
+    public SalesAnalyticsService(SalesAnalyticsRepository salesAnalyticsRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${spring.datasource.hikari.maximum-pool-size:10}") int maximumPoolSize) {
+        this.salesAnalyticsRepository = salesAnalyticsRepository;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.pool = new ForkJoinPool(Math.max(1, maximumPoolSize / 4));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    public SalesReport report(LocalDate from, LocalDate to, SalesBucket bucket) {
+        long days = ChronoUnit.DAYS.between(from, to);
+        if (days < 1 || days > MAX_DAYS) {
+            throw new IllegalArgumentException("집계 기간은 1 ~ " + MAX_DAYS + " 일 이어야 합니다. from=" + from + ", to=" + to);
+        }
+
+        SalesAccumulator accumulator = accumulate(from, to);
+
+        return new SalesReport(from, to, bucket,
+                total(accumulator),
+                itemSales(accumulator),
+                categorySales(accumulator),
+                periodSales(accumulator, bucket));
+    }
+
+    /**
+     * 기간 [from, to) 의 매출 합계 ( 취소 제외 )
+     * 주문마다 주문 상품을 읽어서 더하지 않고, 저장된 주문 금액 컬럼을 배열로 읽어서 단순 루프로 더함
+     */
+    public long totalRevenue(LocalDate from, LocalDate to) {
+        LongColumn amounts = readOnly.execute(status ->
+                salesAnalyticsRepository.findOrderAmounts(from.atStartOfDay(), to.atStartOfDay()));
+        return Money.sum(amounts.values(), amounts.size());
+    }
+
+    /**
+     * 기간을 월 경계로 나눠서 fork-join 으로 집계
+     */
+    public SalesAccumulator accumulate(LocalDate from, LocalDate to) {
+        long[] itemIdRange = readOnly.execute(status -> salesAnalyticsRepository.findItemIdRange());
+        List<LocalDate> boundaries = monthSlices(from, to);
+        return pool.invoke(new SliceTask(boundaries, 0, boundaries.size() - 1, from, to, itemIdRange));
+    }
+
+    // [from, 다음 달 1일, ..., to]
+    static List<LocalDate> monthSlices(LocalDate from, LocalDate to) {
+        List<LocalDate> boundaries = new ArrayList<>();
+        boundaries.add(from);
+        LocalDate next = from.withDayOfMonth(1).plusMonths(1);
+        while (next.isBefore(to)) {
+            boundaries.add(next);
+            next = next.plusMonths(1);
+        }
+        boundaries.add(to);
+        return boundaries;
+    }
+
+    /**
+     * boundaries[lo] ~ boundaries[hi] 구간 집계. 한 달이면 직접 조회, 아니면 반으로 나눠서 fork
+     */
+    private class SliceTask extends RecursiveTask<SalesAccumulator> {
+
+        private final List<LocalDate> boundaries;
+        private final int lo;
+        private final int hi;
+        private final LocalDate from;
+        private final LocalDate to;
+        private final long[] itemIdRange;
+
+        SliceTask(List<LocalDate> boundaries, int lo, int hi, LocalDate from, LocalDate to, long[] itemIdRange) {
+            this.boundaries = boundaries;
+            this.lo = lo;
+            this.hi = hi;
+            this.from = from;
+            this.to = to;
+            this.itemIdRange = itemIdRange;
+        }
+
+        @Override
+        protected SalesAccumulator compute() {
+            if (hi - lo == 1) {
+                SalesAccumulator accumulator = new SalesAccumulator(from, to, itemIdRange[0], itemIdRange[1]);
+                readOnly.executeWithoutResult(status -> {
+                    salesAnalyticsRepository.accumulateItemSales(boundaries.get(lo).atStartOfDay(), boundaries.get(hi).atStartOfDay(), accumulator);
+                    salesAnalyticsRepository.accumulateDailySales(boundaries.get(lo).atStartOfDay(), boundaries.get(hi).atStartOfDay(), accumulator);
+                });
+                return accumulator;
+            }
+
+            int mid = (lo + hi) >>> 1;
+            SliceTask left = new SliceTask(boundaries, lo, mid, from, to, itemIdRange);
+            SliceTask right = new SliceTask(boundaries, mid, hi, from, to, itemIdRange);
+            left.fork();
+            SalesAccumulator result = right.compute();
+            return result.merge(left.join());
+        }
+    }
+
+    private Sales total(SalesAccumulator accumulator) {
+        long revenue = 0, units = 0, orders = 0, canceledOrders = 0;
+        for (int day = 0; day < accumulator.getDays(); day++) {
+            revenue += accumulator.dayRevenue(day);
+            units += accumulator.dayUnits(day);
+            orders += accumulator.dayOrders(day);
+            canceledOrders += accumulator.dayCanceledOrders(day);
+        }
+        return new Sales(revenue, units, orders, canceledOrders);
+    }
+
+    private List<ItemSales> itemSales(SalesAccumulator accumulator) {
+        List<Long> itemIds = new ArrayList<>();
+        for (int i = 0; i < accumulator.getItemSlots(); i++) {
+            long itemId = accumulator.getItemBase() + i;
+            if (accumulator.itemOrders(itemId) > 0) {
+                itemIds.add(itemId);
+            }
+        }
+
+        Map<Long, String> names = readOnly.execute(status -> salesAnalyticsRepository.findItemNames(itemIds));
+        return itemIds.stream()
+                .map(itemId -> new ItemSales(itemId, names.get(itemId), new Sales(
+                        accumulator.itemRevenue(itemId),
+                        accumulator.itemUnits(itemId),
+                        accumulator.itemOrders(itemId),
+                        accumulator.itemCanceledOrders(itemId))))
+                .sorted(Comparator.comparingLong((ItemSales s) -> s.getSales().getRevenue()).reversed())
+                .toList();
+    }
+
+    // 카테고리도 id 로 인덱스 되는 배열에 상품 값을 더함
+    private List<CategorySales> categorySales(SalesAccumulator accumulator) {
+        List<long[]> categoryItems = readOnly.execute(status -> salesAnalyticsRepository.findCategoryItems());
+        if (categoryItems.isEmpty()) {
+            return List.of();
+        }
+
+        long base = categoryItems.stream().mapToLong(pair -> pair[0]).min().getAsLong();
+        int slots = (int) (categoryItems.stream().mapToLong(pair -> pair[0]).max().getAsLong() - base + 1);
+        long[] revenue = new long[slots];
+        long[] units = new long[slots];
+        long[] orders = new long[slots];
+        long[] canceledOrders = new long[slots];
+
+        for (long[] pair : categoryItems) {
+            int index = (int) (pair[0] - base);
+            long itemId = pair[1];
+            revenue[index] += accumulator.itemRevenue(itemId);
+            units[index] += accumulator.itemUnits(itemId);
+            orders[index] += accumulator.itemOrders(itemId);
+            canceledOrders[index] += accumulator.itemCanceledOrders(itemId);
+        }
+
+        Map<Long, String> names = readOnly.execute(status -> salesAnalyticsRepository.findCategoryNames());
+        List<CategorySales> result = new ArrayList<>();
+        for (int i = 0; i < slots; i++) {
+            if (orders[i] > 0) {
+                long categoryId = base + i;
+                result.add(new CategorySales(categoryId, names.get(categoryId),
+                        new Sales(revenue[i], units[i], orders[i], canceledOrders[i])));
+            }
+        }
+        result.sort(Comparator.comparingLong((CategorySales s) -> s.getSales().getRevenue()).reversed());
+        return result;
+    }
+
+    // 일별 값을 버킷 단위로 합침 ( 주문이 없는 버킷도 0 으로 포함 )
+    private List<PeriodSales> periodSales(SalesAccumulator accumulator, SalesBucket bucket) {
+        List<PeriodSales> result = new ArrayList<>();
+        LocalDate start = accumulator.getFrom();
+        long revenue = 0, units = 0, orders = 0, canceledOrders = 0;
+
+        for (int day = 0; day < accumulator.getDays(); day++) {
+            LocalDate date = accumulator.getFrom().plusDays(day);
+            LocalDate bucketStart = bucket.start(date);
+            if (bucketStart.isAfter(start)) {
+                result.add(new PeriodSales(start, new Sales(revenue, units, orders, canceledOrders)));
+                start = bucketStart;
+                revenue = units = orders = canceledOrders = 0;
+            }
+            revenue += accumulator.dayRevenue(day);
+            units += accumulator.dayUnits(day);
+            orders += accumulator.dayOrders(day);
+            canceledOrders += accumulator.dayCanceledOrders(day);
+        }
+        result.add(new PeriodSales(start, new Sales(revenue, units, orders, canceledOrders)));
+        return result;
+    }
+}
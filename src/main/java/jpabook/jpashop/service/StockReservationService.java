@@ -0,0 +1,230 @@
+package jpabook.jpashop.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import jpabook.jpashop.domain.Item.Item;
+import jpabook.jpashop.exception.NotEnoughStockException;
+import jpabook.jpashop.repository.ItemStockRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 재고 예약
+ * 아이템마다 메모리 카운터를 두고 CAS 로 차감 -> 재고가 없으면 DB 에 가지 않고 바로 NotEnoughStockException
+ * 예약된 차감은 트랜잭션 커밋 직전에 조건부 update ( stock_quantity >= ? ) 로 한 번에 batch 반영
+ * DB 재고가 부족해서 update 가 실패하면 ( 다른 서버에서 먼저 팔린 경우 ) 트랜잭션을 롤백하고 카운터를 DB 값으로 다시 읽어옴
+ * 커밋 전에 다른 트랜잭션으로 반영하면 롤백 시 되돌릴 수 없기 때문에 batch 는 트랜잭션 단위로만 묶음
+ *
+ * 카운터는 DB 재고의 상한이 아님 - 다른 서버의 취소, 재입고, DB 직접 수정으로 DB 재고가 늘어날 수 있음
+ * -> 카운터가 바닥나면 reload-interval 에 한 번은 DB 에서 다시 읽어보고 그래도 부족할 때만 예외
+ * 다시 읽은 값에는 아직 커밋 안 된 다른 트랜잭션의 차감이 빠져 있어서 카운터가 DB 보다 클 수 있지만, 커밋 시 조건부 update 가 막아줌
+ * 롤백 / 취소 / 재입고 후에는 카운터에 더하지 않고 버림 ( 그 사이 다시 읽은 카운터에 더하면 재고가 부풀려짐 )
+ */
+@Service
+@RequiredArgsConstructor
+public class StockReservationService {
+
+    private final ItemStockRepository itemStockRepository;
+    private final EntityManagerFactory emf;
+
+    private final ConcurrentMap<Long, StockCounter> stocks = new ConcurrentHashMap<>();
+
+    // 바닥난 카운터를 DB 에서 다시 읽는 최소 간격 ( 품절 상품 주문마다 DB 를 읽지 않도록 )
+    @Value("${jpashop.stock.reload-interval:1s}")
+    private Duration reloadInterval;
+
+    /**
+     * 재고 예약 ( 주문 )
+     */
+    public void reserve(Long itemId, int count) {
+        StockChanges changes = currentChanges();
+        StockCounter stock = counter(itemId);
+
+        while (!stock.tryDecrease(count)) {
+            StockCounter reloaded = reload(itemId, stock);
+            if (reloaded == stock) {
+                throw new NotEnoughStockException("need more stock");
+            }
+            stock = reloaded;
+        }
+        changes.decreases.merge(itemId, count, Integer::sum);
+        changes.counters.put(itemId, stock);
+    }
+
+    /**
+     * 같은 트랜잭션에서 한 예약을 취소 ( 주문을 만들다가 실패한 경우 )
+     * 차감했던 카운터에 되돌림 - 그 사이 카운터를 다시 읽었으면 이전 카운터는 이미 버려졌으므로 영향 없음
+     */
+    public void cancelReservation(Long itemId, int count) {
+        StockChanges changes = currentChanges();
+        changes.decreases.computeIfPresent(itemId, (id, reserved) -> reserved == count ? null : reserved - count);
+        StockCounter stock = changes.counters.get(itemId);
+        if (stock != null) {
+            stock.remaining.addAndGet(count);
+        }
+    }
+
+    /**
+     * 예약 반환 ( 주문 취소 ) - 커밋된 이후에 카운터에 반영
+     */
+    public void release(Long itemId, int count) {
+        currentChanges().increases.merge(itemId, count, Integer::sum);
+    }
+
+    /**
+     * 재고 직접 수정 ( 상품 수정 ) - 커밋된 이후에 카운터를 버리고 DB 에서 다시 읽음
+     */
+    public void overwrite(Long itemId, int stockQuantity) {
+        currentChanges().overwrites.put(itemId, stockQuantity);
+    }
+
+    private StockChanges currentChanges() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("재고 변경은 트랜잭션 안에서만 가능합니다.");
+        }
+
+        StockChanges changes = (StockChanges) TransactionSynchronizationManager.getResource(this);
+        if (changes == null) {
+            changes = new StockChanges();
+            TransactionSynchronizationManager.bindResource(this, changes);
+            TransactionSynchronizationManager.registerSynchronization(changes);
+        }
+        return changes;
+    }
+
+    /**
+     * 카운터가 없으면 DB 에서 읽어서 만듦
+     * computeIfAbsent 안에서 DB 를 읽으면 조회하는 동안 같은 bin 의 다른 아이템까지 막히므로, 먼저 읽고 putIfAbsent
+     * 동시에 읽은 경우 먼저 넣은 카운터를 사용 ( 이미 차감이 시작됐을 수 있음 )
+     */
+    private StockCounter counter(Long itemId) {
+        StockCounter stock = stocks.get(itemId);
+        if (stock != null) {
+            return stock;
+        }
+        StockCounter loaded = load(itemId);
+        StockCounter existing = stocks.putIfAbsent(itemId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    /**
+     * 바닥난 카운터를 DB 값으로 교체
+     * 읽은 지 reload-interval 이 안 됐으면 그대로 리턴 ( 호출한 쪽에서 재고 부족으로 처리 )
+     * 다른 스레드가 먼저 교체했으면 그 카운터를 사용
+     */
+    private StockCounter reload(Long itemId, StockCounter stale) {
+        if (System.nanoTime() - stale.loadedAt < reloadInterval.toNanos()) {
+            return stale;
+        }
+        StockCounter loaded = load(itemId);
+        if (stocks.replace(itemId, stale, loaded)) {
+            return loaded;
+        }
+        return counter(itemId);
+    }
+
+    private StockCounter load(Long itemId) {
+        return new StockCounter(itemStockRepository.findStockQuantity(itemId));
+    }
+
+    /**
+     * 남은 재고 + DB 에서 읽은 시각
+     */
+    private static class StockCounter {
+
+        private final AtomicInteger remaining;
+        private final long loadedAt = System.nanoTime();
+
+        private StockCounter(int stockQuantity) {
+            this.remaining = new AtomicInteger(stockQuantity);
+        }
+
+        private boolean tryDecrease(int count) {
+            while (true) {
+                int current = remaining.get();
+                if (current < count) {
+                    return false;
+                }
+                if (remaining.compareAndSet(current, current - count)) {
+                    return true;
+                }
+            }
+        }
+    }
+
+    /**
+     * 트랜잭션 하나에서 발생한 재고 변경
+     * item_id 순으로 정렬해서 update -> 여러 트랜잭션이 같은 row 들을 잠글 때 데드락 방지
+     */
+    private class StockChanges implements TransactionSynchronization {
+
+        private final Map<Long, Integer> decreases = new TreeMap<>();
+        private final Map<Long, Integer> increases = new TreeMap<>();
+        private final Map<Long, Integer> overwrites = new TreeMap<>();
+        private final Set<Long> outOfStock = new HashSet<>();
+        private final Map<Long, StockCounter> counters = new HashMap<>(); // 아이템별로 마지막에 차감한 카운터
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            itemStockRepository.flush();
+
+            if (!overwrites.isEmpty()) {
+                itemStockRepository.overwriteAll(overwrites);
+            }
+
+            if (!decreases.isEmpty()) {
+                int[] updated = itemStockRepository.decreaseAll(decreases);
+                int i = 0;
+                for (Long itemId : decreases.keySet()) {
+                    if (updated[i++] == 0) {
+                        outOfStock.add(itemId);
+                    }
+                }
+                if (!outOfStock.isEmpty()) {
+                    throw new NotEnoughStockException("need more stock");
+                }
+            }
+
+            if (!increases.isEmpty()) {
+                itemStockRepository.increaseAll(increases);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(StockReservationService.this);
+
+            // 늘어난 재고는 카운터에 더하지 않고 버려서 다음 예약 때 DB 에서 다시 읽음
+            // ( 커밋 이후 ~ 여기 사이에 다른 스레드가 다시 읽었으면 더한 만큼 재고가 부풀려짐 )
+            if (status == STATUS_COMMITTED) {
+                increases.keySet().forEach(stocks::remove);
+                overwrites.keySet().forEach(stocks::remove);
+                evictItems();
+            } else {
+                decreases.keySet().forEach(stocks::remove);
+            }
+            // 메모리 카운터가 DB 보다 많았던 아이템은 다시 읽어오도록 버림
+            outOfStock.forEach(stocks::remove);
+        }
+
+        // JDBC 로 바로 update 했기 때문에 2차 캐시에 남아있는 재고는 오래된 값
+        private void evictItems() {
+            Set<Long> itemIds = new HashSet<>(decreases.keySet());
+            itemIds.addAll(increases.keySet());
+            itemIds.addAll(overwrites.keySet());
+            itemIds.forEach(itemId -> emf.getCache().evict(Item.class, itemId));
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package jpabook.jpashop;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+/**
+ * 테스트 트랜잭션 ( 롤백 ) 을 쓰지 않는 테스트가 커밋한 데이터 정리
+ * 같은 DB 를 쓰는 다른 테스트의 건수 / 합계에 섞이지 않도록 @AfterEach 에서 호출
+ */
+public final class CommittedTestData {
+
+    private CommittedTestData() {
+    }
+
+    /**
+     * 회원과 그 회원의 주문 ( 주문상품, 배송, 주문 요약 포함 ) 삭제
+     */
+    public static void deleteMember(JdbcTemplate jdbcTemplate, Long memberId) {
+        List<Long> deliveryIds = jdbcTemplate.queryForList(
+                "select delivery_id from orders where member_id = ?", Long.class, memberId);
+
+        jdbcTemplate.update("delete from order_summary where member_id = ?", memberId);
+        jdbcTemplate.update("delete from order_item where order_id in (select order_id from orders where member_id = ?)", memberId);
+        jdbcTemplate.update("delete from orders where member_id = ?", memberId);
+        deliveryIds.forEach(deliveryId -> jdbcTemplate.update("delete from delivery where delivery_id = ?", deliveryId));
+        jdbcTemplate.update("delete from member where member_id = ?", memberId);
+    }
+
+    /**
+     * 상품과 그 상품의 일별 매출 롤업 삭제 ( 주문은 deleteMember 로 먼저 지워야 함 )
+     */
+    public static void deleteItem(JdbcTemplate jdbcTemplate, Long itemId) {
+        jdbcTemplate.update("delete from daily_item_sales where item_id = ?", itemId);
+        jdbcTemplate.update("delete from category_item where item_id = ?", itemId);
+        jdbcTemplate.update("delete from item where item_id = ?", itemId);
+    }
+}
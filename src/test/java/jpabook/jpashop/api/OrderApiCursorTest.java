@@ -0,0 +1,135 @@
+package jpabook.jpashop.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Item.Book;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.service.OrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Keyset 페이징 ( V3.2, V5.1 ) 을 nextCursor 를 따라 끝까지 넘겨보기
+ * 주문 ORDERS 건 중 앞의 SAME_DATE 건은 orderDate 가 같음 -> order_id 로 순서가 정해져야 빠지거나 겹치지 않음
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+class OrderApiCursorTest {
+
+    static final int ORDERS = 7;
+    static final int SAME_DATE = 5;
+    static final int LIMIT = 2;
+
+    @Autowired MockMvc mockMvc;
+    @Autowired EntityManager em;
+    @Autowired OrderService orderService;
+    @Autowired ObjectMapper objectMapper;
+
+    List<Long> orderIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Member member = Member.builder()
+                .name("cursor-" + System.nanoTime())
+                .address(new Address("서울", "강가", "123-213"))
+                .build();
+        em.persist(member);
+
+        Book book = new Book();
+        book.setName("cursor-book");
+        book.setPrice(10000);
+        book.setStockQuantity(100);
+        em.persist(book);
+
+        for (int i = 0; i < ORDERS; i++) {
+            orderIds.add(orderService.order(member.getId(), book.getId(), 1));
+        }
+        em.flush();
+
+        em.createQuery("update Order o set o.orderDate = :orderDate where o.id in :ids")
+                .setParameter("orderDate", LocalDateTime.of(2024, 1, 1, 12, 0))
+                .setParameter("ids", orderIds.subList(0, SAME_DATE))
+                .executeUpdate();
+        em.clear();
+    }
+
+    @Test
+    public void 주문조회V3_2_커서를_따라가면_모든주문을_한번씩() throws Exception {
+        assertEveryOrderOnce("/api/v3.2/orders");
+    }
+
+    @Test
+    public void 주문조회V5_1_커서를_따라가면_모든주문을_한번씩() throws Exception {
+        assertEveryOrderOnce("/api/v5.1/orders");
+    }
+
+    @Test
+    public void 남은주문이_딱_limit개면_그페이지가_마지막() throws Exception {
+
+        // given
+        int total = totalOrderCount();
+
+        // when
+        JsonNode page = page(get("/api/v3.2/orders").param("limit", String.valueOf(total)));
+
+        // then
+        assertEquals(total, page.get("data").size());
+        assertTrue(page.get("nextCursor").isNull());
+    }
+
+    private void assertEveryOrderOnce(String url) throws Exception {
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+
+        do {
+            MockHttpServletRequestBuilder request = get(url).param("limit", String.valueOf(LIMIT));
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            JsonNode page = page(request);
+            JsonNode data = page.get("data");
+            assertFalse(data.isEmpty()); // 빈 페이지를 받으러 한 번 더 요청하지 않음
+            assertTrue(data.size() <= LIMIT);
+            data.forEach(order -> seen.add(order.get("orderId").asLong()));
+
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+            assertTrue(++pages <= totalOrderCount(), "nextCursor 가 끝나지 않음");
+        } while (cursor != null);
+
+        assertEquals(seen.stream().distinct().count(), seen.size());
+        assertEquals(totalOrderCount(), seen.size());
+        // 같은 orderDate 안에서는 order_id 순
+        assertEquals(orderIds, seen.stream().filter(orderIds::contains).toList());
+    }
+
+    private JsonNode page(MockHttpServletRequestBuilder request) throws Exception {
+        String body = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private int totalOrderCount() {
+        return em.createQuery("select count(o) from Order o", Long.class).getSingleResult().intValue();
+    }
+}
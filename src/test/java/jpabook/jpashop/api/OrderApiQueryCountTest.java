@@ -0,0 +1,166 @@
+package jpabook.jpashop.api;
+
+import jakarta.persistence.EntityManager;
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Item.Book;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.dto.OrderLineDto;
+import jpabook.jpashop.monitoring.QueryBudgetInterceptor;
+import jpabook.jpashop.monitoring.QueryStatistics;
+import jpabook.jpashop.service.OrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 주문 조회 API 버전별 SQL 실행 수
+ * 주문 ORDERS 건 ( 회원 MEMBERS 명, 주문 당 상품 2 개 ) 기준, 요청마다 영속성 컨텍스트와 2차 캐시를 비우고 측정
+ * @QueryBudget 을 넘으면 요청 자체가 실패하도록 fail-on-exceed 를 켬
+ */
+@SpringBootTest(properties = "jpashop.sql.budget.fail-on-exceed=true")
+@AutoConfigureMockMvc
+@Transactional
+class OrderApiQueryCountTest {
+
+    static final int ORDERS = 10;
+    static final int MEMBERS = 3;
+
+    @Autowired MockMvc mockMvc;
+    @Autowired EntityManager em;
+    @Autowired OrderService orderService;
+
+    @BeforeEach
+    void setUp() {
+        List<Long> memberIds = new ArrayList<>();
+        for (int i = 0; i < MEMBERS; i++) {
+            Member member = Member.builder()
+                    .name("query-count-" + i)
+                    .address(new Address("서울", "강가", "123-213"))
+                    .build();
+            em.persist(member);
+            memberIds.add(member.getId());
+        }
+
+        List<Long> itemIds = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Book book = new Book();
+            book.setName("book" + i);
+            book.setPrice(10000);
+            book.setStockQuantity(1000);
+            em.persist(book);
+            itemIds.add(book.getId());
+        }
+
+        for (int i = 0; i < ORDERS; i++) {
+            orderService.order(memberIds.get(i % MEMBERS), List.of(
+                    new OrderLineDto(itemIds.get(i % 4), 1),
+                    new OrderLineDto(itemIds.get((i + 1) % 4), 1)));
+        }
+        em.flush();
+    }
+
+    @Test
+    public void 주문조회V2_batchFetch() throws Exception {
+        // order 1 + member 1 + delivery 1 + orderItems 1 + item 1
+        assertEquals(5, statementCount("/api/v2/orders"));
+    }
+
+    @Test
+    public void 주문조회V3_컬렉션fetchJoin() throws Exception {
+        assertEquals(1, statementCount("/api/v3/orders"));
+    }
+
+    @Test
+    public void 주문조회V3_1_페이징() throws Exception {
+        // order + member + delivery 1 + orderItems 1 + item 1
+        assertEquals(3, statementCount("/api/v3.1/orders?offset=0&limit=100"));
+    }
+
+    @Test
+    public void 주문조회V3_2_Keyset페이징() throws Exception {
+        assertEquals(3, statementCount("/api/v3.2/orders?limit=100"));
+    }
+
+    @Test
+    public void 주문조회V4_DTO직접조회() throws Exception {
+        // 루트 1 + 주문마다 orderItems 1
+        assertEquals(1 + ORDERS, statementCount("/api/v4/orders"));
+    }
+
+    @Test
+    public void 주문조회V5_컬렉션in쿼리() throws Exception {
+        assertEquals(2, statementCount("/api/v5/orders"));
+    }
+
+    @Test
+    public void 주문조회V5_1_Keyset페이징() throws Exception {
+        assertEquals(2, statementCount("/api/v5.1/orders?limit=100"));
+    }
+
+    @Test
+    public void 주문조회V5_2_JSON조각캐시() throws Exception {
+        // 처음 : 버전 1 + 루트 1 + orderItems 1, 다음 : 버전 1
+        assertEquals(3, statementCount("/api/v5.2/orders"));
+        assertEquals(1, statementCount("/api/v5.2/orders"));
+    }
+
+    @Test
+    public void 주문조회V6_flat() throws Exception {
+        assertEquals(1, statementCount("/api/v6/orders"));
+    }
+
+    @Test
+    public void 간단주문조회V2_batchFetch() throws Exception {
+        // order 1 + member 1 + delivery 1
+        assertEquals(3, statementCount("/api/v2/simple-orders"));
+    }
+
+    @Test
+    public void 간단주문조회V3_fetchJoin() throws Exception {
+        assertEquals(1, statementCount("/api/v3/simple-orders"));
+    }
+
+    @Test
+    public void 간단주문조회V4_DTO직접조회() throws Exception {
+        assertEquals(1, statementCount("/api/v4/simple-orders"));
+    }
+
+    @Test
+    public void 페이지크기_범위밖이면_400() throws Exception {
+        mockMvc.perform(get("/api/v3.2/orders").param("limit", "-1"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v5.1/orders").param("limit", String.valueOf(OrderApiController.MAX_PAGE_SIZE + 1)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v3.1/orders").param("offset", "-1"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v5/simple-orders").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v5/simple-orders").param("limit", "1000000"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private int statementCount(String url) throws Exception {
+        em.clear();
+        em.getEntityManagerFactory().getCache().evictAll();
+
+        MvcResult result = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        QueryStatistics statistics = (QueryStatistics) result.getRequest().getAttribute(QueryBudgetInterceptor.ATTRIBUTE);
+        assertNotNull(statistics);
+        return statistics.getStatementCount();
+    }
+}
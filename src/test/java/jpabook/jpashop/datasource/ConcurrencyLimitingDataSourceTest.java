@@ -0,0 +1,52 @@
+package jpabook.jpashop.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitingDataSourceTest {
+
+    JdbcConcurrencyLimiter limiter;
+    ConcurrencyLimitingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new JdbcConcurrencyLimiter(1, Duration.ofMillis(100));
+        dataSource = new ConcurrencyLimitingDataSource(
+                new DriverManagerDataSource("jdbc:h2:mem:concurrency-limit;DB_CLOSE_DELAY=-1", "sa", ""), limiter);
+    }
+
+    @Test
+    public void 제한수만큼_사용중이면_대기후_실패() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            assertEquals(1, limiter.getActive());
+            assertThrows(SQLTransientConnectionException.class, () -> dataSource.getConnection());
+        }
+        assertEquals(0, limiter.getActive());
+
+        try (Connection connection = dataSource.getConnection()) {
+            assertFalse(connection.isClosed());
+        }
+    }
+
+    @Test
+    public void close_여러번_호출해도_허가는_한번만_반납() throws Exception {
+        Connection connection = dataSource.getConnection();
+        connection.close();
+        connection.close();
+
+        assertTrue(connection.isClosed());
+        assertEquals(0, limiter.getActive());
+
+        // 허가가 두 번 반납됐다면 두 개를 동시에 가져올 수 있음
+        try (Connection first = dataSource.getConnection()) {
+            assertThrows(SQLTransientConnectionException.class, () -> dataSource.getConnection());
+        }
+    }
+}
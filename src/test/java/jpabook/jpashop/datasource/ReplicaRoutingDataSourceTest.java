@@ -0,0 +1,155 @@
+package jpabook.jpashop.datasource;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * H2 메모리 DB 두 개를 primary / replica 로 사용
+ * 각 DB 의 node 테이블에 자기 이름을 넣어 두고, 어느 DB 에서 읽었는지 확인
+ */
+class ReplicaRoutingDataSourceTest {
+
+    ReplicaRoutingDataSource routingDataSource;
+    JdbcTemplate jdbcTemplate;
+    TransactionTemplate readWrite;
+    TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = createNode("routing-primary", "primary");
+        DataSource replica = createNode("routing-replica", "replica");
+
+        routingDataSource = new ReplicaRoutingDataSource(primary, Map.of("replica-0", replica), Duration.ofSeconds(3));
+        routingDataSource.afterPropertiesSet();
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadAfterWrite.clear();
+    }
+
+    @Test
+    public void 읽기전용트랜잭션은_replica() throws Exception {
+        assertEquals("replica", readOnly.execute(status -> currentNode()));
+    }
+
+    @Test
+    public void 쓰기트랜잭션은_primary() throws Exception {
+        assertEquals("primary", readWrite.execute(status -> currentNode()));
+    }
+
+    @Test
+    public void 쓰기직후_읽기는_primary() throws Exception {
+
+        // given
+        readWrite.executeWithoutResult(status -> jdbcTemplate.update("update node set name = name"));
+
+        // when
+        String sticky = readOnly.execute(status -> currentNode());
+        ReadAfterWrite.clear();
+        String afterWindow = readOnly.execute(status -> currentNode());
+
+        // then
+        assertEquals("primary", sticky);
+        assertEquals("replica", afterWindow);
+    }
+
+    @Test
+    public void 쓰기롤백후_읽기는_replica() throws Exception {
+
+        // given
+        readWrite.executeWithoutResult(status -> {
+            jdbcTemplate.update("update node set name = name");
+            status.setRollbackOnly();
+        });
+
+        // then
+        assertEquals("replica", readOnly.execute(status -> currentNode()));
+    }
+
+    @Test
+    public void 쿠키의_primary고정시각은_stickyWindow까지만_인정() throws Exception {
+
+        // given ( 클라이언트가 쿠키를 먼 미래 값으로 바꿔서 보냄 )
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(new Cookie(ReadAfterWrite.COOKIE_NAME, String.valueOf(Long.MAX_VALUE)));
+        long before = System.currentTimeMillis();
+
+        // when
+        ReadAfterWrite.begin(request, Duration.ofSeconds(3));
+
+        // then
+        assertTrue(ReadAfterWrite.isSticky());
+        assertTrue(ReadAfterWrite.primaryUntil() <= System.currentTimeMillis() + 3000);
+        assertTrue(ReadAfterWrite.primaryUntil() >= before + 3000);
+    }
+
+    @Test
+    public void 지연된replica는_사용안함() throws Exception {
+
+        // given
+        ReplicaHealthChecker lagging = new ReplicaHealthChecker(routingDataSource, "select 10", Duration.ofSeconds(5));
+        ReplicaHealthChecker recovered = new ReplicaHealthChecker(routingDataSource, "select 1", Duration.ofSeconds(5));
+
+        // when
+        lagging.check();
+        String whileLagging = readOnly.execute(status -> currentNode());
+        recovered.check();
+        String afterRecovery = readOnly.execute(status -> currentNode());
+
+        // then
+        assertEquals("primary", whileLagging);
+        assertEquals("replica", afterRecovery);
+    }
+
+    @Test
+    public void 연결안되는replica는_사용안함() throws Exception {
+
+        // given
+        DataSource primary = createNode("routing-primary", "primary");
+        DataSource broken = new DriverManagerDataSource("jdbc:h2:tcp://localhost:1/~/routing-broken", "sa", "");
+        routingDataSource = new ReplicaRoutingDataSource(primary, Map.of("replica-0", broken), Duration.ofSeconds(3));
+        routingDataSource.afterPropertiesSet();
+        ReplicaHealthChecker checker = new ReplicaHealthChecker(routingDataSource, null, Duration.ofSeconds(5));
+
+        // when
+        checker.check();
+
+        // then
+        assertFalse(routingDataSource.isHealthy("replica-0"));
+    }
+
+    private String currentNode() {
+        return jdbcTemplate.queryForObject("select name from node", String.class);
+    }
+
+    private DataSource createNode(String database, String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.execute("create table if not exists node (name varchar(20))");
+        template.update("delete from node");
+        template.update("insert into node (name) values (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,179 @@
+package jpabook.jpashop.datasource;
+
+import jakarta.persistence.EntityManager;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 실제 설정 ( JpaTransactionManager + OSIV + LazyConnectionDataSourceProxy + 트랜잭션 후 커넥션 반납 ) 으로 라우팅 확인
+ * replica 는 H2 메모리 DB, primary 와 replica 의 routing_node 테이블에 자기 이름을 넣어 두고 어느 DB 에서 읽었는지 확인
+ */
+@SpringBootTest(properties = {
+        "jpashop.datasource.routing.enabled=true",
+        "jpashop.datasource.routing.sticky-window=3s",
+        "jpashop.datasource.routing.replicas[0].url=" + ReplicaRoutingJpaTest.REPLICA_URL,
+        "jpashop.datasource.routing.replicas[0].username=sa",
+        "jpashop.datasource.routing.replicas[0].password="
+})
+@AutoConfigureMockMvc
+class ReplicaRoutingJpaTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-jpa-replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired MockMvc mockMvc;
+    @Autowired @Qualifier("primaryDataSource") DataSource primaryDataSource;
+
+    JdbcTemplate primary;
+    JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        primary = createNode(primaryDataSource, "primary");
+        replica = createNode(new DriverManagerDataSource(REPLICA_URL, "sa", ""), "replica");
+    }
+
+    @AfterEach
+    void tearDown() {
+        primary.execute("drop table if exists routing_node");
+        replica.execute("drop table if exists routing_node");
+    }
+
+    @Test
+    public void 읽기전용트랜잭션은_replica() throws Exception {
+        mockMvc.perform(get("/test/routing/read"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("replica"));
+    }
+
+    @Test
+    public void OSIV로_세션이_열려있어도_트랜잭션마다_readOnly에맞는_DB사용() throws Exception {
+        mockMvc.perform(get("/test/routing/read-write-read"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[\"replica\", \"primary\", \"primary\"]"));
+    }
+
+    @Test
+    public void 쓰기한_클라이언트의_다음요청은_쿠키로_primary() throws Exception {
+
+        // given
+        MvcResult written = mockMvc.perform(post("/test/routing/write"))
+                .andExpect(status().isOk())
+                .andReturn();
+        Cookie cookie = written.getResponse().getCookie(ReadAfterWrite.COOKIE_NAME);
+        assertNotNull(cookie);
+
+        // when, then
+        mockMvc.perform(get("/test/routing/read").cookie(cookie))
+                .andExpect(content().string("primary"));
+        mockMvc.perform(get("/test/routing/read"))
+                .andExpect(content().string("replica"));
+    }
+
+    @Test
+    public void 지난시각의_쿠키는_replica() throws Exception {
+        Cookie expired = new Cookie(ReadAfterWrite.COOKIE_NAME, String.valueOf(System.currentTimeMillis() - 1));
+
+        mockMvc.perform(get("/test/routing/read").cookie(expired))
+                .andExpect(content().string("replica"));
+    }
+
+    private JdbcTemplate createNode(DataSource dataSource, String name) {
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.execute("create table if not exists routing_node (name varchar(20))");
+        template.update("delete from routing_node");
+        template.update("insert into routing_node (name) values (?)", name);
+        return template;
+    }
+
+    @TestConfiguration
+    static class RoutingTestConfig {
+
+        @Bean
+        RoutingNodeService routingNodeService(EntityManager em) {
+            return new RoutingNodeService(em);
+        }
+
+        @Bean
+        RoutingTestController routingTestController(RoutingNodeService routingNodeService) {
+            return new RoutingTestController(routingNodeService);
+        }
+    }
+
+    static class RoutingNodeService {
+
+        private final EntityManager em;
+
+        RoutingNodeService(EntityManager em) {
+            this.em = em;
+        }
+
+        @Transactional(readOnly = true)
+        public String read() {
+            return currentNode();
+        }
+
+        @Transactional
+        public String write() {
+            em.createNativeQuery("update routing_node set name = name").executeUpdate();
+            return currentNode();
+        }
+
+        private String currentNode() {
+            return (String) em.createNativeQuery("select name from routing_node").getSingleResult();
+        }
+    }
+
+    @RestController
+    static class RoutingTestController {
+
+        private final RoutingNodeService routingNodeService;
+
+        RoutingTestController(RoutingNodeService routingNodeService) {
+            this.routingNodeService = routingNodeService;
+        }
+
+        @GetMapping("/test/routing/read")
+        public String read() {
+            return routingNodeService.read();
+        }
+
+        @PostMapping("/test/routing/write")
+        public String write() {
+            return routingNodeService.write();
+        }
+
+        // 한 요청 ( OSIV 영속성 컨텍스트 하나 ) 안에서 읽기 -> 쓰기 -> 쓰기 직후 읽기
+        @GetMapping("/test/routing/read-write-read")
+        public List<String> readWriteRead() {
+            String before = routingNodeService.read();
+            String written = routingNodeService.write();
+            String after = routingNodeService.read();
+            return List.of(before, written, after);
+        }
+    }
+}
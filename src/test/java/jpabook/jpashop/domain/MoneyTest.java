@@ -0,0 +1,44 @@
+package jpabook.jpashop.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    public void 가격곱하기수량_int범위초과() throws Exception {
+        assertEquals(4_000_000_000L, Money.multiply(2_000_000_000, 2));
+    }
+
+    @Test
+    public void 블록단위_합계() throws Exception {
+
+        // given ( 블록 경계를 넘는 길이, 뒤쪽은 무시해야 하는 값 )
+        long[] amounts = new long[Money.BLOCK * 3];
+        Arrays.fill(amounts, 0, Money.BLOCK * 2 + 7, 1_000_000_000L);
+        Arrays.fill(amounts, Money.BLOCK * 2 + 7, amounts.length, -1);
+
+        // when
+        long sum = Money.sum(amounts, Money.BLOCK * 2 + 7);
+
+        // then
+        assertEquals((Money.BLOCK * 2 + 7) * 1_000_000_000L, sum);
+    }
+
+    @Test
+    public void 합계가_long범위를_넘으면_예외() throws Exception {
+        long[] amounts = new long[Money.BLOCK * 2];
+        Arrays.fill(amounts, Money.MAX_AMOUNT);
+
+        assertThrows(ArithmeticException.class, () -> Money.sum(amounts, amounts.length));
+    }
+
+    @Test
+    public void 주문금액_범위검증() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> Money.checkAmount(Money.MAX_AMOUNT + 1));
+        assertThrows(IllegalArgumentException.class, () -> Money.checkAmount(-1));
+    }
+}
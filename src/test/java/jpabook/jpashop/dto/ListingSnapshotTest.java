@@ -0,0 +1,37 @@
+package jpabook.jpashop.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ListingSnapshotTest {
+
+    @Test
+    public void 내용이같으면_ETag도같음() throws Exception {
+
+        // when
+        ListingSnapshot<MemberSummaryDto> first = new ListingSnapshot<>(List.of(new MemberSummaryDto(1L, "회원1")));
+        ListingSnapshot<MemberSummaryDto> second = new ListingSnapshot<>(List.of(new MemberSummaryDto(1L, "회원1")));
+
+        // then
+        assertEquals(first.getEtag(), second.getEtag());
+    }
+
+    @Test
+    public void hashCode가_같아도_내용이다르면_ETag가다름() throws Exception {
+
+        // given ( "Aa" 와 "BB" 는 String.hashCode 가 같음 )
+        List<MemberSummaryDto> before = List.of(new MemberSummaryDto(1L, "Aa"));
+        List<MemberSummaryDto> after = List.of(new MemberSummaryDto(1L, "BB"));
+        assertEquals(before.hashCode(), after.hashCode());
+
+        // when
+        String beforeEtag = new ListingSnapshot<>(before).getEtag();
+        String afterEtag = new ListingSnapshot<>(after).getEtag();
+
+        // then
+        assertNotEquals(beforeEtag, afterEtag);
+    }
+}
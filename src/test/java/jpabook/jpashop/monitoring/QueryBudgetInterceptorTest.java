@@ -0,0 +1,162 @@
+package jpabook.jpashop.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.ServletException;
+import jpabook.jpashop.exception.QueryBudgetExceededException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 같은 select 를 바인딩 값만 바꿔서 3 번 실행하는 ( N + 1 ) 테스트 전용 핸들러로 확인
+ */
+@SpringBootTest(properties = "jpashop.sql.budget.fail-on-exceed=true")
+@AutoConfigureMockMvc
+class QueryBudgetInterceptorTest {
+
+    static final String N_PLUS_ONE_SQL = "select name from member where member_id = ?";
+
+    @Autowired MockMvc mockMvc;
+    @Autowired MeterRegistry meterRegistry;
+
+    @Test
+    public void 바인딩값만_다른_select_반복은_N플러스1로_기록() throws Exception {
+
+        // given
+        double before = counter("jpashop.sql.repeated", "within");
+
+        // when
+        MvcResult result = mockMvc.perform(get("/test/query-budget/within"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        // then
+        QueryStatistics statistics = statistics(result);
+        assertEquals(3, statistics.getStatementCount());
+        assertEquals(3, statistics.getExecutionCount(N_PLUS_ONE_SQL));
+        assertEquals(List.of(N_PLUS_ONE_SQL), List.copyOf(statistics.getRepeatedStatements()));
+        assertEquals(before + 1, counter("jpashop.sql.repeated", "within"));
+    }
+
+    @Test
+    public void 같은바인딩으로_반복한_select는_N플러스1이_아님() throws Exception {
+
+        // when
+        MvcResult result = mockMvc.perform(get("/test/query-budget/same-binding"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        // then
+        QueryStatistics statistics = statistics(result);
+        assertEquals(3, statistics.getStatementCount());
+        assertTrue(statistics.getRepeatedStatements().isEmpty());
+    }
+
+    @Test
+    public void 예산을_넘으면_응답을_쓰기전에_실패하고_메트릭기록() throws Exception {
+
+        // given
+        double before = counter("jpashop.sql.budget.exceeded", "over");
+
+        // when
+        ServletException e = assertThrows(ServletException.class, () ->
+                mockMvc.perform(get("/test/query-budget/over")));
+
+        // then
+        QueryBudgetExceededException cause = assertInstanceOf(QueryBudgetExceededException.class, e.getCause());
+        assertTrue(cause.getMessage().contains("SQL 3 번 실행 ( 예산 1 번 )"), cause.getMessage());
+        assertEquals(before + 1, counter("jpashop.sql.budget.exceeded", "over"));
+    }
+
+    @Test
+    public void 비동기요청은_요청스레드에_통계를_남기지않고_비동기디스패치에서_이어서기록() throws Exception {
+
+        // when
+        MvcResult started = mockMvc.perform(get("/test/query-budget/async"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // then ( MockMvc 는 테스트 스레드에서 요청을 처리함 )
+        assertNull(QueryStatisticsHolder.current());
+
+        mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+        assertEquals(1, statistics(started).getStatementCount());
+        assertNull(QueryStatisticsHolder.current());
+    }
+
+    private QueryStatistics statistics(MvcResult result) {
+        return (QueryStatistics) result.getRequest().getAttribute(QueryBudgetInterceptor.ATTRIBUTE);
+    }
+
+    private double counter(String name, String method) {
+        return meterRegistry.counter(name, "handler", "QueryBudgetTestController." + method).count();
+    }
+
+    @TestConfiguration
+    static class QueryBudgetTestConfig {
+
+        @Bean
+        QueryBudgetTestController queryBudgetTestController(JdbcTemplate jdbcTemplate) {
+            return new QueryBudgetTestController(jdbcTemplate);
+        }
+    }
+
+    @RestController
+    static class QueryBudgetTestController {
+
+        private final JdbcTemplate jdbcTemplate;
+
+        QueryBudgetTestController(JdbcTemplate jdbcTemplate) {
+            this.jdbcTemplate = jdbcTemplate;
+        }
+
+        @QueryBudget(3)
+        @GetMapping("/test/query-budget/within")
+        public List<String> within() {
+            return nPlusOne(1L, 2L, 3L);
+        }
+
+        @QueryBudget(3)
+        @GetMapping("/test/query-budget/same-binding")
+        public List<String> sameBinding() {
+            return nPlusOne(1L, 1L, 1L);
+        }
+
+        @QueryBudget(1)
+        @GetMapping("/test/query-budget/over")
+        public List<String> over() {
+            return nPlusOne(1L, 2L, 3L);
+        }
+
+        @QueryBudget(1)
+        @GetMapping("/test/query-budget/async")
+        public Callable<List<String>> async() {
+            List<String> names = nPlusOne(1L);
+            return () -> names;
+        }
+
+        private List<String> nPlusOne(Long... memberIds) {
+            return Arrays.stream(memberIds)
+                    .flatMap(memberId -> jdbcTemplate.queryForList(N_PLUS_ONE_SQL, String.class, memberId).stream())
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package jpabook.jpashop.repository;
+
+import jpabook.jpashop.CommittedTestData;
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Item.Book;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.dto.OrderSearchPage;
+import jpabook.jpashop.service.ItemService;
+import jpabook.jpashop.service.MemberService;
+import jpabook.jpashop.service.OrderService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * trigram 인덱스는 회원 가입이 커밋된 후에 반영되므로 테스트 트랜잭션 ( 롤백 ) 을 쓰지 않음
+ */
+@SpringBootTest(properties = "jpashop.member-name-index.enabled=true")
+class OrderRepositorySearchTest {
+
+    @Autowired OrderRepository orderRepository;
+    @Autowired OrderService orderService;
+    @Autowired MemberService memberService;
+    @Autowired ItemService itemService;
+    @Autowired TransactionTemplate transactionTemplate;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    String token;
+    Long kimId;
+    Long leeId;
+    Long bookId;
+
+    @BeforeEach
+    void setUp() {
+        token = "srch" + System.nanoTime();
+        kimId = join(token + "-kim");
+        leeId = join("x" + token + "-lee"); // token 을 포함하지만 token 으로 시작하지는 않음
+
+        Book book = new Book();
+        book.setName("시골 JPA");
+        book.setPrice(10000);
+        book.setStockQuantity(100);
+        itemService.save(book);
+        bookId = book.getId();
+
+        for (int i = 0; i < 5; i++) {
+            orderService.order(kimId, bookId, 1);
+        }
+        orderService.order(leeId, bookId, 1);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        CommittedTestData.deleteMember(jdbcTemplate, kimId);
+        CommittedTestData.deleteMember(jdbcTemplate, leeId);
+        CommittedTestData.deleteItem(jdbcTemplate, bookId);
+    }
+
+    @Test
+    public void 페이지를_나눠서_최신주문부터_조회() throws Exception {
+
+        // given
+        List<Long> expected = jdbcTemplate.queryForList(
+                "select order_id from orders where member_id = ? order by order_date desc, order_id desc", Long.class, kimId);
+        OrderSearch orderSearch = search(token + "-kim", NameMatchMode.EXACT);
+
+        // when
+        List<Long> paged = new ArrayList<>();
+        OrderSearchPage last = null;
+        for (int page = 0; page < 3; page++) {
+            last = search(orderSearch, page, 2);
+            assertEquals(page < 2, last.hasNext());
+            assertEquals(page > 0, last.hasPrevious());
+            paged.addAll(ids(last));
+        }
+
+        // then
+        assertEquals(expected, paged);
+        assertEquals(1, last.getContent().size());
+        assertEquals(5, last.getTotalCount());
+        assertFalse(last.isTotalCountCapped());
+    }
+
+    @Test
+    public void 전체건수는_제한까지만_세고_넘으면_표시() throws Exception {
+
+        // when
+        OrderSearchPage page = transactionTemplate.execute(status ->
+                orderRepository.search(search(token + "-kim", NameMatchMode.EXACT), 0, 2, 3));
+
+        // then
+        assertEquals(2, page.getContent().size());
+        assertEquals(3, page.getTotalCount());
+        assertTrue(page.isTotalCountCapped());
+        assertTrue(page.hasNext());
+    }
+
+    @Test
+    public void 이름검색방식별_결과() throws Exception {
+
+        // when
+        List<Long> exact = memberIds(search(search(token + "-kim", NameMatchMode.EXACT), 0, 20));
+        List<Long> prefix = memberIds(search(search(token, NameMatchMode.PREFIX), 0, 20));
+        List<Long> contains = memberIds(search(search(token.toUpperCase(), NameMatchMode.CONTAINS), 0, 20)); // trigram 인덱스는 대소문자 구분 없음
+
+        // then
+        assertEquals(5, exact.size());
+        assertTrue(exact.stream().allMatch(kimId::equals));
+        assertEquals(5, prefix.size());
+        assertTrue(prefix.stream().allMatch(kimId::equals));
+        assertEquals(6, contains.size());
+        assertEquals(1, contains.stream().filter(leeId::equals).count());
+    }
+
+    @Test
+    public void 이름검색방식이_없으면_부분일치() throws Exception {
+
+        // given
+        OrderSearch orderSearch = search(token, null);
+
+        // when
+        OrderSearchPage page = search(orderSearch, 0, 20);
+
+        // then
+        assertEquals(6, page.getTotalCount());
+    }
+
+    @Test
+    public void offset_이_int범위를_넘는페이지는_예외() throws Exception {
+        assertThrows(IllegalArgumentException.class, () ->
+                orderRepository.search(search(token, NameMatchMode.EXACT), Integer.MAX_VALUE / 10, 20));
+    }
+
+    private Long join(String name) {
+        return memberService.join(Member.builder()
+                .name(name)
+                .address(new Address("서울", "강가", "123-123"))
+                .build());
+    }
+
+    private OrderSearch search(String name, NameMatchMode nameMatchMode) {
+        OrderSearch orderSearch = new OrderSearch();
+        orderSearch.setName(name);
+        orderSearch.setNameMatchMode(nameMatchMode);
+        return orderSearch;
+    }
+
+    private OrderSearchPage search(OrderSearch orderSearch, int page, int size) {
+        return transactionTemplate.execute(status -> orderRepository.search(orderSearch, page, size));
+    }
+
+    private List<Long> ids(OrderSearchPage page) {
+        return page.getContent().stream().map(Order::getId).toList();
+    }
+
+    private List<Long> memberIds(OrderSearchPage page) {
+        return page.getContent().stream().map(o -> o.getMember().getId()).toList();
+    }
+}
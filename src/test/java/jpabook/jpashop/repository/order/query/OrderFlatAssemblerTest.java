@@ -0,0 +1,102 @@
+package jpabook.jpashop.repository.order.query;
+
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.dto.OrderFlatDto;
+import jpabook.jpashop.dto.OrderItemQueryDto;
+import jpabook.jpashop.dto.OrderQueryDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderFlatAssemblerTest {
+
+    static final LocalDateTime ORDER_DATE = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Test
+    public void 연속된_같은주문의_row를_한주문으로_묶음() throws Exception {
+
+        // given
+        List<OrderFlatDto> flats = List.of(
+                flat(1L, "userA", "JPA1", 10000, 1),
+                flat(1L, "userA", "JPA2", 20000, 2),
+                flat(2L, "userB", "SPRING1", 30000, 3),
+                flat(3L, "userA", "JPA1", 10000, 4),
+                flat(3L, "userA", "SPRING1", 30000, 5),
+                flat(3L, "userA", "SPRING2", 40000, 6));
+
+        // when
+        List<OrderQueryDto> orders = OrderFlatAssembler.assemble(flats);
+
+        // then
+        assertEquals(List.of(1L, 2L, 3L), orders.stream().map(OrderQueryDto::getOrderId).toList());
+        assertEquals(List.of("JPA1", "JPA2"), itemNames(orders.get(0)));
+        assertEquals(List.of("SPRING1"), itemNames(orders.get(1)));
+        assertEquals(List.of("JPA1", "SPRING1", "SPRING2"), itemNames(orders.get(2)));
+
+        OrderQueryDto first = orders.get(0);
+        assertEquals("userA", first.getName());
+        assertEquals(ORDER_DATE, first.getOrderDate());
+        assertEquals(OrderStatus.ORDER, first.getOrderStatus());
+        assertEquals("서울", first.getAddress().getCity());
+        OrderItemQueryDto second = first.getOrderItems().get(1);
+        assertEquals(1L, second.getOrderId());
+        assertEquals(20000, second.getOrderPrice());
+        assertEquals(2, second.getOrderCount());
+    }
+
+    @Test
+    public void 주문은_다음주문의_row가_나와야_완성됨() throws Exception {
+
+        // given
+        OrderFlatAssembler assembler = new OrderFlatAssembler();
+
+        // when, then
+        assertNull(assembler.add(flat(1L, "userA", "JPA1", 10000, 1)));
+        assertNull(assembler.add(flat(1L, "userA", "JPA2", 20000, 2)));
+
+        OrderQueryDto completed = assembler.add(flat(2L, "userB", "SPRING1", 30000, 3));
+        assertEquals(1L, completed.getOrderId());
+        assertEquals(2, completed.getOrderItems().size());
+
+        OrderQueryDto last = assembler.finish();
+        assertEquals(2L, last.getOrderId());
+        assertNull(assembler.finish());
+    }
+
+    @Test
+    public void 같은주문의_row가_떨어져있으면_예외() throws Exception {
+
+        // given ( order_id 로 정렬되지 않은 입력 )
+        List<OrderFlatDto> flats = List.of(
+                flat(1L, "userA", "JPA1", 10000, 1),
+                flat(2L, "userB", "SPRING1", 30000, 3),
+                flat(1L, "userA", "JPA2", 20000, 2));
+
+        // when, then
+        assertThrows(IllegalStateException.class, () -> OrderFlatAssembler.assemble(flats));
+    }
+
+    @Test
+    public void row가_없으면_빈목록() throws Exception {
+
+        // when
+        List<OrderQueryDto> orders = OrderFlatAssembler.assemble(List.of());
+
+        // then
+        assertTrue(orders.isEmpty());
+        assertNull(new OrderFlatAssembler().finish());
+    }
+
+    private OrderFlatDto flat(Long orderId, String name, String itemName, int orderPrice, int count) {
+        return new OrderFlatDto(orderId, name, ORDER_DATE, OrderStatus.ORDER,
+                new Address("서울", "강가", "123-213"), itemName, orderPrice, count);
+    }
+
+    private List<String> itemNames(OrderQueryDto order) {
+        return order.getOrderItems().stream().map(OrderItemQueryDto::getItemName).toList();
+    }
+}
@@ -0,0 +1,204 @@
+package jpabook.jpashop.repository.order.query;
+
+import jpabook.jpashop.datasource.JdbcConcurrencyLimiter;
+import jpabook.jpashop.datasource.ReadAfterWrite;
+import jpabook.jpashop.monitoring.QueryStatistics;
+import jpabook.jpashop.monitoring.QueryStatisticsHolder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderItemFanOutLoaderTest {
+
+    // 청크 3개 ( 500 + 500 + 200 )
+    static final List<Long> IDS = LongStream.range(0, 1200).boxed().toList();
+
+    DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:fan-out;DB_CLOSE_DELAY=-1", "sa", "");
+    List<Runnable> queued = Collections.synchronizedList(new ArrayList<>());
+    AtomicInteger queries = new AtomicInteger();
+
+    @BeforeEach
+    void readOnlyTransaction() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+    }
+
+    @AfterEach
+    void clear() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        QueryStatisticsHolder.finish();
+        ReadAfterWrite.clear();
+    }
+
+    @Test
+    public void 커넥션풀을_확인할수없으면_호출한스레드에서_모두실행() throws Exception {
+
+        // given ( Hikari 가 아닌 DataSource -> 놀고 있는 커넥션 0 )
+        OrderItemFanOutLoader loader = new OrderItemFanOutLoader(
+                new TaskExecutorAdapter(queued::add), new DataSourceTransactionManager(dataSource), dataSource, null, 10);
+        Thread caller = Thread.currentThread();
+        List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+
+        // when
+        List<Long> result = loader.load(IDS, ids -> {
+            threads.add(Thread.currentThread());
+            return ids;
+        });
+
+        // then
+        assertEquals(IDS, result);
+        assertTrue(queued.isEmpty());
+        assertEquals(List.of(caller, caller, caller), threads);
+    }
+
+    @Test
+    public void 시작하지않은_청크는_호출한스레드가_가져가서_실행() throws Exception {
+
+        // given ( 실행기가 작업을 시작하지 않음 )
+        OrderItemFanOutLoader loader = loader(new TaskExecutorAdapter(queued::add), 10, null);
+
+        // when
+        List<Long> result = loader.load(IDS, countingQuery());
+
+        // then
+        assertEquals(IDS, result.stream().sorted().toList());
+        assertEquals(2, queued.size()); // maxConcurrency(10) = 2 개만 fork
+        assertEquals(3, queries.get());
+
+        // 늦게 시작한 작업은 조회하지 않고 fan-out 허가만 돌려줌
+        List.copyOf(queued).forEach(Runnable::run);
+        assertEquals(3, queries.get());
+
+        queued.clear();
+        loader.load(IDS, countingQuery());
+        assertEquals(2, queued.size());
+    }
+
+    @Test
+    public void 호출한쪽이_읽기전용트랜잭션이_아니면_fork하지않음() throws Exception {
+
+        // given
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        OrderItemFanOutLoader loader = loader(new TaskExecutorAdapter(queued::add), 10, null);
+
+        // when
+        List<Long> result = loader.load(IDS, countingQuery());
+
+        // then
+        assertEquals(IDS, result);
+        assertTrue(queued.isEmpty());
+    }
+
+    @Test
+    public void 작업스레드의_예외를_그대로전파() throws Exception {
+
+        // given
+        OrderItemFanOutLoader loader = loader(runToCompletionOnNewThread(), 10, null);
+        Thread caller = Thread.currentThread();
+
+        // when
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> loader.load(IDS, ids -> {
+            if (Thread.currentThread() != caller) {
+                throw new IllegalStateException("chunk failed");
+            }
+            return ids;
+        }));
+
+        // then
+        assertEquals("chunk failed", e.getMessage());
+    }
+
+    @Test
+    public void 작업스레드에_요청의_primary고정과_SQL통계를_넘김() throws Exception {
+
+        // given
+        OrderItemFanOutLoader loader = loader(runToCompletionOnNewThread(), 10, null);
+        Thread caller = Thread.currentThread();
+        QueryStatisticsHolder.start();
+        QueryStatistics statistics = QueryStatisticsHolder.current();
+        ReadAfterWrite.markWrite(Duration.ofMinutes(1));
+
+        List<Object> seenStatistics = Collections.synchronizedList(new ArrayList<>());
+        List<Boolean> seenSticky = Collections.synchronizedList(new ArrayList<>());
+
+        // when
+        loader.load(IDS, ids -> {
+            if (Thread.currentThread() != caller) {
+                seenStatistics.add(QueryStatisticsHolder.current());
+                seenSticky.add(ReadAfterWrite.isSticky());
+            }
+            return ids;
+        });
+
+        // then
+        assertEquals(2, seenStatistics.size());
+        assertTrue(seenStatistics.stream().allMatch(s -> s == statistics));
+        assertTrue(seenSticky.stream().allMatch(Boolean::booleanValue));
+    }
+
+    @Test
+    public void JDBC허가를_기다리지않고_미리받고_가져간청크는_바로반납() throws Exception {
+
+        // given ( 호출한 스레드가 허가 1개를 잡고 있고 남은 허가는 1개 )
+        JdbcConcurrencyLimiter limiter = new JdbcConcurrencyLimiter(2, Duration.ofMillis(100));
+        limiter.acquire();
+        OrderItemFanOutLoader loader = loader(new TaskExecutorAdapter(queued::add), 10, limiter);
+
+        // when
+        List<Long> result = loader.load(IDS, countingQuery());
+
+        // then
+        assertEquals(IDS, result.stream().sorted().toList());
+        assertEquals(1, queued.size()); // 남은 JDBC 허가만큼만 fork
+        assertEquals(1, limiter.getActive()); // 호출한 스레드가 가져간 청크의 허가는 반납됨
+
+        List.copyOf(queued).forEach(Runnable::run);
+        assertEquals(1, limiter.getActive());
+        limiter.release();
+    }
+
+    private OrderItemFanOutLoader loader(AsyncTaskExecutor executor, int idle, JdbcConcurrencyLimiter limiter) {
+        return new OrderItemFanOutLoader(executor, new DataSourceTransactionManager(dataSource), dataSource, limiter, 10) {
+            @Override
+            int idleConnections() {
+                return idle;
+            }
+        };
+    }
+
+    private Function<List<Long>, List<Long>> countingQuery() {
+        return ids -> {
+            queries.incrementAndGet();
+            return ids;
+        };
+    }
+
+    // 다른 스레드에서 작업을 끝까지 실행하고 리턴 -> fork 한 청크는 항상 작업 스레드가 실행
+    private AsyncTaskExecutor runToCompletionOnNewThread() {
+        return new TaskExecutorAdapter(task -> {
+            Thread thread = new Thread(task);
+            thread.start();
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+}
@@ -0,0 +1,63 @@
+package jpabook.jpashop.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 동시에 실행된 이동이 각자 커밋되어야 하므로 테스트 트랜잭션 ( 롤백 ) 을 쓰지 않음
+ */
+@SpringBootTest
+class CategoryMoveConcurrencyTest {
+
+    @Autowired CategoryService categoryService;
+
+    @Test
+    public void 서로의_밑으로_동시에_옮겨도_순환이_생기지_않음() throws Exception {
+
+        // given
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < 10; round++) {
+                Long a = categoryService.create("a" + round, null);
+                Long b = categoryService.create("b" + round, null);
+
+                // when
+                List<Future<Void>> moves = executor.invokeAll(List.<Callable<Void>>of(
+                        () -> {
+                            categoryService.move(a, b);
+                            return null;
+                        },
+                        () -> {
+                            categoryService.move(b, a);
+                            return null;
+                        }));
+
+                // then
+                int failed = 0;
+                for (Future<Void> move : moves) {
+                    try {
+                        move.get();
+                    } catch (ExecutionException e) {
+                        assertInstanceOf(IllegalArgumentException.class, e.getCause());
+                        failed++;
+                    }
+                }
+                assertEquals(1, failed);
+                CategoryTreeSnapshot tree = categoryService.snapshot(); // 순환이 있으면 IllegalStateException
+                assertTrue(tree.isAncestorOrSelf(a, b) ^ tree.isAncestorOrSelf(b, a));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
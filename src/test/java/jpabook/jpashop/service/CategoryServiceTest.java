@@ -0,0 +1,106 @@
+package jpabook.jpashop.service;
+
+import jakarta.persistence.EntityManager;
+import jpabook.jpashop.domain.Category;
+import jpabook.jpashop.domain.Item.Book;
+import jpabook.jpashop.domain.Item.Item;
+import jpabook.jpashop.repository.CategoryRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class CategoryServiceTest {
+
+    @Autowired CategoryService categoryService;
+    @Autowired CategoryRepository categoryRepository;
+    @Autowired EntityManager em;
+
+    @Test
+    public void 하위카테고리_상품까지_조회() throws Exception {
+
+        // given
+        Long books = categoryService.create("도서", null);
+        Long novels = categoryService.create("소설", books);
+        Long fantasy = categoryService.create("판타지", novels);
+        Long records = categoryService.create("음반", null);
+
+        Book book1 = addBook(books, "도서 목록");
+        Book book2 = addBook(fantasy, "반지의 제왕");
+        addBook(records, "앨범");
+
+        // when
+        List<Item> items = categoryService.findItemsInSubtree(books);
+
+        // then
+        assertEquals(List.of(book1.getId(), book2.getId()), items.stream().map(Item::getId).toList());
+        assertTrue(categoryRepository.isAncestorOrSelf(books, fantasy));
+        assertFalse(categoryRepository.isAncestorOrSelf(records, fantasy));
+    }
+
+    @Test
+    public void 카테고리를_옮기면_서브트리_경로도_이동() throws Exception {
+
+        // given
+        Long books = categoryService.create("도서", null);
+        Long novels = categoryService.create("소설", books);
+        Long fantasy = categoryService.create("판타지", novels);
+        Long records = categoryService.create("음반", null);
+
+        // when
+        categoryService.move(novels, records);
+
+        // then
+        assertTrue(categoryRepository.isAncestorOrSelf(records, fantasy));
+        assertFalse(categoryRepository.isAncestorOrSelf(books, fantasy));
+        assertFalse(categoryRepository.isAncestorOrSelf(books, novels));
+        assertTrue(categoryRepository.isAncestorOrSelf(novels, fantasy));
+        assertEquals(records, categoryService.findOne(novels).getParent().getId());
+        assertTrue(categoryService.findOne(books).getChild().isEmpty());
+    }
+
+    @Test
+    public void 하위카테고리_밑으로_옮기면_예외() throws Exception {
+
+        // given
+        Long books = categoryService.create("도서", null);
+        Long novels = categoryService.create("소설", books);
+
+        // then
+        assertThrows(IllegalArgumentException.class, () -> categoryService.move(books, novels));
+    }
+
+    @Test
+    public void closure_재생성() throws Exception {
+
+        // given
+        Long books = categoryService.create("도서", null);
+        Long novels = categoryService.create("소설", books);
+        Long fantasy = categoryService.create("판타지", novels);
+        em.createQuery("delete from CategoryClosure").executeUpdate();
+
+        // when
+        categoryService.rebuildClosure();
+
+        // then
+        assertTrue(categoryRepository.isAncestorOrSelf(books, fantasy));
+        assertTrue(categoryRepository.isAncestorOrSelf(fantasy, fantasy));
+        assertFalse(categoryRepository.isAncestorOrSelf(fantasy, books));
+    }
+
+    private Book addBook(Long categoryId, String name) {
+        Book book = new Book();
+        book.setName(name);
+        book.setPrice(10000);
+        book.setStockQuantity(10);
+        em.persist(book);
+        categoryService.findOne(categoryId).getItems().add(book);
+        return book;
+    }
+}
@@ -0,0 +1,101 @@
+package jpabook.jpashop.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CategoryTreeSnapshotTest {
+
+    /**
+     * 1 - 2 - 4
+     *   - 3
+     * 5
+     */
+    static List<Object[]> nodes() {
+        return List.of(
+                new Object[]{4L, 2L, "소설"},
+                new Object[]{1L, null, "도서"},
+                new Object[]{3L, 1L, "잡지"},
+                new Object[]{2L, 1L, "문학"},
+                new Object[]{5L, null, "음반"});
+    }
+
+    @Test
+    public void 조상_자손_판단() throws Exception {
+
+        // given
+        CategoryTreeSnapshot tree = CategoryTreeSnapshot.of(nodes());
+
+        // then
+        assertTrue(tree.isAncestorOrSelf(1L, 4L));
+        assertTrue(tree.isAncestorOrSelf(2L, 4L));
+        assertTrue(tree.isAncestorOrSelf(4L, 4L));
+        assertFalse(tree.isAncestorOrSelf(4L, 1L));
+        assertFalse(tree.isAncestorOrSelf(3L, 4L));
+        assertFalse(tree.isAncestorOrSelf(1L, 5L));
+        assertFalse(tree.isAncestorOrSelf(1L, 99L));
+    }
+
+    @Test
+    public void 하위카테고리_조상_자식() throws Exception {
+
+        // given
+        CategoryTreeSnapshot tree = CategoryTreeSnapshot.of(nodes());
+
+        // then
+        assertArrayEquals(new long[]{1L, 2L, 4L, 3L}, tree.descendantIds(1L));
+        assertArrayEquals(new long[]{5L}, tree.descendantIds(5L));
+        assertEquals(List.of(2L, 1L), tree.ancestorIds(4L));
+        assertEquals(List.of(2L, 3L), tree.childIds(1L));
+        assertEquals(List.of(1L, 5L), tree.rootIds());
+        assertEquals(2, tree.depth(4L));
+        assertEquals(2L, tree.parentId(4L));
+        assertNull(tree.parentId(1L));
+        assertEquals("소설", tree.name(4L));
+    }
+
+    @Test
+    public void 깊은트리도_스택넘침없이_생성() throws Exception {
+
+        // given
+        List<Object[]> chain = new ArrayList<>();
+        chain.add(new Object[]{1L, null, "c1"});
+        for (long id = 2; id <= 100_000; id++) {
+            chain.add(new Object[]{id, id - 1, "c" + id});
+        }
+
+        // when
+        CategoryTreeSnapshot tree = CategoryTreeSnapshot.of(chain);
+
+        // then
+        assertTrue(tree.isAncestorOrSelf(1L, 100_000L));
+        assertEquals(99_999, tree.depth(100_000L));
+        assertEquals(100_000, tree.descendantIds(1L).length);
+    }
+
+    @Test
+    public void 부모관계_순환이면_예외() throws Exception {
+
+        // given
+        List<Object[]> cycle = List.of(
+                new Object[]{1L, null, "루트"},
+                new Object[]{2L, 3L, "a"},
+                new Object[]{3L, 2L, "b"});
+
+        // then
+        assertThrows(IllegalStateException.class, () -> CategoryTreeSnapshot.of(cycle));
+    }
+
+    @Test
+    public void 없는카테고리_조회는_예외() throws Exception {
+
+        // given
+        CategoryTreeSnapshot tree = CategoryTreeSnapshot.of(nodes());
+
+        // then
+        assertThrows(IllegalArgumentException.class, () -> tree.descendantIds(99L));
+    }
+}
@@ -0,0 +1,96 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Item.Book;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.dto.DailySalesDto;
+import jpabook.jpashop.repository.DailySalesRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 롤업은 커밋 직전에 갱신되므로 테스트 트랜잭션 ( 롤백 ) 을 쓰지 않음
+ * 다른 테스트의 주문도 같은 날에 있으므로 이 테스트에서 만든 상품의 롤업만 확인
+ */
+@SpringBootTest
+class DailySalesRollupTest {
+
+    @Autowired OrderService orderService;
+    @Autowired MemberService memberService;
+    @Autowired ItemService itemService;
+    @Autowired DailySalesRollupRepository dailySalesRollupRepository;
+    @Autowired DailySalesRepairJob dailySalesRepairJob;
+    @Autowired TransactionTemplate transactionTemplate;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    Long memberId;
+    Book book;
+
+    @BeforeEach
+    void setUp() {
+        memberId = memberService.join(Member.builder()
+                .name("rollup-" + System.nanoTime())
+                .address(new Address("서울", "강가", "123-123"))
+                .build());
+        book = new Book();
+        book.setName("시골 JPA");
+        book.setPrice(10000);
+        book.setStockQuantity(100);
+        itemService.save(book);
+    }
+
+    @Test
+    public void 주문하면_더하고_취소하면_뺌() throws Exception {
+
+        // when
+        orderService.order(memberId, book.getId(), 2);
+        Long canceled = orderService.order(memberId, book.getId(), 3);
+        orderService.cancelOrder(canceled);
+
+        // then
+        LocalDate today = LocalDate.now();
+        DailySalesDto sales = findDailySales(today);
+        assertEquals(2, sales.getOrderCount());
+        assertEquals(1, sales.getCanceledOrderCount());
+        assertEquals(2, sales.getUnits());
+        assertEquals(10000 * 2, sales.getRevenue());
+    }
+
+    @Test
+    public void 다시계산할날만_원본에서_다시계산() throws Exception {
+
+        // given ( 어제 주문인데 롤업이 어긋난 상태 )
+        Long orderId = orderService.order(memberId, book.getId(), 4);
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        jdbcTemplate.update("update orders set order_date = dateadd('DAY', -1, order_date) where order_id = ?", orderId);
+        jdbcTemplate.update("update daily_item_sales set units = 999 where item_id = ?", book.getId());
+
+        // when
+        dailySalesRepairJob.markDirty(yesterday, yesterday.plusDays(1));
+        int repaired = dailySalesRepairJob.repairDirtyDays(LocalDate.now());
+
+        // then
+        assertTrue(repaired >= 1);
+        DailySalesDto sales = findDailySales(yesterday);
+        assertEquals(1, sales.getOrderCount());
+        assertEquals(4, sales.getUnits());
+        assertEquals(10000 * 4, sales.getRevenue());
+        assertTrue(transactionTemplate.execute(status -> dailySalesRollupRepository.findDirtyDays(LocalDate.now(), 10)).isEmpty());
+    }
+
+    private DailySalesDto findDailySales(LocalDate day) {
+        List<DailySalesDto> sales = transactionTemplate.execute(status ->
+                dailySalesRollupRepository.findDailySales(day, day.plusDays(1), book.getId()));
+        assertEquals(1, sales.size());
+        return sales.get(0);
+    }
+}
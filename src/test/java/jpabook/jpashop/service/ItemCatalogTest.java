@@ -0,0 +1,117 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.domain.Item.Book;
+import jpabook.jpashop.dto.CursorResult;
+import jpabook.jpashop.dto.ItemSummaryDto;
+import jpabook.jpashop.repository.CatalogSearch;
+import jpabook.jpashop.repository.CatalogSort;
+import jpabook.jpashop.repository.ItemCursor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class ItemCatalogTest {
+
+    @Autowired ItemService itemService;
+    @Autowired CategoryService categoryService;
+
+    @Test
+    public void 하위카테고리_상품을_가격순으로_페이징() throws Exception {
+
+        // given
+        Long books = categoryService.create("도서", null);
+        Long novels = categoryService.create("소설", books);
+        Long records = categoryService.create("음반", null);
+
+        Book book1 = createBook(books, "JPA", 30000);
+        Book book2 = createBook(novels, "소설1", 10000);
+        Book book3 = createBook(novels, "소설2", 20000);
+        createBook(records, "앨범", 15000);
+
+        CatalogSearch search = new CatalogSearch();
+        search.setCategoryId(books);
+        search.setSort(CatalogSort.PRICE);
+
+        // when
+        List<Long> ids = new ArrayList<>();
+        ItemCursor cursor = null;
+        int pages = 0;
+        do {
+            CursorResult<ItemSummaryDto> page = itemService.findCatalog(search, cursor, 2);
+            page.getData().forEach(item -> ids.add(item.getId()));
+            cursor = page.getNextCursor() == null ? null : ItemCursor.decode(page.getNextCursor());
+            pages++;
+        } while (cursor != null);
+
+        // then
+        assertEquals(List.of(book2.getId(), book3.getId(), book1.getId()), ids);
+        assertEquals(2, pages);
+    }
+
+    @Test
+    public void 가격범위_검색() throws Exception {
+
+        // given
+        Long books = categoryService.create("도서", null);
+        createBook(books, "싼책", 1000);
+        Book book = createBook(books, "보통책", 5000);
+        createBook(books, "비싼책", 9000);
+
+        CatalogSearch search = new CatalogSearch();
+        search.setCategoryId(books);
+        search.setMinPrice(2000);
+        search.setMaxPrice(5000);
+
+        // when
+        CursorResult<ItemSummaryDto> page = itemService.findCatalog(search, null, 10);
+
+        // then
+        assertEquals(List.of(book.getId()), page.getData().stream().map(ItemSummaryDto::getId).toList());
+        assertEquals("보통책", page.getData().get(0).getName());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    public void 커서는_id_순서로_이어서_조회() throws Exception {
+
+        // given
+        Long books = categoryService.create("도서", null);
+        Book book1 = createBook(books, "책1", 1000);
+        Book book2 = createBook(books, "책2", 1000);
+
+        CatalogSearch search = new CatalogSearch();
+        search.setCategoryId(books);
+
+        // when
+        CursorResult<ItemSummaryDto> first = itemService.findCatalog(search, null, 1);
+        CursorResult<ItemSummaryDto> second = itemService.findCatalog(search, ItemCursor.decode(first.getNextCursor()), 1);
+
+        // then
+        assertEquals(book1.getId(), first.getData().get(0).getId());
+        assertEquals(book2.getId(), second.getData().get(0).getId());
+    }
+
+    @Test
+    public void 잘못된_limit은_예외() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> itemService.findCatalog(new CatalogSearch(), null, 0));
+        assertThrows(IllegalArgumentException.class, () -> itemService.findCatalog(new CatalogSearch(), null, ItemService.MAX_CATALOG_PAGE_SIZE + 1));
+    }
+
+    private Book createBook(Long categoryId, String name, int price) {
+        Book book = new Book();
+        book.setName(name);
+        book.setPrice(price);
+        book.setStockQuantity(10);
+        itemService.save(book);
+        categoryService.findOne(categoryId).getItems().add(book);
+        return book;
+    }
+}
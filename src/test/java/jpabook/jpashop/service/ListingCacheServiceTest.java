@@ -0,0 +1,55 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.dto.ListingSnapshot;
+import jpabook.jpashop.dto.MemberSummaryDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 무효화가 커밋 이후에 일어나는지 확인해야 하므로 테스트 트랜잭션 ( 롤백 ) 을 쓰지 않음
+ */
+@SpringBootTest
+class ListingCacheServiceTest {
+
+    @Autowired ListingCacheService listingCacheService;
+    @Autowired MemberService memberService;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    @Test
+    public void 회원목록_캐시() throws Exception {
+
+        // when
+        ListingSnapshot<MemberSummaryDto> first = listingCacheService.members();
+        ListingSnapshot<MemberSummaryDto> second = listingCacheService.members();
+
+        // then
+        assertSame(first, second);
+    }
+
+    @Test
+    public void 회원가입_커밋후_무효화() throws Exception {
+
+        // given
+        ListingSnapshot<MemberSummaryDto> before = listingCacheService.members();
+        String name = "listing-" + System.nanoTime();
+
+        // when
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            memberService.join(Member.builder().name(name).build());
+            // 커밋 전에는 그대로
+            assertSame(before, listingCacheService.members());
+        });
+        ListingSnapshot<MemberSummaryDto> after = listingCacheService.members();
+
+        // then
+        assertNotSame(before, after);
+        assertNotEquals(before.getEtag(), after.getEtag());
+        assertTrue(after.getData().stream().anyMatch(m -> m.getName().equals(name)));
+    }
+}
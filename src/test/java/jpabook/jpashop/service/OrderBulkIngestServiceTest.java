@@ -0,0 +1,170 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.CommittedTestData;
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Item.Book;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.OrderPlacedEvent;
+import jpabook.jpashop.dto.BulkOrderResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 청크마다 별도 트랜잭션으로 커밋되는지 확인해야 하므로 테스트 트랜잭션 ( 롤백 ) 을 쓰지 않음
+ */
+@SpringBootTest
+class OrderBulkIngestServiceTest {
+
+    @Autowired OrderBulkIngestService orderBulkIngestService;
+    @Autowired MemberService memberService;
+    @Autowired ItemService itemService;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired DataSource dataSource;
+    @Autowired SoldElsewhere soldElsewhere;
+
+    Long memberId;
+    List<Long> itemIds = new ArrayList<>();
+
+    @BeforeEach
+    void createMember() {
+        memberId = memberService.join(Member.builder()
+                .name("bulk-" + System.nanoTime())
+                .address(new Address("서울", "강가", "123-123"))
+                .build());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        CommittedTestData.deleteMember(jdbcTemplate, memberId);
+        itemIds.forEach(itemId -> CommittedTestData.deleteItem(jdbcTemplate, itemId));
+    }
+
+    @Test
+    public void 재고부족_줄만_실패하고_나머지는_커밋() throws Exception {
+
+        // given
+        Book book = createBook("시골 JPA", 10);
+        Book soldOut = createBook("품절 도서", 1);
+
+        String csv = "memberId,itemId,count\n" +
+                memberId + "," + book.getId() + ",1\n" +
+                memberId + "," + soldOut.getId() + ",5\n" +
+                memberId + "," + book.getId() + ",2\n";
+
+        // when
+        BulkOrderResult result = ingest(csv);
+
+        // then
+        assertEquals(2, result.getSucceeded());
+        assertEquals(1, result.getFailed());
+        assertEquals(3, result.getFailures().get(0).getLineNumber());
+        assertEquals(2, orderCount());
+        assertEquals(7, stockQuantity(book.getId()));
+        assertEquals(1, stockQuantity(soldOut.getId()));
+    }
+
+    @Test
+    public void 커밋시점_재고부족이면_모자란줄만_실패하고_나머지는_커밋() throws Exception {
+
+        // given
+        Book book = createBook("시골 JPA", 10);
+        Book other = createBook("시골 Spring", 10);
+        // 청크의 주문을 만든 뒤 커밋 전에 다른 서버에서 팔려서 DB 재고가 1 이 됨
+        soldElsewhere.onNextOrderPlaced(() -> {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.executeUpdate("update item set stock_quantity = 1 where item_id = " + book.getId());
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        String csv = "memberId,itemId,count\n" +
+                memberId + "," + book.getId() + ",1\n" +
+                memberId + "," + book.getId() + ",1\n" +
+                memberId + "," + other.getId() + ",1\n";
+
+        // when ( 메모리 카운터로는 모두 예약되지만 커밋 직전 DB 조건부 update 에서 실패 -> 청크를 다시 시도 )
+        BulkOrderResult result = ingest(csv);
+
+        // then
+        assertEquals(2, result.getSucceeded());
+        assertEquals(1, result.getFailed());
+        assertEquals(3, result.getFailures().get(0).getLineNumber());
+        assertEquals(2, orderCount());
+        assertEquals(0, stockQuantity(book.getId()));
+        assertEquals(9, stockQuantity(other.getId()));
+    }
+
+    private BulkOrderResult ingest(String csv) throws IOException {
+        return orderBulkIngestService.ingest(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), BulkOrderFormat.CSV);
+    }
+
+    private Book createBook(String name, int stockQuantity) {
+        Book book = new Book();
+        book.setName(name);
+        book.setPrice(10000);
+        book.setStockQuantity(stockQuantity);
+        itemService.save(book);
+        itemIds.add(book.getId());
+        return book;
+    }
+
+    private int orderCount() {
+        return jdbcTemplate.queryForObject("select count(*) from orders where member_id = ?", Integer.class, memberId);
+    }
+
+    private int stockQuantity(Long itemId) {
+        return jdbcTemplate.queryForObject("select stock_quantity from item where item_id = ?", Integer.class, itemId);
+    }
+
+    @TestConfiguration
+    static class SoldElsewhereConfig {
+
+        @Bean
+        SoldElsewhere soldElsewhere() {
+            return new SoldElsewhere();
+        }
+    }
+
+    // 다음 청크의 주문이 만들어진 직후 ( 커밋 전 ) 한 번 실행
+    static class SoldElsewhere {
+
+        private final AtomicReference<Runnable> action = new AtomicReference<>();
+
+        void onNextOrderPlaced(Runnable action) {
+            this.action.set(action);
+        }
+
+        @EventListener
+        public void onOrderPlaced(OrderPlacedEvent event) {
+            Runnable next = action.getAndSet(null);
+            if (next != null) {
+                next.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package jpabook.jpashop.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Item.Book;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.dto.OrderLineDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 주문 ORDERS 건 x 상품 3 개 = 600 row -> 영속성 컨텍스트를 비우는 500 row 경계를 넘고,
+ * 500 번째 row 가 한 주문의 중간 ( 167 번째 주문의 두 번째 상품 ) 에 걸림
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+class OrderExportServiceTest {
+
+    static final int ORDERS = 200;
+
+    @Autowired OrderExportService orderExportService;
+    @Autowired OrderService orderService;
+    @Autowired EntityManager em;
+    @Autowired ObjectMapper objectMapper;
+    @Autowired MockMvc mockMvc;
+
+    String memberName;
+    List<Long> orderIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        memberName = "export-" + System.nanoTime();
+        Member member = Member.builder()
+                .name(memberName)
+                .address(new Address("서울", "강가", "123-213"))
+                .build();
+        em.persist(member);
+
+        List<OrderLineDto> lines = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Book book = new Book();
+            book.setName("export-book" + i);
+            book.setPrice(10000);
+            book.setStockQuantity(ORDERS);
+            em.persist(book);
+            lines.add(new OrderLineDto(book.getId(), 1));
+        }
+
+        for (int i = 0; i < ORDERS; i++) {
+            orderIds.add(orderService.order(member.getId(), lines));
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    public void 주문마다_한줄씩_order_id순으로_내보냄() throws Exception {
+
+        // given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // when
+        long exported = orderExportService.exportNdjson(out);
+
+        // then
+        List<JsonNode> lines = parse(out.toString(StandardCharsets.UTF_8));
+        assertEquals(exported, lines.size());
+        assertEquals(totalOrderCount(), exported);
+        assertExportedOnceInOrder(lines);
+    }
+
+    @Test
+    public void 내보내기API는_NDJSON으로_응답() throws Exception {
+
+        // when
+        String body = mockMvc.perform(get("/api/v6/orders/export"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+
+        // then
+        List<JsonNode> lines = parse(body);
+        assertEquals(totalOrderCount(), lines.size());
+        assertExportedOnceInOrder(lines);
+    }
+
+    // 전체 주문이 order_id 오름차순으로 한 번씩, 이 테스트의 주문은 상품 3 개가 모두 한 줄에 묶여 있어야 함
+    private void assertExportedOnceInOrder(List<JsonNode> lines) {
+        List<Long> allIds = lines.stream().map(line -> line.get("orderId").asLong()).toList();
+        assertEquals(allIds.stream().sorted().distinct().toList(), allIds);
+
+        List<JsonNode> ours = lines.stream()
+                .filter(line -> memberName.equals(line.get("name").asText()))
+                .toList();
+        assertEquals(orderIds, ours.stream().map(line -> line.get("orderId").asLong()).toList());
+        assertTrue(ours.stream().allMatch(line -> line.get("orderItems").size() == 3));
+    }
+
+    private List<JsonNode> parse(String ndjson) throws Exception {
+        assertTrue(ndjson.endsWith("\n"));
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : ndjson.split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        return lines;
+    }
+
+    private long totalOrderCount() {
+        return em.createQuery("select count(o) from Order o", Long.class).getSingleResult();
+    }
+}
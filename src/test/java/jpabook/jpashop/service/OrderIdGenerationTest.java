@@ -0,0 +1,61 @@
+package jpabook.jpashop.service;
+
+import jakarta.persistence.EntityManager;
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.IdGeneration;
+import jpabook.jpashop.domain.Item.Book;
+import jpabook.jpashop.domain.Member;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class OrderIdGenerationTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    OrderService orderService;
+
+    @Test
+    public void 주문_DB_왕복_횟수() throws Exception {
+
+        // given
+        Member member = Member.builder()
+                .name("회원1")
+                .address(new Address("서울", "강가", "123-213"))
+                .build();
+        em.persist(member);
+
+        Book book = new Book();
+        book.setName("시골 JPA");
+        book.setPrice(10000);
+        book.setStockQuantity(1000);
+        em.persist(book);
+        em.flush();
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        int orderCount = IdGeneration.ALLOCATION_SIZE;
+
+        // when
+        for (int i = 0; i < orderCount; i++) {
+            orderService.order(member.getId(), book.getId(), 1);
+        }
+        em.flush();
+
+        // then
+        // 시퀀스를 매번 호출하면 orders, order_item, delivery 시퀀스 호출만 주문 당 3 번 -> 300 번 이상
+        // pooled-lo + batch insert 면 시퀀스 호출은 엔티티 당 1 번, insert 는 batch 단위로만 나감
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements < orderCount, "prepared statements = " + statements);
+    }
+}
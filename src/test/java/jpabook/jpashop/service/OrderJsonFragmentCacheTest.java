@@ -0,0 +1,79 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Item.Book;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 조각 무효화는 커밋 이후에 일어나므로 테스트 트랜잭션 ( 롤백 ) 을 쓰지 않음
+ */
+@SpringBootTest
+class OrderJsonFragmentCacheTest {
+
+    @Autowired OrderJsonFragmentCache orderJsonFragmentCache;
+    @Autowired OrderJsonService orderJsonService;
+    @Autowired OrderService orderService;
+    @Autowired MemberService memberService;
+    @Autowired ItemService itemService;
+    @Autowired OrderRepository orderRepository;
+    @Autowired TransactionTemplate transactionTemplate;
+
+    @Test
+    public void 회원이름_변경하면_조각무효화() throws Exception {
+
+        // given
+        String oldName = "fragment-" + System.nanoTime();
+        Long memberId = memberService.join(Member.builder()
+                .name(oldName)
+                .address(new Address("서울", "강가", "123-123"))
+                .build());
+        Long orderId = orderService.order(memberId, createBook().getId(), 1);
+        Long version = transactionTemplate.execute(status -> orderRepository.findOne(orderId).getVersion());
+
+        orderJsonService.findAllAsJson();
+        assertNotNull(orderJsonFragmentCache.get(orderId, version));
+
+        // when
+        memberService.update(memberId, oldName + "-renamed");
+
+        // then
+        assertNull(orderJsonFragmentCache.get(orderId, version));
+        assertTrue(new String(orderJsonService.findAllAsJson(), StandardCharsets.UTF_8).contains(oldName + "-renamed"));
+    }
+
+    @Test
+    public void 무효화전에_시작한_조회가_넣은_조각은_무시() throws Exception {
+
+        // given
+        long generation = orderJsonFragmentCache.generation();
+        Long memberId = memberService.join(Member.builder()
+                .name("fragment-" + System.nanoTime())
+                .address(new Address("서울", "강가", "123-123"))
+                .build());
+        memberService.update(memberId, "renamed-" + System.nanoTime()); // 세대 증가
+
+        // when
+        orderJsonFragmentCache.put(-1L, 0L, generation, new byte[]{'{', '}'});
+
+        // then
+        assertNull(orderJsonFragmentCache.get(-1L, 0L));
+    }
+
+    private Book createBook() {
+        Book book = new Book();
+        book.setName("시골 JPA");
+        book.setPrice(10000);
+        book.setStockQuantity(10);
+        itemService.save(book);
+        return book;
+    }
+}
@@ -1,18 +1,25 @@
 package jpabook.jpashop.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.persistence.EntityManager;
 import jpabook.jpashop.domain.Address;
 import jpabook.jpashop.domain.Item.Book;
 import jpabook.jpashop.domain.Member;
 import jpabook.jpashop.domain.Order;
 import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.dto.OrderLineDto;
+import jpabook.jpashop.dto.OrderSearchPage;
 import jpabook.jpashop.exception.NotEnoughStockException;
+import jpabook.jpashop.repository.NameMatchMode;
 import jpabook.jpashop.repository.OrderRepository;
+import jpabook.jpashop.repository.OrderSearch;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
@@ -28,6 +35,15 @@ class OrderServiceTest {
     @Autowired
     OrderRepository orderRepository;
 
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    OrderJsonService orderJsonService;
+
+    @Autowired
+    OrderJsonFragmentCache orderJsonFragmentCache;
+
     @Test
     public void 상품주문() throws Exception {
 
@@ -49,6 +65,47 @@ class OrderServiceTest {
         assertEquals(8, book.getStockQuantity());
     }
 
+    @Test
+    public void 여러상품주문() throws Exception {
+
+        // given
+        Member member = createMember();
+        Book book1 = createBook("시골 JPA", 10000, 10);
+        Book book2 = createBook("시골 Spring", 20000, 10);
+
+        // when
+        Long orderId = orderService.order(member.getId(), List.of(
+                new OrderLineDto(book1.getId(), 2),
+                new OrderLineDto(book2.getId(), 3)));
+
+        // then
+        Order order = orderRepository.findOne(orderId);
+
+        assertEquals(OrderStatus.ORDER, order.getStatus());
+        assertEquals(2, order.getOrderItems().size());
+        assertEquals(10000 * 2 + 20000 * 3, order.getTotalPrice());
+        assertEquals(8, book1.getStockQuantity());
+        assertEquals(7, book2.getStockQuantity());
+    }
+
+    @Test
+    public void 큰금액주문_int넘침없이_주문금액저장() throws Exception {
+
+        // given
+        Member member = createMember();
+        Book book = createBook("B2B 대량", 2_000_000_000, 10);
+
+        // when
+        Long orderId = orderService.order(member.getId(), book.getId(), 3);
+        em.flush();
+        em.clear();
+
+        // then
+        Order order = orderRepository.findOne(orderId);
+        assertEquals(6_000_000_000L, order.getTotalPrice());
+        assertEquals(6_000_000_000L, order.getOrderItems().get(0).getTotalPrice());
+    }
+
     @Test
     public void 상품주문_재고수량초과() throws Exception {
 
@@ -66,6 +123,22 @@ class OrderServiceTest {
         assertEquals("need more stock", e.getMessage());
     }
 
+    @Test
+    public void 상품주문_예약된재고초과() throws Exception {
+
+        // given
+        Member member = createMember();
+        Book book = createBook("시골 JPA", 10000, 10);
+        orderService.order(member.getId(), book.getId(), 6);
+
+        // when
+        NotEnoughStockException e = assertThrows(NotEnoughStockException.class, () ->
+                orderService.order(member.getId(), book.getId(), 5));
+
+        // then
+        assertEquals("need more stock", e.getMessage());
+    }
+
     @Test
     public void 주문취소() throws Exception {
 
@@ -87,6 +160,82 @@ class OrderServiceTest {
 
     }
 
+    @Test
+    public void 주문검색_같은조건모양은_등록된쿼리재사용() throws Exception {
+
+        // given
+        Member member = createMember();
+        Book book = createBook("시골 JPA", 10000, 10);
+        Long orderId = orderService.order(member.getId(), book.getId(), 1);
+        Long canceledId = orderService.order(member.getId(), book.getId(), 1);
+        orderService.cancelOrder(canceledId);
+
+        OrderSearch orderSearch = new OrderSearch();
+        orderSearch.setOrderStatus(OrderStatus.ORDER);
+        orderService.findOrders(orderSearch);
+        double before = meterRegistry.get("jpashop.query.registry")
+                .tag("query", "Order.findAllByString[status]")
+                .tag("result", "hit")
+                .counter()
+                .count();
+
+        // when
+        orderSearch.setOrderStatus(OrderStatus.CANCEL);
+        List<Order> orders = orderService.findOrders(orderSearch);
+
+        // then
+        assertEquals(before + 1, meterRegistry.get("jpashop.query.registry")
+                .tag("query", "Order.findAllByString[status]")
+                .tag("result", "hit")
+                .counter()
+                .count());
+        assertTrue(orders.stream().anyMatch(o -> o.getId().equals(canceledId)));
+        assertTrue(orders.stream().noneMatch(o -> o.getId().equals(orderId)));
+    }
+
+    @Test
+    public void 주문검색_기본은_이름포함_like검색() throws Exception {
+
+        // given ( trigram 인덱스는 꺼져 있음 )
+        Member member = createMember();
+        member.updateName("김" + member.getId() + "철수");
+        Book book = createBook("시골 JPA", 10000, 10);
+        Long orderId = orderService.order(member.getId(), book.getId(), 1);
+
+        OrderSearch orderSearch = new OrderSearch();
+        orderSearch.setName(member.getId() + "철");
+
+        // when
+        OrderSearchPage page = orderService.searchOrders(orderSearch, 0, 20);
+
+        // then
+        assertEquals(NameMatchMode.CONTAINS, orderSearch.getNameMatchMode());
+        assertEquals(List.of(orderId), page.getContent().stream().map(Order::getId).toList());
+    }
+
+    @Test
+    public void 주문취소_JSON조각캐시무효화() throws Exception {
+
+        // given
+        Member member = createMember();
+        Book book = createBook("시골 JPA", 10000, 10);
+        Long orderId = orderService.order(member.getId(), book.getId(), 1);
+        Long version = orderRepository.findOne(orderId).getVersion();
+
+        orderJsonService.findAllAsJson();
+        assertNotNull(orderJsonFragmentCache.get(orderId, version));
+
+        // when
+        orderService.cancelOrder(orderId);
+        em.flush();
+
+        // then
+        // 취소로 버전이 바뀌어서 이전 조각은 더 이상 맞지 않음 ( 캐시 삭제는 커밋 이후 )
+        Long canceledVersion = orderRepository.findOne(orderId).getVersion();
+        assertNotEquals(version, canceledVersion);
+        assertNull(orderJsonFragmentCache.get(orderId, canceledVersion));
+    }
+
     private Book createBook(String name, int price, int stockQuantity) {
         Book book= new Book();
         book.setName(name);
@@ -0,0 +1,93 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Item.Book;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.dto.OrderQueryDto;
+import jpabook.jpashop.monitoring.QueryStatistics;
+import jpabook.jpashop.monitoring.QueryStatisticsHolder;
+import jpabook.jpashop.repository.order.query.OrderQueryRepository;
+import jpabook.jpashop.repository.order.simplequery.OrderSimpleQueryDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 페이지 조회가 다른 스레드의 트랜잭션에서 실행되므로 테스트 트랜잭션 ( 롤백 ) 을 쓰지 않음
+ */
+@SpringBootTest
+class OrderStreamServiceTest {
+
+    @Autowired OrderStreamService orderStreamService;
+    @Autowired OrderQueryRepository orderQueryRepository;
+    @Autowired OrderService orderService;
+    @Autowired MemberService memberService;
+    @Autowired ItemService itemService;
+
+    @BeforeEach
+    void setUp() {
+        Long memberId = memberService.join(Member.builder()
+                .name("stream-" + System.nanoTime())
+                .address(new Address("서울", "강가", "123-123"))
+                .build());
+        Book book = new Book();
+        book.setName("시골 JPA");
+        book.setPrice(10000);
+        book.setStockQuantity(100);
+        itemService.save(book);
+
+        for (int i = 0; i < 5; i++) {
+            orderService.order(memberId, book.getId(), 1);
+        }
+    }
+
+    @Test
+    public void 주문스트림_페이지를이어서_V5와같은결과() throws Exception {
+
+        // given
+        List<Long> expected = orderQueryRepository.findAllByDto_optimization().stream()
+                .sorted(Comparator.comparing(OrderQueryDto::getOrderDate).thenComparing(OrderQueryDto::getOrderId))
+                .map(OrderQueryDto::getOrderId)
+                .toList();
+
+        // when ( 페이지 크기보다 주문이 많아서 여러 페이지로 나뉨 )
+        List<OrderQueryDto> streamed = orderStreamService.streamOrders(2).collectList().block();
+
+        // then
+        assertEquals(expected, streamed.stream().map(OrderQueryDto::getOrderId).toList());
+        assertTrue(streamed.stream().allMatch(o -> o.getOrderItems() != null && !o.getOrderItems().isEmpty()));
+    }
+
+    @Test
+    public void 단순주문스트림_요청한만큼만_조회() throws Exception {
+
+        // given ( 페이지 조회 스레드의 SQL 도 이 스레드의 통계에 기록됨 )
+        QueryStatisticsHolder.start();
+        QueryStatistics statistics = QueryStatisticsHolder.current();
+
+        // when ( 주문은 5개 이상 -> 페이지 3개 이상 )
+        List<OrderSimpleQueryDto> firstThree;
+        try {
+            firstThree = orderStreamService.streamOrderDtos(2).take(3).collectList().block();
+        } finally {
+            QueryStatisticsHolder.finish();
+        }
+
+        // then
+        assertEquals(3, firstThree.size());
+        assertEquals(3, firstThree.stream().map(OrderSimpleQueryDto::getOrderId).distinct().count());
+        assertEquals(2, statistics.getStatementCount()); // 세 번째 페이지는 조회하지 않음
+    }
+
+    @Test
+    public void 페이지크기_범위밖이면_예외() throws Exception {
+        assertThrows(IllegalArgumentException.class,
+                () -> orderStreamService.streamOrders(OrderStreamService.MAX_PAGE_SIZE + 1).blockFirst());
+    }
+}
@@ -0,0 +1,118 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Item.Book;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.domain.OrderSummary;
+import jpabook.jpashop.dto.OrderLineDto;
+import jpabook.jpashop.repository.OrderSummaryRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 주문 요약은 커밋 직전에 갱신되므로 테스트 트랜잭션 ( 롤백 ) 을 쓰지 않음
+ */
+@SpringBootTest
+class OrderSummaryProjectorTest {
+
+    @Autowired OrderService orderService;
+    @Autowired MemberService memberService;
+    @Autowired ItemService itemService;
+    @Autowired OrderSummaryRepository orderSummaryRepository;
+    @Autowired OrderSummaryRebuildJob orderSummaryRebuildJob;
+    @Autowired TransactionTemplate transactionTemplate;
+
+    @Test
+    public void 주문하면_요약생성() throws Exception {
+
+        // given
+        Long memberId = createMember("summary-" + System.nanoTime());
+        Book book1 = createBook("시골 JPA", 10000);
+        Book book2 = createBook("시골 Spring", 20000);
+
+        // when
+        Long orderId = orderService.order(memberId, List.of(
+                new OrderLineDto(book1.getId(), 2),
+                new OrderLineDto(book2.getId(), 3)));
+
+        // then
+        OrderSummary summary = findSummary(orderId);
+        assertEquals(memberId, summary.getMemberId());
+        assertEquals(OrderStatus.ORDER, summary.getStatus());
+        assertEquals(2, summary.getItemCount());
+        assertEquals(10000 * 2 + 20000 * 3, summary.getTotalPrice());
+        assertEquals("서울", summary.getAddress().getCity());
+    }
+
+    @Test
+    public void 주문취소하면_요약상태변경() throws Exception {
+
+        // given
+        Long orderId = orderService.order(createMember("summary-" + System.nanoTime()), createBook("시골 JPA", 10000).getId(), 1);
+
+        // when
+        orderService.cancelOrder(orderId);
+
+        // then
+        OrderSummary summary = findSummary(orderId);
+        assertEquals(OrderStatus.CANCEL, summary.getStatus());
+        assertEquals(10000, summary.getTotalPrice());
+    }
+
+    @Test
+    public void 회원이름_변경하면_요약도변경() throws Exception {
+
+        // given
+        String name = "summary-" + System.nanoTime();
+        Long memberId = createMember(name);
+        Long orderId = orderService.order(memberId, createBook("시골 JPA", 10000).getId(), 1);
+
+        // when
+        memberService.update(memberId, name + "-renamed");
+
+        // then
+        assertEquals(name + "-renamed", findSummary(orderId).getMemberName());
+    }
+
+    @Test
+    public void 다시계산하면_빠진요약복구() throws Exception {
+
+        // given
+        Long orderId = orderService.order(createMember("summary-" + System.nanoTime()), createBook("시골 JPA", 10000).getId(), 1);
+        transactionTemplate.executeWithoutResult(status ->
+                orderSummaryRepository.updateStatus(orderId, OrderStatus.CANCEL)); // 요약이 원본과 어긋난 상태
+
+        // when
+        orderSummaryRebuildJob.rebuild();
+
+        // then
+        assertEquals(OrderStatus.ORDER, findSummary(orderId).getStatus());
+    }
+
+    private OrderSummary findSummary(Long orderId) {
+        return transactionTemplate.execute(status -> orderSummaryRepository.findOne(orderId));
+    }
+
+    private Long createMember(String name) {
+        return memberService.join(Member.builder()
+                .name(name)
+                .address(new Address("서울", "강가", "123-123"))
+                .build());
+    }
+
+    private Book createBook(String name, int price) {
+        Book book = new Book();
+        book.setName(name);
+        book.setPrice(price);
+        book.setStockQuantity(100);
+        itemService.save(book);
+        return book;
+    }
+}
@@ -0,0 +1,88 @@
+package jpabook.jpashop.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SalesAccumulatorTest {
+
+    static final LocalDate FROM = LocalDate.of(2024, 1, 1);
+    static final LocalDate TO = LocalDate.of(2024, 3, 1);
+
+    @Test
+    public void 취소주문은_주문수에만_포함() throws Exception {
+
+        // given
+        SalesAccumulator accumulator = new SalesAccumulator(FROM, TO, 100, 110);
+
+        // when
+        accumulator.addItem(105, false, 3, 7, 70000);
+        accumulator.addItem(105, true, 1, 2, 20000);
+        accumulator.addDay(LocalDate.of(2024, 2, 29), false, 3, 7, 70000);
+        accumulator.addDay(LocalDate.of(2024, 2, 29), true, 1, 2, 20000);
+
+        // then
+        assertEquals(70000, accumulator.itemRevenue(105));
+        assertEquals(7, accumulator.itemUnits(105));
+        assertEquals(4, accumulator.itemOrders(105));
+        assertEquals(1, accumulator.itemCanceledOrders(105));
+        assertEquals(4, accumulator.dayOrders(59));
+        assertEquals(70000, accumulator.dayRevenue(59));
+    }
+
+    @Test
+    public void 범위밖_상품id는_배열을_늘려서_누적() throws Exception {
+
+        // given
+        SalesAccumulator accumulator = new SalesAccumulator(FROM, TO, 100, 110);
+
+        // when
+        accumulator.addItem(50, false, 1, 1, 1000);
+        accumulator.addItem(500, false, 1, 2, 2000);
+        accumulator.addItem(105, false, 1, 3, 3000);
+
+        // then
+        assertEquals(1000, accumulator.itemRevenue(50));
+        assertEquals(2000, accumulator.itemRevenue(500));
+        assertEquals(3000, accumulator.itemRevenue(105));
+        assertEquals(0, accumulator.itemRevenue(10_000));
+    }
+
+    @Test
+    public void 누적기_합치기() throws Exception {
+
+        // given
+        SalesAccumulator january = new SalesAccumulator(FROM, TO, 1, 10);
+        january.addItem(3, false, 1, 2, 2000);
+        january.addDay(LocalDate.of(2024, 1, 10), false, 1, 2, 2000);
+
+        SalesAccumulator february = new SalesAccumulator(FROM, TO, 1, 10);
+        february.addItem(3, false, 2, 4, 4000);
+        february.addItem(20, true, 1, 1, 1000);
+        february.addDay(LocalDate.of(2024, 2, 10), false, 2, 4, 4000);
+
+        // when
+        SalesAccumulator merged = january.merge(february);
+
+        // then
+        assertEquals(6000, merged.itemRevenue(3));
+        assertEquals(3, merged.itemOrders(3));
+        assertEquals(1, merged.itemCanceledOrders(20));
+        assertEquals(2000, merged.dayRevenue(9));
+        assertEquals(4000, merged.dayRevenue(40));
+    }
+
+    @Test
+    public void 기간밖_날짜는_예외() throws Exception {
+        SalesAccumulator accumulator = new SalesAccumulator(FROM, TO, 1, 10);
+        assertThrows(IllegalArgumentException.class, () -> accumulator.addDay(TO, false, 1, 1, 1));
+    }
+
+    @Test
+    public void 월경계로_기간나누기() throws Exception {
+        assertEquals(4, SalesAnalyticsService.monthSlices(LocalDate.of(2024, 1, 15), LocalDate.of(2024, 3, 10)).size());
+        assertEquals(2, SalesAnalyticsService.monthSlices(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 2, 1)).size());
+    }
+}
@@ -0,0 +1,65 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Item.Book;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.dto.SalesBucket;
+import jpabook.jpashop.dto.SalesReport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 월별 집계가 다른 스레드의 트랜잭션에서 실행되므로 테스트 트랜잭션 ( 롤백 ) 을 쓰지 않음
+ * 다른 테스트의 주문도 같은 기간에 있으므로 이 테스트에서 만든 상품 값만 확인
+ */
+@SpringBootTest
+class SalesAnalyticsServiceTest {
+
+    @Autowired SalesAnalyticsService salesAnalyticsService;
+    @Autowired OrderService orderService;
+    @Autowired MemberService memberService;
+    @Autowired ItemService itemService;
+
+    @Test
+    public void 상품별_매출_판매수량_취소율() throws Exception {
+
+        // given
+        Long memberId = memberService.join(Member.builder()
+                .name("sales-" + System.nanoTime())
+                .address(new Address("서울", "강가", "123-123"))
+                .build());
+        Book book = new Book();
+        book.setName("sales-" + System.nanoTime());
+        book.setPrice(10000);
+        book.setStockQuantity(100);
+        itemService.save(book);
+
+        orderService.order(memberId, book.getId(), 2);
+        orderService.order(memberId, book.getId(), 3);
+        Long canceled = orderService.order(memberId, book.getId(), 4);
+        orderService.cancelOrder(canceled);
+
+        // when ( 지난 달 ~ 오늘, 월 경계로 나뉘어 fork-join 으로 집계 )
+        LocalDate today = LocalDate.now();
+        SalesReport report = salesAnalyticsService.report(today.minusMonths(1).withDayOfMonth(1), today.plusDays(1), SalesBucket.MONTH);
+
+        // then
+        SalesReport.ItemSales itemSales = report.getItems().stream()
+                .filter(s -> s.getItemId().equals(book.getId()))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(book.getName(), itemSales.getName());
+        assertEquals(10000 * 5, itemSales.getSales().getRevenue());
+        assertEquals(5, itemSales.getSales().getUnits());
+        assertEquals(3, itemSales.getSales().getOrders());
+        assertEquals(1.0 / 3, itemSales.getSales().getCancellationRate(), 1e-9);
+
+        assertEquals(2, report.getPeriods().size());
+        assertTrue(report.getPeriods().get(1).getSales().getRevenue() >= 10000 * 5);
+    }
+}
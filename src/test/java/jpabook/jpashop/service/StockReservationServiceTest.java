@@ -0,0 +1,104 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.CommittedTestData;
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Item.Book;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.exception.NotEnoughStockException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 카운터는 커밋 / 롤백 이후에 정리되므로 테스트 트랜잭션 ( 롤백 ) 을 쓰지 않음
+ * reload-interval 0 -> 카운터가 바닥나면 항상 DB 에서 다시 읽음
+ */
+@SpringBootTest(properties = "jpashop.stock.reload-interval=0s")
+class StockReservationServiceTest {
+
+    @Autowired StockReservationService stockReservationService;
+    @Autowired OrderService orderService;
+    @Autowired MemberService memberService;
+    @Autowired ItemService itemService;
+    @Autowired TransactionTemplate transactionTemplate;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    Long memberId;
+    List<Long> itemIds = new ArrayList<>();
+
+    @BeforeEach
+    void createMember() {
+        memberId = memberService.join(Member.builder()
+                .name("stock-" + System.nanoTime())
+                .address(new Address("서울", "강가", "123-123"))
+                .build());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        CommittedTestData.deleteMember(jdbcTemplate, memberId);
+        itemIds.forEach(itemId -> CommittedTestData.deleteItem(jdbcTemplate, itemId));
+    }
+
+    @Test
+    public void 다른곳에서_DB재고가_늘면_바닥난카운터를_다시읽음() throws Exception {
+
+        // given
+        Book book = createBook(2);
+        orderService.order(memberId, book.getId(), 2); // 카운터 0
+
+        // when
+        jdbcTemplate.update("update item set stock_quantity = stock_quantity + 3 where item_id = ?", book.getId()); // 다른 서버의 재입고
+        orderService.order(memberId, book.getId(), 3);
+
+        // then
+        assertEquals(0, stockQuantity(book.getId()));
+        assertThrows(NotEnoughStockException.class, () -> orderService.order(memberId, book.getId(), 1));
+    }
+
+    @Test
+    public void 롤백하면_카운터를_버리고_DB값으로_다시읽음() throws Exception {
+
+        // given
+        Book book = createBook(5);
+        transactionTemplate.executeWithoutResult(status -> {
+            stockReservationService.reserve(book.getId(), 3);
+            status.setRollbackOnly();
+        });
+
+        // when
+        jdbcTemplate.update("update item set stock_quantity = 1 where item_id = ?", book.getId()); // 그 사이 다른 서버에서 판매
+
+        // then
+        // 롤백된 차감을 카운터에 되돌려 놓았다면 카운터는 5 -> 예약은 통과하고 커밋 시점에야 실패
+        transactionTemplate.executeWithoutResult(status -> {
+            NotEnoughStockException e = assertThrows(NotEnoughStockException.class, () ->
+                    stockReservationService.reserve(book.getId(), 2));
+            assertEquals("need more stock", e.getMessage());
+        });
+        assertEquals(1, stockQuantity(book.getId()));
+    }
+
+    private Book createBook(int stockQuantity) {
+        Book book = new Book();
+        book.setName("시골 JPA");
+        book.setPrice(10000);
+        book.setStockQuantity(stockQuantity);
+        itemService.save(book);
+        itemIds.add(book.getId());
+        return book;
+    }
+
+    private int stockQuantity(Long itemId) {
+        return jdbcTemplate.queryForObject("select stock_quantity from item where item_id = ?", Integer.class, itemId);
+    }
+}